@@ -28,6 +28,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 
@@ -88,12 +89,7 @@ public class Application {
         return args -> {
             logger.info("Application is starting .....");
             final String username = "admin";
-            final boolean adminUserExists = this.users
-                .loadAll()
-                .getContent()
-                .stream()
-                .anyMatch(user -> username.equals(user.getUsername()));
-            if (!adminUserExists) {
+            if (!this.users.exists(username)) {
                 this.createUser(username);
                 this.generateDemoVideos();
             }
@@ -125,7 +121,8 @@ public class Application {
     })
     private void generateDemoVideos() {
         this.logger.info("Generate demo videos .....");
-        this.videos.save(new VideoDto(
+        final var demo = new ArrayList<VideoDto>();
+        demo.add(new VideoDto(
             null,
             "Matteo Carcassi - Prelude in E Minor // Andrej Istomin",
             "Matteo Carcassi(1792 – 1853): \"Prelude in E Minor\". Performed by Andrej Istomin.",
@@ -144,7 +141,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Klaus Schindler - Zeit für Träume // Andrej Istomin",
             "The photos in this video were taken by my wife(checkout her channel, by the way:  https://www.youtube.com/channel/UC810...) in Landkreis Dachau(mostly in Schwabhausen and Altomünster). The lovely place where I live.",
@@ -163,7 +160,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Andrej Istomin - Jenny",
             "The melody composed and performed by Andrej Istomin except those telephone sounds.",
@@ -182,7 +179,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Mauro Giuliani - Sonatina op. 71 no. 1 // Andrej Istomin",
             "A little bit of an autumn mood :) Music piece is composed by Mauro Giuliani, called \"Sonatina op71 n°1\". The pictures in slide-show are the reproductions of different Russian painters.",
@@ -201,7 +198,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Blackmore's Night - Minstrel Hall // Andrej Istomin",
             "The piece is composed by Ritchie Blackmore.",
@@ -220,7 +217,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Fernando Sor - Andante // Andrej Istomin",
             "This time I'm playing \"Andante\" by Fernando Sor. It is the very first time when I try to create a real video instead of slide show which I did for my previous videos. I hope you like it :)",
@@ -239,7 +236,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Greensleeves(English traditional) // Andrej Istomin",
             "Today I'd like to show you my attempt to play instrumental version of the traditional English song \"Greensleeves\".",
@@ -258,7 +255,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Ferdinando Carulli - Andantino // Andrej Istomin",
             "This summer is really hot here in Germany. I decided to create this small summer video where I'm trying to play nice light piece called \"Andantino\" by Ferdinando Carulli (1770-1841).",
@@ -277,7 +274,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "Johann Pachelbel - Sarabande (Guitar + Recorder) // Andrej Istomin",
             "This summer is really hot here in Germany. I decided to create this small summer video where I'm trying to play nice light piece called \"Andantino\" by Ferdinando Carulli (1770-1841).",
@@ -296,7 +293,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
-        this.videos.save(new VideoDto(
+        demo.add(new VideoDto(
             null,
             "J. S. Bach - Bourrée // Andrej Istomin",
             "Thanks for watching this video. If you like it, please subscribe to my channel, comment the videos, \"like\" them and share with your friends.",
@@ -315,6 +312,7 @@ public class Application {
                     .toInstant(ZoneOffset.UTC)
             )
         ));
+        this.videos.saveAll(demo);
         this.logger.info("Demo videos were successfully generated.");
     }
 }
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Timer;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Consumer that takes the messages of one or more queues (lanes) in batches.
+ * <p>
+ * A worker picks a lane by the weighted round robin of the {@link Lanes},
+ * takes a message from it and then the following ones of the same lane
+ * until the batch is full or the wait time since the first message is
+ * over. When all the lanes are empty, the worker waits on the heaviest
+ * one. The
+ * batch is received in a transacted session: it is acknowledged as a unit
+ * when the handler returns and rolled back when the handler fails. A
+ * redelivered message is handled alone, so one bad message does not keep
+ * failing the messages that arrived together with it.
+ * <p>
+ * The number of the workers scales between the configured bounds: a worker
+ * that sees a backlog after its batch starts another one, and a worker that
+ * has been idle for a while stops if there are more than the minimum. The
+ * backlog is the queue depth of the embedded broker or, without it, a full
+ * batch.
+ *
+ * @since 0.3
+ */
+public final class BatchConsumer {
+
+    /**
+     * Number of the empty polls after which an extra worker stops.
+     */
+    private static final int IDLE_POLLS = 20;
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Settings.
+     */
+    private final BatchConsumers settings;
+
+    /**
+     * Connection factory.
+     */
+    private final ConnectionFactory factory;
+
+    /**
+     * Consumer name.
+     */
+    private final String name;
+
+    /**
+     * Queue names of the lanes.
+     */
+    private final List<String> queues;
+
+    /**
+     * Weights of the lanes.
+     */
+    private final int[] weights;
+
+    /**
+     * Index of the heaviest lane.
+     */
+    private final int heaviest;
+
+    /**
+     * Queue wait time by lane.
+     */
+    private final List<Timer> waits;
+
+    /**
+     * Maximal batch size.
+     */
+    private final int size;
+
+    /**
+     * Maximal wait time for a batch in ms.
+     */
+    private final long wait;
+
+    /**
+     * Batch handler.
+     */
+    private final Consumer<List<Message>> handler;
+
+    /**
+     * Threads of the workers.
+     */
+    private final SimpleAsyncTaskExecutor threads;
+
+    /**
+     * Number of the running workers.
+     */
+    private final AtomicInteger workers = new AtomicInteger();
+
+    /**
+     * Time of the batch handling.
+     */
+    private final Timer batches;
+
+    /**
+     * Number of the handled messages.
+     */
+    private final LongAdder messages;
+
+    /**
+     * Whether the consumer is running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Ctor.
+     *
+     * @param consumers Settings.
+     * @param title     Consumer name.
+     * @param lanes     Weights by queue name, in the order of the lanes.
+     * @param batch     Maximal batch size.
+     * @param timeout   Maximal wait time for a batch.
+     * @param consumer  Batch handler.
+     */
+    BatchConsumer(
+        final BatchConsumers consumers,
+        final String title,
+        final Map<String, Integer> lanes,
+        final int batch,
+        final Duration timeout,
+        final Consumer<List<Message>> consumer
+    ) {
+        this.settings = consumers;
+        this.factory = consumers.getConnections();
+        this.name = title;
+        this.queues = List.copyOf(lanes.keySet());
+        this.weights = lanes.values().stream()
+            .mapToInt(weight -> Math.max(1, weight))
+            .toArray();
+        this.heaviest = IntStream.range(0, this.weights.length)
+            .reduce((left, right) -> {
+                if (this.weights[right] > this.weights[left]) {
+                    return right;
+                }
+                return left;
+            })
+            .orElseThrow();
+        this.size = batch;
+        this.wait = Math.max(1L, timeout.toMillis());
+        this.handler = consumer;
+        this.threads = new SimpleAsyncTaskExecutor(
+            String.format("%s-", title)
+        );
+        this.threads.setDaemon(true);
+        this.threads.setVirtualThreads(consumers.isVirtualThreads());
+        this.threads.setTaskTerminationTimeout(this.wait * 2);
+        final var metrics = consumers.getMetrics();
+        final var prefix = String.format("jms.%s", title);
+        this.batches = metrics.timer(String.format("%s.batch", prefix));
+        this.messages = metrics.counter(String.format("%s.messages", prefix));
+        this.waits = this.queues.stream()
+            .map(
+                queue -> {
+                    metrics.gauge(
+                        String.format("jms.%s.depth", queue),
+                        () -> consumers.depth(queue)
+                    );
+                    return metrics.timer(
+                        String.format("jms.%s.queue-wait", queue)
+                    );
+                }
+            )
+            .toList();
+        metrics.gauge(
+            String.format("%s.consumers", prefix), this.workers::get
+        );
+    }
+
+    /**
+     * Start consuming the queue with the minimal number of the workers.
+     */
+    public void start() {
+        for (int idx = 0; idx < this.settings.getMinConsumers(); ++idx) {
+            this.hire();
+        }
+    }
+
+    /**
+     * Stop consuming the queue. The current batches are finished first.
+     */
+    public void stop() {
+        this.running = false;
+        this.threads.close();
+    }
+
+    /**
+     * Start one more worker unless there are enough of them.
+     */
+    private void hire() {
+        int current;
+        do {
+            current = this.workers.get();
+            if (!this.running || current >= this.settings.getMaxConsumers()) {
+                return;
+            }
+        } while (!this.workers.compareAndSet(current, current + 1));
+        this.threads.execute(this::work);
+    }
+
+    /**
+     * Stop this worker unless there are too few of them.
+     *
+     * @return True if the worker should stop.
+     */
+    private boolean retire() {
+        int current;
+        do {
+            current = this.workers.get();
+            if (current <= this.settings.getMinConsumers()) {
+                return false;
+            }
+        } while (!this.workers.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    /**
+     * Whether the queue has more messages than the workers take at once.
+     *
+     * @param received Size of the last batch.
+     * @return True if there is a backlog.
+     */
+    private boolean backlog(final int received) {
+        long depth = 0L;
+        for (final var queue : this.queues) {
+            final long lane = this.settings.depth(queue);
+            if (lane < 0L) {
+                return received == this.size;
+            }
+            depth += lane;
+        }
+        return depth > (long) this.workers.get() * this.size;
+    }
+
+    /**
+     * Consume the queue until stopped or retired, reconnecting after the
+     * errors.
+     */
+    private void work() {
+        boolean working = true;
+        while (working && this.running) {
+            try (var connection = this.factory.createConnection()) {
+                final var session = connection.createSession(
+                    true, Session.SESSION_TRANSACTED
+                );
+                final var consumers = new ArrayList<MessageConsumer>(
+                    this.queues.size()
+                );
+                for (final var queue : this.queues) {
+                    consumers.add(
+                        session.createConsumer(session.createQueue(queue))
+                    );
+                }
+                final var lanes = new Lanes(this.weights);
+                connection.start();
+                int idle = 0;
+                while (working && this.running) {
+                    final int received = this.consume(
+                        session, consumers, lanes
+                    );
+                    if (received > 0) {
+                        idle = 0;
+                        if (this.backlog(received)) {
+                            this.hire();
+                        }
+                    } else {
+                        idle += 1;
+                        working = idle < IDLE_POLLS || !this.retire();
+                    }
+                }
+            } catch (final JMSException error) {
+                this.logger.error("Can not consume {}", this.name, error);
+                try {
+                    Thread.sleep(this.wait);
+                } catch (final InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    this.running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receive and handle one batch.
+     *
+     * @param session   Transacted session.
+     * @param consumers Message consumers of the lanes.
+     * @param lanes     Round robin of the lanes.
+     * @return Number of the received messages.
+     * @throws JMSException If the broker fails.
+     */
+    private int consume(
+        final Session session,
+        final List<MessageConsumer> consumers,
+        final Lanes lanes
+    ) throws JMSException {
+        Message first = null;
+        int lane = this.heaviest;
+        for (final int idx : lanes.order()) {
+            first = consumers.get(idx).receiveNoWait();
+            if (first != null) {
+                lane = idx;
+                break;
+            }
+            lanes.empty(idx);
+        }
+        final var consumer = consumers.get(lane);
+        if (first == null) {
+            first = consumer.receive(this.wait);
+            if (first == null) {
+                return 0;
+            }
+        }
+        lanes.served(lane);
+        final var batch = new ArrayList<Message>(this.size);
+        batch.add(first);
+        if (!first.getJMSRedelivered()) {
+            final long deadline = System.currentTimeMillis() + this.wait;
+            while (batch.size() < this.size) {
+                final long left = deadline - System.currentTimeMillis();
+                if (left <= 0L) {
+                    break;
+                }
+                final var next = consumer.receive(left);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        }
+        final long now = System.currentTimeMillis();
+        final var waiting = this.waits.get(lane);
+        for (final var message : batch) {
+            waiting.record(
+                TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0L, now - message.getJMSTimestamp())
+                )
+            );
+        }
+        final long started = System.nanoTime();
+        try {
+            this.handler.accept(batch);
+            session.commit();
+            this.messages.add(batch.size());
+        } catch (final RuntimeException error) {
+            this.logger.error(
+                "Can not handle {} messages of {}",
+                batch.size(), this.queues.get(lane), error
+            );
+            session.rollback();
+        }
+        this.batches.record(System.nanoTime() - started);
+        return batch.size();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import lombok.Getter;
+import org.apache.activemq.broker.BrokerRegistry;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Factory of the {@link BatchConsumer}s with the common settings: the
+ * number of the concurrent consumers per queue, the kind of their threads
+ * and the queue depth of the embedded broker, which they scale with.
+ *
+ * @since 0.3
+ */
+@Getter
+@Component
+public final class BatchConsumers {
+
+    /**
+     * Connection factory.
+     */
+    private final ConnectionFactory connections;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Minimal number of the consumers of a queue.
+     */
+    private final int minConsumers;
+
+    /**
+     * Maximal number of the consumers of a queue.
+     */
+    private final int maxConsumers;
+
+    /**
+     * Whether the consumers run on virtual threads.
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * Ctor.
+     *
+     * @param factory  Connection factory.
+     * @param registry Metrics.
+     * @param min      Minimal number of the consumers of a queue.
+     * @param max      Maximal number of the consumers of a queue.
+     * @param virtual  Whether the consumers run on virtual threads.
+     */
+    public BatchConsumers(
+        final ConnectionFactory factory,
+        final Metrics registry,
+        @Value("${jms.min-consumers}") final int min,
+        @Value("${jms.max-consumers}") final int max,
+        @Value("${jms.virtual-threads}") final boolean virtual
+    ) {
+        this.connections = factory;
+        this.metrics = registry;
+        this.minConsumers = Math.max(1, min);
+        this.maxConsumers = Math.max(this.minConsumers, max);
+        this.virtualThreads = virtual;
+    }
+
+    /**
+     * Consumer of the queue. It consumes nothing until it is started.
+     *
+     * @param queue   Queue name.
+     * @param size    Maximal batch size.
+     * @param wait    Maximal wait time for a batch.
+     * @param handler Batch handler.
+     * @return Consumer.
+     */
+    public BatchConsumer create(
+        final String queue,
+        final int size,
+        final Duration wait,
+        final Consumer<List<Message>> handler
+    ) {
+        return this.create(queue, Map.of(queue, 1), size, wait, handler);
+    }
+
+    /**
+     * Consumer of the lanes. It consumes nothing until it is started.
+     *
+     * @param name    Consumer name.
+     * @param lanes   Weights by queue name, in the order of the lanes.
+     * @param size    Maximal batch size.
+     * @param wait    Maximal wait time for a batch.
+     * @param handler Batch handler.
+     * @return Consumer.
+     */
+    public BatchConsumer create(
+        final String name,
+        final Map<String, Integer> lanes,
+        final int size,
+        final Duration wait,
+        final Consumer<List<Message>> handler
+    ) {
+        return new BatchConsumer(this, name, lanes, size, wait, handler);
+    }
+
+    /**
+     * Number of the messages in the queue of the embedded broker that are
+     * not acknowledged yet.
+     *
+     * @param queue Queue name.
+     * @return Queue depth or -1 if there is no embedded broker.
+     */
+    public long depth(final String queue) {
+        final var broker = BrokerRegistry.getInstance().findFirst();
+        if (broker == null || broker.getRegionBroker() == null) {
+            return -1L;
+        }
+        return broker.getRegionBroker()
+            .getDestinationMap(new ActiveMQQueue(queue))
+            .values()
+            .stream()
+            .mapToLong(
+                destination -> destination.getDestinationStatistics()
+                    .getMessages().getCount()
+            )
+            .sum();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.contact.ContactRequest;
+import com.github.aistomin.andys.backend.services.ContactUsService;
+import com.github.aistomin.andys.backend.utils.EmailAddress;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asynchronous ingestion of the "Contact Us" requests.
+ * <p>
+ * The controller only publishes the request to the queue. The requests are
+ * consumed in micro-batches, so the people and the emails of a whole batch
+ * are stored with a few batched statements instead of a few round trips
+ * per request.
+ *
+ * @since 0.3
+ */
+@Component
+public final class ContactIngest implements DisposableBean {
+
+    /**
+     * "Contact Us" requests queue.
+     */
+    public static final String CONTACT_QUEUE = "contact.request";
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper json = new ObjectMapper();
+
+    /**
+     * JMS template.
+     */
+    private final JmsTemplate jms;
+
+    /**
+     * "Contact Us" service.
+     */
+    private final ContactUsService contact;
+
+    /**
+     * Consumer of the queue.
+     */
+    private final BatchConsumer consumer;
+
+    /**
+     * Ctor.
+     *
+     * @param template    JMS template.
+     * @param consumers   Batch consumers.
+     * @param service     "Contact Us" service.
+     * @param size        Maximal batch size.
+     * @param wait        Maximal wait time for a batch in ms.
+     */
+    public ContactIngest(
+        final JmsTemplate template,
+        final BatchConsumers consumers,
+        final ContactUsService service,
+        @Value("${contact.batch-size}") final int size,
+        @Value("${contact.batch-wait}") final long wait
+    ) {
+        this.jms = template;
+        this.contact = service;
+        this.consumer = consumers.create(
+            CONTACT_QUEUE, size, Duration.ofMillis(wait),
+            this::handle
+        );
+    }
+
+    /**
+     * Queue the request.
+     *
+     * @param request Contact request.
+     */
+    public void submit(final ContactRequest request) {
+        final String text;
+        try {
+            text = this.json.writeValueAsString(request);
+        } catch (final JsonProcessingException error) {
+            throw new IllegalArgumentException(error);
+        }
+        this.jms.send(
+            CONTACT_QUEUE, session -> session.createTextMessage(text)
+        );
+    }
+
+    /**
+     * Start consuming the queue once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.consumer.start();
+    }
+
+    @Override
+    public void destroy() {
+        this.consumer.stop();
+    }
+
+    /**
+     * Handle a batch of the queued requests. A request with an invalid
+     * email address is dropped: the controller does not queue them, so it
+     * could only come from elsewhere.
+     *
+     * @param batch Messages.
+     */
+    private void handle(final List<Message> batch) {
+        final var requests = new ArrayList<ContactRequest>(batch.size());
+        for (final var message : batch) {
+            final ContactRequest request;
+            try {
+                request = this.json.readValue(
+                    ((TextMessage) message).getText(), ContactRequest.class
+                );
+            } catch (final JMSException | JsonProcessingException error) {
+                throw new IllegalArgumentException(error);
+            }
+            if (EmailAddress.valid(request.getEmail())) {
+                requests.add(request);
+            } else {
+                this.logger.warn("Dropped a request with an invalid email");
+            }
+        }
+        this.contact.contactUs(requests);
+    }
+}
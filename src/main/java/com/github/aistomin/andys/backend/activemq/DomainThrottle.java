@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.security.TokenBuckets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Throttle of the emails by the domain of the receptor.
+ * <p>
+ * Every domain has a token bucket and a cap of the emails that are being
+ * sent to it at once. An email over the rate reserves the next free token
+ * of its domain, so the waiting emails come back one by one at the rate of
+ * the domain rather than all at the same tick. Such an email is parked in
+ * the timing wheel until its token is due, instead of being put back to
+ * the queue, and then released to the handler in chunks; a released email
+ * only needs a place in the flight. The wheel holds a bounded number of
+ * emails for at most one turn: an email that does not fit is not parked
+ * and the caller has to delay it in a durable store. The throughput of the
+ * domains is reported as metrics; the domains over the first hundred are
+ * reported together as "other".
+ *
+ * @since 0.3
+ */
+public final class DomainThrottle {
+
+    /**
+     * Number of the slots of the wheel.
+     */
+    private static final int SLOTS = 512;
+
+    /**
+     * Maximal number of the domains that are reported on their own.
+     */
+    private static final int REPORTED = 100;
+
+    /**
+     * Name of the domains that are not reported on their own.
+     */
+    private static final String OTHER = "other";
+
+    /**
+     * Minimal delay of a chunk that the handler failed to take.
+     */
+    private static final Duration RETRY = Duration.ofSeconds(1L);
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Rates by domain.
+     */
+    private final TokenBuckets rates;
+
+    /**
+     * Number of the emails that are being sent by domain. A domain is
+     * removed when its last email is done; the count is changed and the
+     * domain is added or removed in one atomic step, so a place taken
+     * concurrently is never lost.
+     */
+    private final ConcurrentHashMap<String, Integer> flights =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Maximal number of the emails that are being sent to a domain.
+     */
+    private final int concurrency;
+
+    /**
+     * Parked email IDs.
+     */
+    private final TimingWheel<Long> wheel;
+
+    /**
+     * Tick of the wheel.
+     */
+    private final Duration tick;
+
+    /**
+     * Longest wait that the wheel takes.
+     */
+    private final Duration span;
+
+    /**
+     * Maximal number of the parked emails.
+     */
+    private final int capacity;
+
+    /**
+     * Maximal number of the emails released to the handler at once.
+     */
+    private final int chunk;
+
+    /**
+     * Delay of a chunk that the handler failed to take in ns.
+     */
+    private final long retry;
+
+    /**
+     * Handler of the released email IDs.
+     */
+    private final Consumer<List<Long>> release;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Reported domains.
+     */
+    private final ConcurrentHashMap<String, LongAdder> reported =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Parked emails.
+     */
+    private final LongAdder parked;
+
+    /**
+     * Emails that did not fit into the wheel.
+     */
+    private final LongAdder deferred;
+
+    /**
+     * Thread that turns the wheel.
+     */
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Ctor.
+     *
+     * @param rate      Number of the emails per period per domain.
+     * @param period    Period.
+     * @param flight    Maximal number of the emails that are being sent to
+     *                  a domain.
+     * @param tracked   Maximal number of the tracked domains.
+     * @param precision Tick of the wheel.
+     * @param waiting   Maximal number of the parked emails.
+     * @param released  Maximal number of the emails released to the handler
+     *                  at once.
+     * @param registry  Metrics.
+     * @param handler   Handler of the released email IDs.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public DomainThrottle(
+        final int rate,
+        final Duration period,
+        final int flight,
+        final int tracked,
+        final Duration precision,
+        final int waiting,
+        final int released,
+        final Metrics registry,
+        final Consumer<List<Long>> handler
+    ) {
+        this.rates = new TokenBuckets(rate, period, tracked);
+        this.concurrency = flight;
+        this.tick = precision;
+        this.span = precision.multipliedBy(SLOTS);
+        this.capacity = waiting;
+        this.chunk = released;
+        this.retry = Math.max(precision.toNanos(), RETRY.toNanos());
+        this.wheel = new TimingWheel<>(precision, SLOTS, System.nanoTime());
+        this.release = handler;
+        this.metrics = registry;
+        this.parked = registry.counter("email.domains.parked");
+        this.deferred = registry.counter("email.domains.deferred");
+        registry.gauge("email.domains.waiting", this.wheel::size);
+        final var threads = new CustomizableThreadFactory("email-wheel-");
+        threads.setDaemon(true);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threads);
+        this.ticker.scheduleWithFixedDelay(
+            this::turn, precision.toNanos(), precision.toNanos(),
+            TimeUnit.NANOSECONDS
+        );
+    }
+
+    /**
+     * Domain of the email address.
+     *
+     * @param address Email address.
+     * @return Domain in lower case.
+     */
+    public static String domain(final String address) {
+        return address.substring(address.lastIndexOf('@') + 1)
+            .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reserve a token of the domain for a new email and take a place to
+     * send it if the token is available now. A taken place must be given
+     * back with {@link #done(String)}. If the place is not taken, the token
+     * stays reserved for the email: it must wait for the returned time and
+     * then take the place with {@link #enter(String)}.
+     *
+     * @param domain Domain.
+     * @param now    Current time in ns.
+     * @return Zero if the place is taken, otherwise the time after which
+     *  the reserved token is due.
+     */
+    public Duration admit(final String domain, final long now) {
+        final var wait = this.rates.reserve(domain, now);
+        if (wait.isZero()) {
+            return this.enter(domain);
+        }
+        return wait;
+    }
+
+    /**
+     * Take a place to send an email that has its token already. A taken
+     * place must be given back with {@link #done(String)}.
+     *
+     * @param domain Domain.
+     * @return Zero if the place is taken, otherwise the time after which
+     *  the domain may have a place.
+     */
+    public Duration enter(final String domain) {
+        final var entered = new AtomicBoolean();
+        this.flights.compute(
+            domain,
+            (key, count) -> {
+                final int current = Objects.requireNonNullElse(count, 0);
+                if (current >= this.concurrency) {
+                    return count;
+                }
+                entered.set(true);
+                return current + 1;
+            }
+        );
+        if (entered.get()) {
+            return Duration.ZERO;
+        }
+        return this.tick;
+    }
+
+    /**
+     * Give back the place after the email is sent.
+     *
+     * @param domain Domain.
+     */
+    public void done(final String domain) {
+        this.flights.computeIfPresent(
+            domain,
+            (key, count) -> {
+                if (count <= 1) {
+                    return null;
+                }
+                return count - 1;
+            }
+        );
+        this.throughput(domain).increment();
+    }
+
+    /**
+     * Park the email until the domain may have a place, unless the wheel is
+     * full or the wait is longer than a turn of the wheel.
+     *
+     * @param id   Email ID.
+     * @param wait Time to wait.
+     * @return True if the email is parked, false if the caller has to delay
+     *  it on its own.
+     */
+    public boolean park(final Long id, final Duration wait) {
+        if (wait.compareTo(this.span) > 0
+            || this.wheel.size() >= this.capacity) {
+            this.deferred.increment();
+            return false;
+        }
+        this.wheel.schedule(id, System.nanoTime() + wait.toNanos());
+        this.parked.increment();
+        return true;
+    }
+
+    /**
+     * Stop turning the wheel.
+     */
+    public void stop() {
+        this.ticker.shutdownNow();
+    }
+
+    /**
+     * Release the emails that are due in chunks. A chunk that the handler
+     * fails to take is parked again for a while.
+     */
+    private void turn() {
+        final var due = this.wheel.advance(System.nanoTime());
+        for (int from = 0; from < due.size(); from += this.chunk) {
+            final var part = List.copyOf(
+                due.subList(from, Math.min(due.size(), from + this.chunk))
+            );
+            try {
+                this.release.accept(part);
+            } catch (final RuntimeException error) {
+                this.logger.error("Can not release the parked emails", error);
+                final long later = System.nanoTime() + this.retry;
+                part.forEach(id -> this.wheel.schedule(id, later));
+            }
+        }
+    }
+
+    /**
+     * Counter of the emails sent to the domain.
+     *
+     * @param domain Domain.
+     * @return Counter.
+     */
+    private LongAdder throughput(final String domain) {
+        var counter = this.reported.get(domain);
+        if (counter == null) {
+            final String name;
+            if (this.reported.size() < REPORTED) {
+                name = domain;
+            } else {
+                name = OTHER;
+            }
+            counter = this.reported.computeIfAbsent(
+                name,
+                key -> this.metrics.counter(
+                    String.format("email.domains.%s.sent", key)
+                )
+            );
+        }
+        return counter;
+    }
+}
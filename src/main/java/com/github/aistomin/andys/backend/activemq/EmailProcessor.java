@@ -15,27 +15,70 @@
  */
 package com.github.aistomin.andys.backend.activemq;
 
+import com.github.aistomin.andys.backend.mail.Mail;
+import com.github.aistomin.andys.backend.mail.MailTransport;
+import com.github.aistomin.andys.backend.metrics.Metrics;
 import com.github.aistomin.andys.backend.model.EmailMessageRepository;
 import com.github.aistomin.andys.backend.model.EmailMessageStatus;
+import com.github.aistomin.andys.backend.model.EmailMessageType;
 import jakarta.jms.JMSException;
+import jakarta.jms.Message;
 import jakarta.jms.TextMessage;
-import org.apache.activemq.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
-import org.springframework.jms.annotation.JmsListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Email processing logic.
+ * <p>
+ * Every {@link EmailMessageType} has its own queue (lane), so a bulk send
+ * does not delay the interactive emails; the lanes are consumed by the
+ * weighted round robin with the weights {@code email.weights.<type>}. The
+ * base queue is a lane too, for the messages of the older nodes.
+ * <p>
+ * The emails pass the {@link DomainThrottle} before they are sent, so a
+ * receiving domain gets no more emails than it accepts. An email that has
+ * to wait is parked in the throttle or, if it does not fit there, delayed
+ * in the outbox by the {@link EmailSender}; either way it keeps the token
+ * that it has reserved.
+ * <p>
+ * The lanes are consumed in batches: the emails of a batch are locked and
+ * loaded with two queries, the admitted ones are claimed by moving them
+ * from {@link EmailMessageStatus#CREATED} to
+ * {@link EmailMessageStatus#SENDING}, handed to the {@link MailTransport}
+ * outside of the database transaction, and their new statuses are written
+ * with one update per status (one per failure, with the reason in the
+ * info), and the batch is acknowledged as a unit. If the transport throws,
+ * all the claimed emails fail with its error. Only the emails that are
+ * still created are loaded, so a redelivered message or an email that is
+ * enqueued twice is never sent twice.
  *
  * @since 0.2
  */
 @Component
-public final class EmailProcessor {
+public final class EmailProcessor implements DisposableBean {
 
     /**
-     * Email queue.
+     * Email queue, also the prefix of the lanes.
      */
     public static final String EMAIL_QUEUE = "email.send";
 
@@ -44,45 +87,283 @@ public final class EmailProcessor {
      */
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    /**
+     * JSON parser.
+     */
+    private final JsonParser json = JsonParserFactory.getJsonParser();
+
     /**
      * Email message repository.
      */
     private final EmailMessageRepository emails;
 
+    /**
+     * Transactions.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Transport that delivers the emails.
+     */
+    private final MailTransport transport;
+
+    /**
+     * Throttle by the domain of the receptor.
+     */
+    private final DomainThrottle throttle;
+
+    /**
+     * Email sender that delays the emails in the outbox.
+     */
+    private final EmailSender sender;
+
+    /**
+     * Consumer of the queue.
+     */
+    private final BatchConsumer consumer;
+
     /**
      * Ctor.
      *
-     * @param repository Email message repository.
+     * @param repository  Email message repository.
+     * @param delays      Email sender that delays the emails in the outbox.
+     * @param mailer      Transport that delivers the emails.
+     * @param consumers   Batch consumers.
+     * @param manager     Transaction manager.
+     * @param env         Environment with the weights of the lanes and the
+     *                    limits of the domains.
+     * @param registry    Metrics.
+     * @param size        Maximal batch size.
+     * @param wait        Maximal wait time for a batch in ms.
      */
-    public EmailProcessor(final EmailMessageRepository repository) {
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public EmailProcessor(
+        final EmailMessageRepository repository,
+        final EmailSender delays,
+        final MailTransport mailer,
+        final BatchConsumers consumers,
+        final PlatformTransactionManager manager,
+        final Environment env,
+        final Metrics registry,
+        @Value("${email.batch-size}") final int size,
+        @Value("${email.batch-wait}") final long wait
+    ) {
         this.emails = repository;
+        this.sender = delays;
+        this.transport = mailer;
+        this.transactions = new TransactionTemplate(manager);
+        this.throttle = new DomainThrottle(
+            env.getRequiredProperty("email.domains.rate", Integer.class),
+            Duration.ofSeconds(
+                env.getRequiredProperty("email.domains.period", Long.class)
+            ),
+            env.getRequiredProperty("email.domains.concurrency", Integer.class),
+            env.getRequiredProperty("email.domains.tracked", Integer.class),
+            Duration.ofMillis(
+                env.getRequiredProperty("email.domains.tick", Long.class)
+            ),
+            env.getRequiredProperty("email.domains.waiting", Integer.class),
+            size,
+            registry,
+            ids -> this.send(ids, new HashSet<>(ids))
+        );
+        final var lanes = new LinkedHashMap<String, Integer>();
+        for (final var type : EmailMessageType.values()) {
+            lanes.put(
+                EmailProcessor.lane(type),
+                env.getRequiredProperty(
+                    String.format(
+                        "email.weights.%s",
+                        type.name().toLowerCase(Locale.ROOT).replace('_', '-')
+                    ),
+                    Integer.class
+                )
+            );
+        }
+        lanes.put(EMAIL_QUEUE, 1);
+        this.consumer = consumers.create(
+            EMAIL_QUEUE, lanes, size, Duration.ofMillis(wait),
+            this::process
+        );
     }
 
     /**
-     * Receive AMQ message.
+     * Queue of the emails of the type.
      *
-     * @param message AMQ message.
-     * @throws JMSException If something went wrong.
-     * @todo: Issue #174. Let's implement the real email sending logic.
-     */
-    @JmsListener(destination = EMAIL_QUEUE)
-    public void receiveMessage(final Message message) throws JMSException {
-        logger.debug("Message received: {}", message);
-        if (message instanceof TextMessage msg) {
-            final var json = JsonParserFactory.getJsonParser()
-                .parseMap(msg.getText());
-            final var id = Long.parseLong(json.get("email_id").toString());
-            final var email = this.emails.findById(id).get();
-            if (email.getReceptor().getEmail().endsWith("failed.email")) {
-                email.setStatus(EmailMessageStatus.FAILED);
-                logger.error("Email {} is failed.", email.getId());
+     * @param type Email type.
+     * @return Queue name.
+     */
+    public static String lane(final EmailMessageType type) {
+        return String.format(
+            "%s.%s", EMAIL_QUEUE, type.name().toLowerCase(Locale.ROOT)
+        );
+    }
+
+    /**
+     * Start consuming the queue once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.consumer.start();
+    }
+
+    @Override
+    public void destroy() {
+        this.consumer.stop();
+        this.throttle.stop();
+    }
+
+    /**
+     * Process a batch of AMQ messages.
+     *
+     * @param batch AMQ messages.
+     */
+    private void process(final List<Message> batch) {
+        final var ids = new ArrayList<Long>(batch.size());
+        final var reserved = new HashSet<Long>(0);
+        for (final var message : batch) {
+            logger.debug("Message received: {}", message);
+            if (message instanceof TextMessage msg) {
+                final var data = this.data(msg);
+                final var id = Long.parseLong(data.get("email_id").toString());
+                ids.add(id);
+                if (Boolean.TRUE.equals(data.get("reserved"))) {
+                    reserved.add(id);
+                }
             } else {
-                email.setStatus(EmailMessageStatus.SENT);
-                logger.debug("Email {} is sent.", email.getId());
+                logger.error("No idea what is that: {}", message);
+            }
+        }
+        if (!ids.isEmpty()) {
+            this.send(ids, reserved);
+        }
+    }
+
+    /**
+     * Claim and send the emails whose domains have capacity and delay the
+     * others.
+     *
+     * @param ids      Email IDs.
+     * @param reserved IDs of the emails that have their tokens reserved.
+     */
+    private void send(final List<Long> ids, final Set<Long> reserved) {
+        final long now = System.nanoTime();
+        final var mails = new ArrayList<Mail>(ids.size());
+        final var domains = new ArrayList<String>(ids.size());
+        try {
+            this.transactions.executeWithoutResult(
+                status -> this.claim(ids, reserved, now, mails, domains)
+            );
+        } catch (final RuntimeException error) {
+            domains.forEach(this.throttle::done);
+            throw error;
+        }
+        if (mails.isEmpty()) {
+            return;
+        }
+        Map<Long, String> failed;
+        try {
+            failed = this.transport.send(mails);
+        } catch (final RuntimeException error) {
+            logger.error("Can not send the emails", error);
+            final var info = String.format(
+                "Transport error: %s", error.getMessage()
+            );
+            failed = new HashMap<>(2 * mails.size());
+            for (final var mail : mails) {
+                failed.put(mail.getId(), info);
+            }
+        } finally {
+            domains.forEach(this.throttle::done);
+        }
+        final var errors = failed;
+        final var sent = mails.stream()
+            .map(Mail::getId)
+            .filter(id -> !errors.containsKey(id))
+            .toList();
+        this.transactions.executeWithoutResult(
+            status -> {
+                if (!sent.isEmpty()) {
+                    this.emails.updateStatus(sent, EmailMessageStatus.SENT);
+                }
+                errors.forEach(
+                    (id, info) -> {
+                        logger.error("Email {} is failed: {}", id, info);
+                        this.emails.updateStatus(
+                            id, EmailMessageStatus.FAILED, info
+                        );
+                    }
+                );
             }
-            this.emails.save(email);
-        } else {
-            logger.error("No idea what is that: {}", message);
+        );
+        logger.debug("Emails {} are sent.", sent);
+    }
+
+    /**
+     * Lock the emails that are still created, admit them to their domains
+     * and claim the admitted ones. Must be called in a transaction.
+     *
+     * @param ids      Email IDs.
+     * @param reserved IDs of the emails that have their tokens reserved.
+     * @param now      Current time in ns.
+     * @param mails    Admitted mails, filled by this method.
+     * @param domains  Domains of the admitted mails, filled by this method.
+     */
+    private void claim(
+        final List<Long> ids, final Set<Long> reserved, final long now,
+        final List<Mail> mails, final List<String> domains
+    ) {
+        final var locked = this.emails.lock(ids);
+        if (locked.isEmpty()) {
+            return;
+        }
+        final var created = this.emails.loadWithReceptors(
+            locked, EmailMessageStatus.CREATED
+        );
+        for (final var email : created) {
+            final var receptor = email.getReceptor().getEmail();
+            final var domain = DomainThrottle.domain(receptor);
+            final Duration wait;
+            if (reserved.contains(email.getId())) {
+                wait = this.throttle.enter(domain);
+            } else {
+                wait = this.throttle.admit(domain, now);
+            }
+            if (wait.isZero()) {
+                domains.add(domain);
+                mails.add(
+                    new Mail(
+                        email.getId(), receptor,
+                        email.getDispatcher().getEmail(),
+                        email.getSubject(), email.getBody()
+                    )
+                );
+            } else if (this.throttle.park(email.getId(), wait)) {
+                logger.debug("Email {} is parked.", email.getId());
+            } else {
+                this.sender.defer(email, wait);
+                logger.debug("Email {} is deferred.", email.getId());
+            }
+        }
+        if (!mails.isEmpty()) {
+            this.emails.updateClaim(
+                mails.stream().map(Mail::getId).toList(),
+                EmailMessageStatus.SENDING, new Date()
+            );
+        }
+    }
+
+    /**
+     * Data of the AMQ message.
+     *
+     * @param message AMQ message.
+     * @return Email ID and whether its token is reserved.
+     */
+    private Map<String, Object> data(final TextMessage message) {
+        try {
+            return this.json.parseMap(message.getText());
+        } catch (final JMSException error) {
+            throw new IllegalArgumentException(error);
         }
     }
 }
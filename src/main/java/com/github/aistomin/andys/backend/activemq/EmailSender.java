@@ -21,21 +21,49 @@ import com.github.aistomin.andys.backend.model.EmailMessage;
 import com.github.aistomin.andys.backend.model.EmailMessageRepository;
 import com.github.aistomin.andys.backend.model.EmailMessageStatus;
 import com.github.aistomin.andys.backend.model.EmailMessageType;
+import com.github.aistomin.andys.backend.model.OutboxMessage;
+import com.github.aistomin.andys.backend.model.OutboxMessageRepository;
 import com.github.aistomin.andys.backend.model.Person;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.jms.core.JmsTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Email sender.
+ * <p>
+ * The emails are stored together with their outbox messages in one
+ * transaction; the {@link OutboxRelay} publishes them to the lanes of
+ * their types. An email that has to wait longer than the processor may
+ * keep it in memory is delayed in the outbox as well. The emails that are
+ * still created when the application starts are enqueued again, because
+ * the node that had them in memory may have stopped: the processor sends
+ * only the created emails, so the copies that turn out to be redundant
+ * are skipped. For the same reason the emails that stay claimed for
+ * sending longer than {@code email.sending-timeout} are periodically moved
+ * back to the created ones and enqueued again: the delivery of an email
+ * whose node stopped while sending it is at least once.
  *
  * @since 0.2
  */
 @Component
-public final class EmailSender {
+public final class EmailSender implements DisposableBean {
 
     /**
      * Logger.
@@ -43,27 +71,83 @@ public final class EmailSender {
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     /**
-     * JMS template.
+     * JSON mapper.
      */
-    private final JmsTemplate jms;
+    private final ObjectMapper json = new ObjectMapper();
 
     /**
      * Email message repository.
      */
     private final EmailMessageRepository emails;
 
+    /**
+     * Outbox repository.
+     */
+    private final OutboxMessageRepository outbox;
+
+    /**
+     * Outbox relay.
+     */
+    private final OutboxRelay relay;
+
+    /**
+     * Transactions.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Number of the emails that are enqueued again in one transaction.
+     */
+    private final int chunk;
+
+    /**
+     * Age of a created email after which it is enqueued again on start.
+     */
+    private final Duration age;
+
+    /**
+     * Time after which a claimed email is enqueued again.
+     */
+    private final Duration timeout;
+
+    /**
+     * Thread that enqueues the stale claimed emails again.
+     */
+    private final ScheduledExecutorService scheduler;
+
     /**
      * Ctor.
      *
-     * @param jmsTemplate JMS template.
-     * @param repository  Email message repository.
+     * @param repository Email message repository.
+     * @param messages   Outbox repository.
+     * @param relayer    Outbox relay.
+     * @param manager    Transaction manager.
+     * @param size       Number of the emails that are enqueued again in one
+     *                   transaction.
+     * @param stale      Age of a created email in seconds after which it is
+     *                   enqueued again on start.
+     * @param claim      Time in seconds after which a claimed email is
+     *                   enqueued again.
      */
     public EmailSender(
-        final JmsTemplate jmsTemplate,
-        final EmailMessageRepository repository
+        final EmailMessageRepository repository,
+        final OutboxMessageRepository messages,
+        final OutboxRelay relayer,
+        final PlatformTransactionManager manager,
+        @Value("${outbox.batch-size}") final int size,
+        @Value("${email.recovery-age}") final long stale,
+        @Value("${email.sending-timeout}") final long claim
     ) {
-        this.jms = jmsTemplate;
         this.emails = repository;
+        this.outbox = messages;
+        this.relay = relayer;
+        this.transactions = new TransactionTemplate(manager);
+        this.chunk = size;
+        this.age = Duration.ofSeconds(stale);
+        this.timeout = Duration.ofSeconds(claim);
+        final var threads = new CustomizableThreadFactory("email-sweep-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
     }
 
     /**
@@ -83,27 +167,232 @@ public final class EmailSender {
         final String body,
         final EmailMessageType type
     ) {
-        final var email = this.emails.save(
-            new EmailMessage(
-                null, dispatcher, receptor, subject, body,
-                EmailMessageStatus.CREATED, type, null, new Date()
+        return this.sendEmails(
+            List.of(
+                new EmailMessage(
+                    null, dispatcher, receptor, subject, body,
+                    EmailMessageStatus.CREATED, type, null, new Date(),
+                    EmailMessage.fingerprint(
+                        dispatcher.getEmail(), receptor.getEmail(),
+                        subject, body
+                    ),
+                    null
+                )
+            )
+        ).get(0);
+    }
+
+    /**
+     * Store the new emails and their outbox messages with batched inserts
+     * in one transaction and wake the relay up. If the caller has its own
+     * transaction, the relay is woken up after that one commits.
+     *
+     * @param drafts New emails.
+     * @return Created emails.
+     */
+    public List<EmailMessage> sendEmails(final List<EmailMessage> drafts) {
+        final var saved = this.transactions.execute(
+            status -> {
+                final var stored = this.emails.saveAll(drafts);
+                final var now = new Date();
+                this.outbox.saveAll(
+                    stored.stream()
+                        .map(
+                            email -> new OutboxMessage(
+                                null,
+                                EmailProcessor.lane(email.getType()),
+                                this.payload(email.getId(), false), now, now
+                            )
+                        )
+                        .toList()
+                );
+                return stored;
+            }
+        );
+        this.wake();
+        return saved;
+    }
+
+    /**
+     * Delay the email that has its token of the domain reserved already.
+     * Joins the transaction of the caller.
+     *
+     * @param email Email.
+     * @param wait  Time to wait.
+     */
+    public void defer(final EmailMessage email, final Duration wait) {
+        final var now = new Date();
+        this.transactions.executeWithoutResult(
+            status -> this.outbox.save(
+                new OutboxMessage(
+                    null, EmailProcessor.lane(email.getType()),
+                    this.payload(email.getId(), true), now,
+                    new Date(now.getTime() + wait.toMillis())
+                )
             )
         );
-        this.jms.send(
-            EmailProcessor.EMAIL_QUEUE,
-            session -> {
+    }
+
+    /**
+     * Enqueue the stale created emails again, walking them by the keyset of
+     * their IDs.
+     *
+     * @return Number of the enqueued emails.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int recover() {
+        final var now = new Date();
+        final var before = new Date(now.getTime() - this.age.toMillis());
+        int count = 0;
+        for (final var type : EmailMessageType.values()) {
+            long after = 0L;
+            while (true) {
+                final var ids = this.emails.loadIds(
+                    EmailMessageStatus.CREATED, type, before, after,
+                    PageRequest.of(0, this.chunk)
+                );
+                if (ids.isEmpty()) {
+                    break;
+                }
+                this.transactions.executeWithoutResult(
+                    status -> this.enqueue(type, ids, now)
+                );
+                count += ids.size();
+                after = ids.get(ids.size() - 1);
+            }
+        }
+        if (count > 0) {
+            this.logger.info("{} created emails are enqueued again.", count);
+            this.wake();
+        }
+        return count;
+    }
+
+    /**
+     * Start to enqueue the stale claimed emails again periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(
+            () -> {
                 try {
-                    final var data = new HashMap<String, Long>();
-                    data.put("email_id", email.getId());
-                    return session.createTextMessage(
-                        new ObjectMapper().writeValueAsString(data)
-                    );
-                } catch (final JsonProcessingException error) {
-                    logger.error("Error converting to JSON", error);
-                    throw new RuntimeException(error);
+                    this.sweep();
+                } catch (final RuntimeException error) {
+                    this.logger.error("Can not sweep the emails", error);
                 }
+            },
+            this.timeout.toMillis(), this.timeout.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Move the emails that stay claimed for sending longer than the
+     * timeout back to the created ones and enqueue them again, walking
+     * them by the keyset of their IDs.
+     *
+     * @return Number of the enqueued emails.
+     */
+    public int sweep() {
+        final var now = new Date();
+        final var before = new Date(now.getTime() - this.timeout.toMillis());
+        int count = 0;
+        for (final var type : EmailMessageType.values()) {
+            long after = 0L;
+            while (true) {
+                final var ids = this.emails.loadClaimedIds(
+                    EmailMessageStatus.SENDING, type, before, after,
+                    PageRequest.of(0, this.chunk)
+                );
+                if (ids.isEmpty()) {
+                    break;
+                }
+                this.transactions.executeWithoutResult(
+                    status -> {
+                        this.emails.release(
+                            ids, EmailMessageStatus.SENDING, before,
+                            EmailMessageStatus.CREATED
+                        );
+                        this.enqueue(type, ids, now);
+                    }
+                );
+                count += ids.size();
+                after = ids.get(ids.size() - 1);
             }
+        }
+        if (count > 0) {
+            this.logger.warn("{} claimed emails are enqueued again.", count);
+            this.wake();
+        }
+        return count;
+    }
+
+    @Override
+    public void destroy() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Store the outbox messages about the emails. Must be called in a
+     * transaction.
+     *
+     * @param type Type of the emails.
+     * @param ids  Email IDs.
+     * @param now  Current date.
+     */
+    private void enqueue(
+        final EmailMessageType type, final List<Long> ids, final Date now
+    ) {
+        this.outbox.saveAll(
+            ids.stream()
+                .map(
+                    id -> new OutboxMessage(
+                        null, EmailProcessor.lane(type),
+                        this.payload(id, false), now, now
+                    )
+                )
+                .toList()
         );
-        return email;
+    }
+
+    /**
+     * Wake the relay up, after the transaction of the caller commits if
+     * there is one.
+     */
+    private void wake() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        EmailSender.this.relay.wake();
+                    }
+                }
+            );
+        } else {
+            this.relay.wake();
+        }
+    }
+
+    /**
+     * Text of the queue message about the stored email.
+     *
+     * @param id       Email ID.
+     * @param reserved Whether the email has its token of the domain
+     *                 reserved already.
+     * @return JSON.
+     */
+    private String payload(final Long id, final boolean reserved) {
+        try {
+            final var data = new HashMap<String, Object>();
+            data.put("email_id", id);
+            if (reserved) {
+                data.put("reserved", true);
+            }
+            return this.json.writeValueAsString(data);
+        } catch (final JsonProcessingException error) {
+            logger.error("Error converting to JSON", error);
+            throw new RuntimeException(error);
+        }
     }
 }
@@ -19,17 +19,15 @@ import org.apache.activemq.ActiveMQConnectionFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jms.annotation.EnableJms;
-import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.core.JmsTemplate;
 
 /**
- * JMS configuration.
+ * JMS configuration. The queues are consumed by the
+ * {@link BatchConsumer}s, so there are no listener containers.
  *
  * @since 0.2
  */
 @Configuration
-@EnableJms
 public class JmsConfig {
 
     /**
@@ -38,6 +36,12 @@ public class JmsConfig {
     @Value("${spring.activemq.broker-url}")
     private String brokerUrl;
 
+    /**
+     * Maximal number of the queue messages dispatched to a consumer ahead.
+     */
+    @Value("${jms.prefetch}")
+    private int prefetch;
+
     /**
      * Create connection factory.
      *
@@ -45,7 +49,9 @@ public class JmsConfig {
      */
     @Bean
     public ActiveMQConnectionFactory connectionFactory() {
-        return new ActiveMQConnectionFactory(this.brokerUrl);
+        final var factory = new ActiveMQConnectionFactory(this.brokerUrl);
+        factory.getPrefetchPolicy().setQueuePrefetch(this.prefetch);
+        return factory;
     }
 
     /**
@@ -59,16 +65,4 @@ public class JmsConfig {
         template.setConnectionFactory(connectionFactory());
         return template;
     }
-
-    /**
-     * Create JMS listener container factory.
-     *
-     * @return JMS listener container factory.
-     */
-    @Bean
-    public DefaultJmsListenerContainerFactory jmsListenerContainerFactory() {
-        final var factory = new DefaultJmsListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory());
-        return factory;
-    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Smooth weighted round robin over the lanes.
+ * <p>
+ * Every lane earns its weight on each turn and the served lane pays the
+ * sum of the weights, so over any window the lanes are served in
+ * proportion to their weights and the heavy lanes do not come in bursts.
+ * A lane that has nothing to serve is skipped, so no capacity is wasted
+ * while a lane is empty, and loses its credit, so it can not save up a
+ * burst while it is idle.
+ *
+ * @since 0.3
+ */
+public final class Lanes {
+
+    /**
+     * Weights of the lanes.
+     */
+    private final int[] weights;
+
+    /**
+     * Credits of the lanes.
+     */
+    private final int[] credits;
+
+    /**
+     * Sum of the weights.
+     */
+    private final int total;
+
+    /**
+     * Ctor.
+     *
+     * @param lanes Weights of the lanes, at least 1 each.
+     */
+    public Lanes(final int... lanes) {
+        this.weights = lanes.clone();
+        this.credits = new int[lanes.length];
+        this.total = IntStream.of(lanes).sum();
+    }
+
+    /**
+     * The lanes in the order in which they should be tried on this turn.
+     *
+     * @return Lane indexes.
+     */
+    public int[] order() {
+        return IntStream.range(0, this.weights.length)
+            .boxed()
+            .sorted(
+                Comparator.comparingInt(
+                    (Integer lane) -> this.credits[lane] + this.weights[lane]
+                ).reversed()
+            )
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    /**
+     * Finish the turn.
+     *
+     * @param lane Index of the served lane.
+     */
+    public void served(final int lane) {
+        for (int idx = 0; idx < this.weights.length; ++idx) {
+            this.credits[idx] += this.weights[idx];
+        }
+        this.credits[lane] -= this.total;
+    }
+
+    /**
+     * Skip the lane on this turn because it has nothing to serve.
+     *
+     * @param lane Index of the empty lane.
+     */
+    public void empty(final int lane) {
+        this.credits[lane] = 0;
+    }
+}
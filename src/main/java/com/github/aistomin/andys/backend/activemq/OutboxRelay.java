@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.metrics.Timer;
+import com.github.aistomin.andys.backend.model.OutboxMessage;
+import com.github.aistomin.andys.backend.model.OutboxMessageRepository;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relay of the outbox to the broker.
+ * <p>
+ * The relay claims a batch of the outbox messages with
+ * {@code FOR UPDATE SKIP LOCKED}, publishes them in one transacted JMS
+ * session and deletes them in the same database transaction. The relays of
+ * the other nodes skip the locked rows, so they never publish the same
+ * batch concurrently. If the node dies after the publish and before the
+ * commit, the batch is published again: the delivery is at least once.
+ * <p>
+ * The relay polls the outbox periodically and is also woken up by the
+ * local writers, so the messages of this node leave without the poll
+ * delay. A message that is delayed waits in the outbox until the first
+ * poll after its time.
+ *
+ * @since 0.3
+ */
+@Component
+public final class OutboxRelay implements DisposableBean {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Outbox repository.
+     */
+    private final OutboxMessageRepository outbox;
+
+    /**
+     * Connection factory.
+     */
+    private final ConnectionFactory connections;
+
+    /**
+     * Transactions.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Maximal batch size.
+     */
+    private final int size;
+
+    /**
+     * Time of the relayed batches.
+     */
+    private final Timer batches;
+
+    /**
+     * Number of the relayed messages.
+     */
+    private final LongAdder relayed;
+
+    /**
+     * Period of the polls in ms.
+     */
+    private final long period;
+
+    /**
+     * Thread that relays the messages.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Whether the relay is started.
+     */
+    private volatile boolean running;
+
+    /**
+     * Ctor.
+     *
+     * @param repository Outbox repository.
+     * @param factory    Connection factory.
+     * @param manager    Transaction manager.
+     * @param registry   Metrics.
+     * @param batch      Maximal batch size.
+     * @param poll       Period of the polls in ms.
+     */
+    public OutboxRelay(
+        final OutboxMessageRepository repository,
+        final ConnectionFactory factory,
+        final PlatformTransactionManager manager,
+        final Metrics registry,
+        @Value("${outbox.batch-size}") final int batch,
+        @Value("${outbox.poll}") final long poll
+    ) {
+        this.outbox = repository;
+        this.connections = factory;
+        this.transactions = new TransactionTemplate(manager);
+        this.size = batch;
+        this.batches = registry.timer("outbox.relay");
+        this.relayed = registry.counter("outbox.relayed");
+        final var threads = new CustomizableThreadFactory("outbox-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        this.period = poll;
+    }
+
+    /**
+     * Start to poll the outbox once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.running = true;
+        this.scheduler.scheduleWithFixedDelay(
+            this::drain, 0L, this.period, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Relay the outbox soon, without waiting for the next poll. Before the
+     * relay is started, the messages wait for its first poll.
+     */
+    public void wake() {
+        if (this.running && !this.scheduler.isShutdown()) {
+            this.scheduler.execute(this::drain);
+        }
+    }
+
+    /**
+     * Relay one batch of the outbox.
+     *
+     * @return Number of the relayed messages.
+     */
+    public int relay() {
+        final long started = System.nanoTime();
+        final Integer count = this.transactions.execute(
+            status -> {
+                final var batch = this.outbox.claim(
+                    this.size, new Date()
+                );
+                if (!batch.isEmpty()) {
+                    this.publish(batch);
+                    this.outbox.deleteAllByIdInBatch(
+                        batch.stream().map(OutboxMessage::getId).toList()
+                    );
+                }
+                return batch.size();
+            }
+        );
+        if (count != null && count > 0) {
+            this.relayed.add(count);
+            this.batches.record(System.nanoTime() - started);
+            return count;
+        }
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Relay the outbox until it is empty.
+     */
+    private void drain() {
+        try {
+            while (this.relay() == this.size) {
+                this.logger.debug("Outbox has more messages");
+            }
+        } catch (final RuntimeException error) {
+            this.logger.error("Can not relay the outbox", error);
+        }
+    }
+
+    /**
+     * Publish the messages in one transacted session.
+     *
+     * @param batch Messages.
+     */
+    private void publish(final List<OutboxMessage> batch) {
+        try (var connection = this.connections.createConnection()) {
+            final var session = connection.createSession(
+                true, Session.SESSION_TRANSACTED
+            );
+            final var producer = session.createProducer(null);
+            final var queues = new HashMap<String, Queue>();
+            for (final var message : batch) {
+                var queue = queues.get(message.getDestination());
+                if (queue == null) {
+                    queue = session.createQueue(message.getDestination());
+                    queues.put(message.getDestination(), queue);
+                }
+                producer.send(
+                    queue, session.createTextMessage(message.getPayload())
+                );
+            }
+            session.commit();
+        } catch (final JMSException error) {
+            throw JmsUtils.convertJmsAccessException(error);
+        }
+    }
+}
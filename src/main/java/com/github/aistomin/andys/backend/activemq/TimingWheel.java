@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel.
+ * <p>
+ * The delayed items are put into the slot of the tick when they are due,
+ * so both scheduling and expiring an item cost O(1) no matter how many
+ * items are waiting. An item that is due after more than one turn of the
+ * wheel waits in its slot for the later turn. The precision is one tick.
+ *
+ * @param <T> Item type.
+ * @since 0.3
+ */
+public final class TimingWheel<T> {
+
+    /**
+     * Slots of the wheel.
+     */
+    private final List<List<Entry<T>>> slots;
+
+    /**
+     * Tick duration in ns.
+     */
+    private final long tick;
+
+    /**
+     * The time of the tick zero in ns.
+     */
+    private final long start;
+
+    /**
+     * The last expired tick.
+     */
+    private long cursor;
+
+    /**
+     * Number of the waiting items.
+     */
+    private int waiting;
+
+    /**
+     * Ctor.
+     *
+     * @param resolution Tick duration.
+     * @param size       Number of the slots.
+     * @param now        Current time in ns.
+     */
+    public TimingWheel(
+        final Duration resolution, final int size, final long now
+    ) {
+        this.tick = Math.max(1L, resolution.toNanos());
+        this.start = now;
+        this.slots = new ArrayList<>(size);
+        for (int idx = 0; idx < size; ++idx) {
+            this.slots.add(new ArrayList<>(0));
+        }
+    }
+
+    /**
+     * Delay the item.
+     *
+     * @param item Item.
+     * @param due  The time when the item is due in ns.
+     */
+    public synchronized void schedule(final T item, final long due) {
+        final long target = Math.max(
+            this.cursor + 1L,
+            (due - this.start + this.tick - 1L) / this.tick
+        );
+        this.slot(target).add(new Entry<>(item, target));
+        this.waiting += 1;
+    }
+
+    /**
+     * Move the wheel to the current time.
+     *
+     * @param now Current time in ns.
+     * @return Items that are due.
+     */
+    public synchronized List<T> advance(final long now) {
+        final long until = (now - this.start) / this.tick;
+        final var due = new ArrayList<T>(0);
+        if (until - this.cursor >= this.slots.size()) {
+            for (final var slot : this.slots) {
+                this.expire(slot, until, due);
+            }
+        } else {
+            for (long next = this.cursor + 1L; next <= until; ++next) {
+                this.expire(this.slot(next), until, due);
+            }
+        }
+        this.cursor = Math.max(this.cursor, until);
+        this.waiting -= due.size();
+        return due;
+    }
+
+    /**
+     * Number of the waiting items.
+     *
+     * @return Size.
+     */
+    public synchronized int size() {
+        return this.waiting;
+    }
+
+    /**
+     * Slot of the tick.
+     *
+     * @param target Tick.
+     * @return Slot.
+     */
+    private List<Entry<T>> slot(final long target) {
+        return this.slots.get(Math.floorMod(target, this.slots.size()));
+    }
+
+    /**
+     * Move the due items of the slot to the list.
+     *
+     * @param slot  Slot.
+     * @param until The current tick.
+     * @param due   Due items.
+     */
+    private void expire(
+        final List<Entry<T>> slot, final long until, final List<T> due
+    ) {
+        slot.removeIf(
+            entry -> {
+                final boolean expired = entry.target <= until;
+                if (expired) {
+                    due.add(entry.item);
+                }
+                return expired;
+            }
+        );
+    }
+
+    /**
+     * Delayed item.
+     *
+     * @param <T> Item type.
+     * @since 0.3
+     */
+    private static final class Entry<T> {
+
+        /**
+         * Item.
+         */
+        private final T item;
+
+        /**
+         * The tick when the item is due.
+         */
+        private final long target;
+
+        /**
+         * Ctor.
+         *
+         * @param value Item.
+         * @param when  The tick when the item is due.
+         */
+        Entry(final T value, final long when) {
+            this.item = value;
+            this.target = when;
+        }
+    }
+}
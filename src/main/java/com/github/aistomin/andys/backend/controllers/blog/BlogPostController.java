@@ -15,8 +15,18 @@
  */
 package com.github.aistomin.andys.backend.controllers.blog;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.cache.PreparedBodies;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import com.github.aistomin.andys.backend.controllers.paging.Fields;
+import com.github.aistomin.andys.backend.controllers.stream.StreamedArray;
+import com.github.aistomin.andys.backend.model.BlogPost;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
 import com.github.aistomin.andys.backend.services.BlogPostService;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,8 +34,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Blog posts controller.
@@ -36,28 +51,114 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/blog/posts")
 public final class BlogPostController {
 
+    /**
+     * Properties of the blog post that the client may request.
+     */
+    private static final Set<String> COLUMNS = Set.of(
+        "id", "title", "text", "createdOn", "publishedOn"
+    );
+
+    /**
+     * Properties of the blog post that are sent if the client did not request
+     * any.
+     */
+    private static final Set<String> DEFAULTS = Set.of(
+        "id", "title", "publishedOn"
+    );
+
     /**
      * Blog posts service.
      */
     private final BlogPostService posts;
 
+    /**
+     * Pre-serialized pages.
+     */
+    private final PreparedBodies bodies;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper json;
+
     /**
      * Ctor.
      *
      * @param service Blog posts service.
+     * @param mapper  JSON mapper.
      */
-    public BlogPostController(final BlogPostService service) {
+    public BlogPostController(
+        final BlogPostService service, final ObjectMapper mapper
+    ) {
         this.posts = service;
+        this.json = mapper;
+        this.bodies = new PreparedBodies(
+            mapper, BlogPost.class
+        );
     }
 
     /**
-     * Load blog posts.
+     * Load blog posts page by page, newest first.
      *
-     * @return Blog posts.
+     * @param after  Cursor of the previous page.
+     * @param limit  Page size.
+     * @param fields Comma-separated properties of the items.
+     * @param match  ETag of the page that the client has.
+     * @param accept Content codings that the client accepts.
+     * @return Serialized page.
      */
     @GetMapping
-    public BlogPosts load() {
-        return this.posts.load();
+    public ResponseEntity<byte[]> load(
+        @RequestParam(value = "after", required = false) final String after,
+        @RequestParam(value = "limit", defaultValue = Cursor.DEFAULT_LIMIT)
+        final Integer limit,
+        @RequestParam(value = "fields", required = false) final String fields,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+        final String match,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+        final String accept
+    ) {
+        final var cursor = Cursor.parse(after);
+        final int size = Cursor.limit(limit);
+        final Supplier<?> loader;
+        if (fields == null) {
+            loader = () -> this.posts.load(cursor, size);
+        } else {
+            final var selected = Fields.parse(fields, COLUMNS, DEFAULTS);
+            loader = () -> selected.select(
+                this.json, this.posts.load(cursor, size)
+            );
+        }
+        return this.bodies.respond(
+            String.format("%s:%d:%s", after, size, fields),
+            match,
+            accept,
+            loader
+        );
+    }
+
+    /**
+     * Stream all the blog posts, newest first, as one JSON array.
+     *
+     * @return Streamed blog posts.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new StreamedArray<>(this.json, this.posts::stream));
+    }
+
+    /**
+     * Drop the pre-serialized pages if the catalogue was changed. Runs
+     * after the services have started rebuilding their snapshots, so a
+     * page that is serialized for the new version is never stale.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.bodies.onChange(event);
     }
 
     /**
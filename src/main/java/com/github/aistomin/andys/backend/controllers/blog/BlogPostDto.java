@@ -16,10 +16,10 @@
 package com.github.aistomin.andys.backend.controllers.blog;
 
 import com.github.aistomin.andys.backend.model.BlogPost;
+import com.github.aistomin.andys.backend.model.Identity;
 import java.util.Date;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -30,7 +30,6 @@ import lombok.ToString;
  */
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
 @ToString()
 @Data
 public final class BlogPostDto {
@@ -74,4 +73,16 @@ public final class BlogPostDto {
             post.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(
+            this, other, BlogPostDto.class, BlogPostDto::getId
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
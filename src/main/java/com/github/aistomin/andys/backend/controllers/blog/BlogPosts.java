@@ -15,6 +15,7 @@
  */
 package com.github.aistomin.andys.backend.controllers.blog;
 
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,10 +29,15 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public final class BlogPosts {
+public final class BlogPosts implements Paged<BlogPostDto> {
 
     /**
      * List of blog posts.
      */
     private List<BlogPostDto> content;
+
+    /**
+     * Cursor of the next page or null if it is the last page.
+     */
+    private String next;
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized and pre-compressed response bodies of a catalogue.
+ * <p>
+ * The bodies are serialized once per catalogue version and stored both as
+ * plain and as gzip-compressed bytes, so a read is a map lookup and a write
+ * of a byte array. The strong ETag is derived from the catalogue version,
+ * which lets us answer a matching If-None-Match with 304 without loading
+ * anything. A change of one of the source entities starts a new version
+ * and drops all the stored bodies.
+ *
+ * @since 0.3
+ */
+public final class PreparedBodies {
+
+    /**
+     * Maximal number of the stored bodies per version. The keys come from
+     * the clients, so the rarely requested pages are not stored.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Name of the gzip content coding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * Quality value that disables a content coding.
+     */
+    private static final Pattern REJECTED = Pattern.compile(
+        "q\\s*=\\s*0(\\.0*)?", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Random prefix of the ETags that distinguishes the versions of the
+     * different nodes and restarts.
+     */
+    private final String epoch = Long.toString(
+        ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE,
+        Character.MAX_RADIX
+    );
+
+    /**
+     * Catalogue versions.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Stored bodies of the current version.
+     */
+    private final AtomicReference<Generation> current;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Entities that the catalogue depends on.
+     */
+    private final Set<Class<?>> sources;
+
+    /**
+     * Ctor.
+     *
+     * @param json     JSON mapper.
+     * @param entities Entities that the catalogue depends on.
+     */
+    public PreparedBodies(final ObjectMapper json, final Class<?>... entities) {
+        this.mapper = json;
+        this.sources = Set.of(entities);
+        this.current = new AtomicReference<>(
+            new Generation(this.versions.get(), new ConcurrentHashMap<>())
+        );
+    }
+
+    /**
+     * Respond with the stored body.
+     *
+     * @param key    Key of the body, for example the page parameters.
+     * @param match  If-None-Match header or null.
+     * @param accept Accept-Encoding header or null.
+     * @param loader Loader of the object that is serialized into the body.
+     * @return Response.
+     */
+    public ResponseEntity<byte[]> respond(
+        final String key,
+        final String match,
+        final String accept,
+        final Supplier<?> loader
+    ) {
+        final var generation = this.current.get();
+        final var tag = String.format(
+            "\"%s-%d\"", this.epoch, generation.getVersion()
+        );
+        final var zipped = String.format(
+            "\"%s-%d-%s\"", this.epoch, generation.getVersion(), GZIP
+        );
+        final ResponseEntity<byte[]> response;
+        if (PreparedBodies.matches(match, tag, zipped)) {
+            response = PreparedBodies.headers(
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED),
+                PreparedBodies.gzip(accept) ? zipped : tag
+            ).build();
+        } else {
+            var body = generation.getBodies().get(key);
+            if (body == null) {
+                body = this.serialize(loader.get());
+                if (generation.getBodies().size() < CAPACITY) {
+                    generation.getBodies().putIfAbsent(key, body);
+                }
+            }
+            if (PreparedBodies.gzip(accept)) {
+                response = PreparedBodies.headers(ResponseEntity.ok(), zipped)
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body.getGzip());
+            } else {
+                response = PreparedBodies.headers(ResponseEntity.ok(), tag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body.getIdentity());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Start a new version if the changed entity is one of the sources.
+     *
+     * @param event Catalogue change.
+     */
+    public void onChange(final CatalogueChanged event) {
+        if (this.sources.contains(event.getEntity())) {
+            this.current.set(
+                new Generation(
+                    this.versions.incrementAndGet(), new ConcurrentHashMap<>()
+                )
+            );
+        }
+    }
+
+    /**
+     * Serialize and compress the object.
+     *
+     * @param object Object.
+     * @return Body.
+     */
+    private Body serialize(final Object object) {
+        try {
+            final var identity = this.mapper.writeValueAsBytes(object);
+            final var bytes = new ByteArrayOutputStream();
+            try (var zip = new GZIPOutputStream(bytes)) {
+                zip.write(identity);
+            }
+            return new Body(identity, bytes.toByteArray());
+        } catch (final JsonProcessingException error) {
+            throw new IllegalStateException(error);
+        } catch (final IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Headers that every response of the catalogue has.
+     *
+     * @param builder Response builder.
+     * @param tag     ETag.
+     * @return Response builder.
+     */
+    private static ResponseEntity.BodyBuilder headers(
+        final ResponseEntity.BodyBuilder builder, final String tag
+    ) {
+        return builder
+            .eTag(tag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Whether the If-None-Match header matches one of the ETags.
+     *
+     * @param match  If-None-Match header or null.
+     * @param tag    ETag of the plain body.
+     * @param zipped ETag of the compressed body.
+     * @return True if the client has the current body.
+     */
+    private static boolean matches(
+        final String match, final String tag, final String zipped
+    ) {
+        if (match == null) {
+            return false;
+        }
+        for (final String token : match.split(",")) {
+            final var value = token.trim().replaceFirst("^W/", "");
+            if ("*".equals(value) || tag.equals(value)
+                || zipped.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the client accepts gzip-compressed bodies.
+     *
+     * @param accept Accept-Encoding header or null.
+     * @return True if the client accepts gzip.
+     */
+    private static boolean gzip(final String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (final String token : accept.split(",")) {
+            final var parts = token.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1
+                    || !REJECTED.matcher(parts[1].trim()).matches();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stored bodies of a catalogue version.
+     *
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Generation {
+
+        /**
+         * Catalogue version.
+         */
+        private final long version;
+
+        /**
+         * Bodies by their keys.
+         */
+        private final Map<String, Body> bodies;
+    }
+
+    /**
+     * Serialized body.
+     *
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Body {
+
+        /**
+         * Plain JSON.
+         */
+        private final byte[] identity;
+
+        /**
+         * Gzip-compressed JSON.
+         */
+        private final byte[] gzip;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.campaign;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import com.github.aistomin.andys.backend.services.CampaignService;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Newsletter campaign controller.
+ *
+ * @since 0.3
+ */
+@RestController
+@RequestMapping("/campaigns")
+public final class CampaignController {
+
+    /**
+     * Campaign service.
+     */
+    private final CampaignService campaigns;
+
+    /**
+     * Ctor.
+     *
+     * @param service Campaign service.
+     */
+    public CampaignController(final CampaignService service) {
+        this.campaigns = service;
+    }
+
+    /**
+     * Start a campaign. The emails are enqueued in the background.
+     *
+     * @param request Campaign request.
+     * @return Started campaign.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CampaignDto start(@RequestBody final CampaignRequest request) {
+        if (StringUtils.isAnyBlank(request.getSubject(), request.getBody())) {
+            throw new BadRequest("Subject and body are required.");
+        }
+        return this.campaigns.start(request.getSubject(), request.getBody());
+    }
+
+    /**
+     * Load the campaign with its progress.
+     *
+     * @param id Campaign ID.
+     * @return Campaign.
+     */
+    @GetMapping("/{id}")
+    public CampaignDto load(@PathVariable("id") final Long id) {
+        return this.campaigns.load(id);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.campaign;
+
+import com.github.aistomin.andys.backend.model.Campaign;
+import com.github.aistomin.andys.backend.model.Identity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import java.util.Date;
+
+/**
+ * Newsletter campaign DTO.
+ *
+ * @since 0.3
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString()
+@Data
+public final class CampaignDto {
+
+    /**
+     * Campaign ID.
+     */
+    private Long id;
+
+    /**
+     * Newsletter's subject.
+     */
+    private String subject;
+
+    /**
+     * Number of the enqueued emails.
+     */
+    private Long enqueued;
+
+    /**
+     * The date when the campaign was created.
+     */
+    private Date createdOn;
+
+    /**
+     * The date when the campaign was finished or null if it is running.
+     */
+    private Date finishedOn;
+
+    /**
+     * Ctor.
+     *
+     * @param campaign Campaign entity.
+     */
+    public CampaignDto(final Campaign campaign) {
+        this(
+            campaign.getId(),
+            campaign.getSubject(),
+            campaign.getEnqueued(),
+            campaign.getCreatedOn(),
+            campaign.getFinishedOn()
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(
+            this, other, CampaignDto.class, CampaignDto::getId
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.campaign;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Request to start a newsletter campaign.
+ *
+ * @since 0.3
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString()
+@Data
+public final class CampaignRequest {
+
+    /**
+     * Newsletter's subject.
+     */
+    private String subject;
+
+    /**
+     * Newsletter's body.
+     */
+    private String body;
+}
@@ -15,7 +15,14 @@
  */
 package com.github.aistomin.andys.backend.controllers.contact;
 
+import com.github.aistomin.andys.backend.activemq.ContactIngest;
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import com.github.aistomin.andys.backend.security.RateLimits;
 import com.github.aistomin.andys.backend.services.ContactUsService;
+import com.github.aistomin.andys.backend.utils.EmailAddress;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,7 +34,6 @@ import org.springframework.web.bind.annotation.RestController;
  * "Contact Us" controller.
  * <p>
  * todo: Issue #197 Let's protect the API with Captcha.
- * todo: Issue #198 Let's protect the API from subsequent requests.
  *
  * @since 0.2
  */
@@ -40,25 +46,70 @@ public final class ContactUsController {
      */
     private final ContactUsService contact;
 
+    /**
+     * Rate limits.
+     */
+    private final RateLimits limits;
+
+    /**
+     * Asynchronous ingestion of the requests.
+     */
+    private final ContactIngest ingest;
+
+    /**
+     * Whether the requests are queued instead of processed at once.
+     */
+    private final boolean queued;
+
     /**
      * Ctor.
      *
      * @param service "Contact Us" service.
+     * @param rates   Rate limits.
+     * @param intake  Asynchronous ingestion of the requests.
+     * @param async   Whether the requests are queued instead of processed
+     *                at once.
      */
-    public ContactUsController(final ContactUsService service) {
+    public ContactUsController(
+        final ContactUsService service,
+        final RateLimits rates,
+        final ContactIngest intake,
+        @Value("${contact.async}") final boolean async
+    ) {
         this.contact = service;
+        this.limits = rates;
+        this.ingest = intake;
+        this.queued = async;
     }
 
     /**
      * Send us a contact request.
      *
      * @param request Contact request.
-     * @return Response.
+     * @param http    HTTP request.
+     * @return Response: 201 if the request is processed or 202 if it is
+     *  queued.
      */
     @PostMapping()
     public ResponseEntity<?> contactUs(
-        @RequestBody final ContactRequest request
+        @RequestBody final ContactRequest request,
+        final HttpServletRequest http
     ) {
+        if (StringUtils.isAnyBlank(
+            request.getEmail(), request.getSubject(), request.getBody()
+        )) {
+            throw new BadRequest("Email, subject and body are required.");
+        }
+        if (!EmailAddress.valid(request.getEmail())) {
+            throw new BadRequest("Email is not valid.");
+        }
+        this.limits.acquire(
+            RateLimits.CONTACT, http.getRemoteAddr(), request.getEmail()
+        );
+        if (this.queued) {
+            this.ingest.submit(request);
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         this.contact.contactUs(
             request.getEmail(), request.getSubject(), request.getBody(),
             request.getAllowToSendNewsLetters()
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception that we throw when the request parameters are not valid.
+ *
+ * @since 0.3
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public final class BadRequest extends RuntimeException {
+
+    /**
+     * Ctor.
+     *
+     * @param message Error message.
+     */
+    public BadRequest(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.exceptions;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
+
+/**
+ * Exception that we throw when the server is overloaded and
+ * the client must retry later. The response tells the client when to retry
+ * with the Retry-After header.
+ *
+ * @since 0.3
+ */
+public final class ServiceUnavailable extends ResponseStatusException {
+
+    /**
+     * Response headers.
+     */
+    private final HttpHeaders headers = new HttpHeaders();
+
+    /**
+     * Ctor.
+     *
+     * @param message Error message.
+     * @param after   Time after which the client may retry.
+     */
+    public ServiceUnavailable(final String message, final Duration after) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.headers.set(
+            HttpHeaders.RETRY_AFTER,
+            String.valueOf(
+                Math.max(1, after.plusSeconds(1).minusNanos(1).toSeconds())
+            )
+        );
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.headers;
+    }
+}
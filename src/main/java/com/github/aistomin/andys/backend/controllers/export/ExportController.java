@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.services.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export controller.
+ *
+ * @since 0.3
+ */
+@RestController
+@RequestMapping("/export")
+public final class ExportController {
+
+    /**
+     * Media type of the compressed export.
+     */
+    private static final MediaType GZIP = new MediaType("application", "gzip");
+
+    /**
+     * Export service.
+     */
+    private final ExportService exports;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper json;
+
+    /**
+     * Ctor.
+     *
+     * @param service Export service.
+     * @param mapper  JSON mapper.
+     */
+    public ExportController(
+        final ExportService service, final ObjectMapper mapper
+    ) {
+        this.exports = service;
+        this.json = mapper;
+    }
+
+    /**
+     * Stream all the rows of the entity as a file.
+     *
+     * @param entity Exported entity: videos, sheets, lyrics, posts, persons
+     *               or emails.
+     * @param format Format: ndjson or csv.
+     * @param gzip   Whether the file must be gzip-compressed.
+     * @return Streamed file.
+     */
+    @GetMapping("/{entity}")
+    public ResponseEntity<StreamingResponseBody> export(
+        @PathVariable("entity") final String entity,
+        @RequestParam(value = "format", defaultValue = "ndjson")
+        final String format,
+        @RequestParam(value = "gzip", defaultValue = "false")
+        final boolean gzip
+    ) {
+        final var type = ExportFormat.parse(format);
+        final var columns = this.exports.columns(entity);
+        var name = String.format("%s.%s", entity, type.getExtension());
+        var media = type.getMediaType();
+        if (gzip) {
+            name = String.format("%s.gz", name);
+            media = GZIP;
+        }
+        return ResponseEntity.ok()
+            .contentType(media)
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(name).build()
+                    .toString()
+            )
+            .body(
+                output -> {
+                    try {
+                        if (gzip) {
+                            try (var zip = new GZIPOutputStream(output)) {
+                                type.write(
+                                    this.json, columns,
+                                    rows -> this.exports.export(entity, rows),
+                                    zip
+                                );
+                            }
+                        } else {
+                            type.write(
+                                this.json, columns,
+                                rows -> this.exports.export(entity, rows),
+                                output
+                            );
+                        }
+                    } catch (final UncheckedIOException error) {
+                        throw error.getCause();
+                    }
+                }
+            );
+    }
+}
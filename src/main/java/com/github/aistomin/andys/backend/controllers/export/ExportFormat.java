@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Format of the exported rows.
+ *
+ * @since 0.3
+ */
+@Getter
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        void write(
+            final ObjectMapper json,
+            final List<String> columns,
+            final Consumer<Consumer<Object[]>> source,
+            final OutputStream output
+        ) throws IOException {
+            try (JsonGenerator generator = json.getFactory()
+                .createGenerator(output)) {
+                generator.setRootValueSeparator(new SerializedString(NEWLINE));
+                source.accept(
+                    row -> ExportFormat.unchecked(
+                        () -> {
+                            generator.writeStartObject();
+                            for (int idx = 0; idx < row.length; ++idx) {
+                                generator.writePOJOField(
+                                    columns.get(idx), row[idx]
+                                );
+                            }
+                            generator.writeEndObject();
+                        }
+                    )
+                );
+                generator.writeRaw(NEWLINE);
+            }
+        }
+    },
+
+    /**
+     * Comma-separated values with the header line.
+     */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        void write(
+            final ObjectMapper json,
+            final List<String> columns,
+            final Consumer<Consumer<Object[]>> source,
+            final OutputStream output
+        ) throws IOException {
+            try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(output, StandardCharsets.UTF_8)
+            )) {
+                writer.write(String.join(",", columns));
+                writer.write(CRLF);
+                source.accept(
+                    row -> ExportFormat.unchecked(
+                        () -> {
+                            writer.write(
+                                Arrays.stream(row)
+                                    .map(ExportFormat::cell)
+                                    .collect(Collectors.joining(","))
+                            );
+                            writer.write(CRLF);
+                        }
+                    )
+                );
+            }
+        }
+    };
+
+    /**
+     * Separator of the NDJSON lines.
+     */
+    private static final String NEWLINE = "\n";
+
+    /**
+     * Separator of the CSV lines.
+     */
+    private static final String CRLF = "\r\n";
+
+    /**
+     * Characters that need the CSV value to be quoted.
+     */
+    private static final Pattern SPECIAL = Pattern.compile("[,\"\r\n]");
+
+    /**
+     * Media type.
+     */
+    private final MediaType mediaType;
+
+    /**
+     * File extension.
+     */
+    private final String extension;
+
+    /**
+     * Ctor.
+     *
+     * @param media Media type.
+     * @param ext   File extension.
+     */
+    ExportFormat(final MediaType media, final String ext) {
+        this.mediaType = media;
+        this.extension = ext;
+    }
+
+    /**
+     * Find the format by its name.
+     *
+     * @param name Format name, case-insensitive.
+     * @return Format.
+     */
+    public static ExportFormat parse(final String name) {
+        try {
+            return ExportFormat.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException error) {
+            throw new BadRequest(
+                String.format(
+                    "Unknown format: %s. Available formats: %s.",
+                    name, Arrays.toString(ExportFormat.values())
+                )
+            );
+        }
+    }
+
+    /**
+     * Write the rows.
+     *
+     * @param json    JSON mapper.
+     * @param columns Column names.
+     * @param source  Source that passes the rows to the consumer.
+     * @param output  Output.
+     * @throws IOException If the output fails.
+     */
+    abstract void write(
+        ObjectMapper json,
+        List<String> columns,
+        Consumer<Consumer<Object[]>> source,
+        OutputStream output
+    ) throws IOException;
+
+    /**
+     * CSV cell of the value.
+     *
+     * @param value Value or null.
+     * @return Cell.
+     */
+    private static String cell(final Object value) {
+        final String text;
+        if (value == null) {
+            text = "";
+        } else if (value instanceof Date date) {
+            text = date.toInstant().toString();
+        } else {
+            text = value.toString();
+        }
+        final String cell;
+        if (SPECIAL.matcher(text).find()) {
+            cell = String.format("\"%s\"", text.replace("\"", "\"\""));
+        } else {
+            cell = text;
+        }
+        return cell;
+    }
+
+    /**
+     * Run the output action inside the consumer of the rows.
+     *
+     * @param action Output action.
+     */
+    private static void unchecked(final Output action) {
+        try {
+            action.run();
+        } catch (final IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Output action.
+     *
+     * @since 0.3
+     */
+    @FunctionalInterface
+    private interface Output {
+
+        /**
+         * Run the action.
+         *
+         * @throws IOException If the output fails.
+         */
+        void run() throws IOException;
+    }
+}
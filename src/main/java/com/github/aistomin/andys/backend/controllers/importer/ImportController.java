@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.importer;
+
+import com.github.aistomin.andys.backend.services.ImportService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.io.InputStream;
+
+/**
+ * Bulk import controller.
+ *
+ * @since 0.3
+ */
+@RestController
+@RequestMapping("/import")
+public final class ImportController {
+
+    /**
+     * Import service.
+     */
+    private final ImportService imports;
+
+    /**
+     * Ctor.
+     *
+     * @param service Import service.
+     */
+    public ImportController(final ImportService service) {
+        this.imports = service;
+    }
+
+    /**
+     * Import the videos, music sheets, lyrics and blog posts from the NDJSON
+     * body: one {@link ImportLine} per line. The body is read while it is
+     * being uploaded.
+     *
+     * @param body Request body.
+     * @return Report.
+     */
+    @PostMapping
+    public ImportReport load(final InputStream body) {
+        return this.imports.load(body);
+    }
+}
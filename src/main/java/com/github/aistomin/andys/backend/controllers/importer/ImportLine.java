@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.importer;
+
+import com.github.aistomin.andys.backend.controllers.blog.BlogPostDto;
+import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheetDto;
+import com.github.aistomin.andys.backend.controllers.video.VideoDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON import. Exactly one of the properties is set. The
+ * music sheets and the lyrics of a video are referenced by their titles.
+ *
+ * @since 0.3
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public final class ImportLine {
+
+    /**
+     * Video.
+     */
+    private VideoDto video;
+
+    /**
+     * Music sheet.
+     */
+    private MusicSheetDto sheet;
+
+    /**
+     * Lyrics.
+     */
+    private LyricsDto lyrics;
+
+    /**
+     * Blog post.
+     */
+    private BlogPostDto post;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of the import.
+ *
+ * @since 0.3
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public final class ImportReport {
+
+    /**
+     * Maximal number of the errors that the report lists.
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    /**
+     * Number of the non-empty lines.
+     */
+    private long lines;
+
+    /**
+     * Number of the imported lines.
+     */
+    private long imported;
+
+    /**
+     * Number of the lines that were not imported.
+     */
+    private long failed;
+
+    /**
+     * The first {@link #MAX_ERRORS} lines that were not imported.
+     */
+    private List<ImportError> errors = new ArrayList<>();
+
+    /**
+     * Record the line that was not imported.
+     *
+     * @param line   Line number.
+     * @param reason Reason.
+     */
+    public void fail(final long line, final String reason) {
+        this.failed += 1;
+        if (this.errors.size() < MAX_ERRORS) {
+            this.errors.add(new ImportError(line, reason));
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.github.aistomin.andys.backend.controllers.lyrics;
 
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -28,10 +29,15 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public final class LyricsCatalogue {
+public final class LyricsCatalogue implements Paged<LyricsDto> {
 
     /**
      * List of lyrics.
      */
     private List<LyricsDto> content;
+
+    /**
+     * Cursor of the next page or null if it is the last page.
+     */
+    private String next;
 }
@@ -15,10 +15,10 @@
  */
 package com.github.aistomin.andys.backend.controllers.lyrics;
 
+import com.github.aistomin.andys.backend.model.Identity;
 import com.github.aistomin.andys.backend.model.Lyrics;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import java.util.Date;
@@ -30,7 +30,6 @@ import java.util.Date;
  */
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
 @ToString()
 @Data
 public final class LyricsDto {
@@ -74,4 +73,14 @@ public final class LyricsDto {
             lyrics.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, LyricsDto.class, LyricsDto::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.metrics;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+/**
+ * Metrics controller.
+ *
+ * @since 0.3
+ */
+@RestController
+@RequestMapping("/metrics")
+public final class MetricsController {
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param registry Metrics.
+     */
+    public MetricsController(final Metrics registry) {
+        this.metrics = registry;
+    }
+
+    /**
+     * Current values of all the metrics.
+     *
+     * @return Metrics by name.
+     */
+    @GetMapping
+    public Map<String, Object> report() {
+        return this.metrics.report();
+    }
+}
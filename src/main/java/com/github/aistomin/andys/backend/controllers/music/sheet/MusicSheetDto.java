@@ -15,11 +15,11 @@
  */
 package com.github.aistomin.andys.backend.controllers.music.sheet;
 
+import com.github.aistomin.andys.backend.model.Identity;
 import com.github.aistomin.andys.backend.model.MusicSheet;
 import jakarta.persistence.Column;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import java.util.Date;
@@ -31,7 +31,6 @@ import java.util.Date;
  */
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString()
 @Data
 public final class MusicSheetDto {
@@ -39,7 +38,6 @@ public final class MusicSheetDto {
     /**
      * Music sheet ID.
      */
-    @EqualsAndHashCode.Include
     private Long id;
 
     /**
@@ -90,4 +88,16 @@ public final class MusicSheetDto {
             sheet.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(
+            this, other, MusicSheetDto.class, MusicSheetDto::getId
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
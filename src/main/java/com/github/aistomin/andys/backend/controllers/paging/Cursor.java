@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.paging;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor that points to the last item of the previous page.
+ * All the lists are ordered by the creation date and ID (newest first), so
+ * the cursor holds exactly these two values and the next page is selected
+ * with a range condition instead of an offset.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class Cursor {
+
+    /**
+     * Default page size.
+     */
+    public static final String DEFAULT_LIMIT = "50";
+
+    /**
+     * Maximal page size.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * The order of the lists: newest first, the higher ID wins on a tie.
+     */
+    public static final Comparator<Cursor> ORDER = Comparator
+        .comparing(Cursor::getCreatedOn)
+        .thenComparing(Cursor::getId)
+        .reversed();
+
+    /**
+     * Separator of the values inside the token.
+     */
+    private static final String SEPARATOR = ":";
+
+    /**
+     * The date when the last item of the previous page was created.
+     */
+    private final Date createdOn;
+
+    /**
+     * The ID of the last item of the previous page.
+     */
+    private final Long id;
+
+    /**
+     * Decode the cursor from the token that the client sent us.
+     *
+     * @param token Token or null.
+     * @return Cursor or null if there is no token.
+     */
+    public static Cursor parse(final String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            final var parts = new String(
+                Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8
+            ).split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(token);
+            }
+            return new Cursor(
+                new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1])
+            );
+        } catch (final IllegalArgumentException error) {
+            throw new BadRequest(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    /**
+     * Normalise the page size that the client requested.
+     *
+     * @param requested Requested page size.
+     * @return Page size between 1 and {@link #MAX_LIMIT}.
+     */
+    public static int limit(final Integer requested) {
+        if (requested == null || requested < 1) {
+            return Integer.parseInt(DEFAULT_LIMIT);
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    /**
+     * Window that we select from the database: one row more than the page
+     * size, so we know whether there is a next page without counting.
+     *
+     * @param limit Page size.
+     * @return Pageable.
+     */
+    public static Pageable window(final int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Cursor of the next page.
+     *
+     * @param rows  Rows selected with the {@link #window(int)}.
+     * @param limit Page size.
+     * @param key   Function that builds the cursor from the row.
+     * @param <T>   Row type.
+     * @return Encoded cursor or null if there is no next page.
+     */
+    public static <T> String next(
+        final List<T> rows, final int limit, final Function<T, Cursor> key
+    ) {
+        if (rows.size() > limit) {
+            return key.apply(rows.get(limit - 1)).encode();
+        }
+        return null;
+    }
+
+    /**
+     * Encode the cursor into the opaque token.
+     *
+     * @return Token.
+     */
+    public String encode() {
+        final var raw = String.format(
+            "%d%s%d", this.createdOn.getTime(), SEPARATOR, this.id
+        );
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
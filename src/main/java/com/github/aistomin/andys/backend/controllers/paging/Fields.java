@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.paging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Names of the item's properties that the client requested with the
+ * {@code fields} or {@code expand} query parameter.
+ *
+ * @since 0.3
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class Fields {
+
+    /**
+     * Requested property names.
+     */
+    private final Set<String> names;
+
+    /**
+     * Ctor.
+     *
+     * @param requested Requested property names.
+     */
+    public Fields(final Set<String> requested) {
+        this.names = Set.copyOf(requested);
+    }
+
+    /**
+     * Parse the comma-separated list of the property names.
+     *
+     * @param value    Query parameter or null.
+     * @param allowed  Names that the client may request.
+     * @param defaults Names that are used if the parameter is missing.
+     * @return Fields.
+     */
+    public static Fields parse(
+        final String value,
+        final Set<String> allowed,
+        final Set<String> defaults
+    ) {
+        if (value == null || value.isBlank()) {
+            return new Fields(defaults);
+        }
+        final var requested = Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toSet());
+        if (!allowed.containsAll(requested)) {
+            throw new BadRequest(
+                String.format(
+                    "Unknown fields: %s. Allowed fields: %s.",
+                    value, String.join(",", allowed)
+                )
+            );
+        }
+        return new Fields(requested);
+    }
+
+    /**
+     * Whether the property was requested.
+     *
+     * @param name Property name.
+     * @return True if it was requested.
+     */
+    public boolean has(final String name) {
+        return this.names.contains(name);
+    }
+
+    /**
+     * Whether all the requested properties are among the given ones.
+     *
+     * @param available Available property names.
+     * @return True if the available properties are enough.
+     */
+    public boolean within(final Set<String> available) {
+        return available.containsAll(this.names);
+    }
+
+    /**
+     * Fields that contain the names of both.
+     *
+     * @param other Other fields.
+     * @return Union of the fields.
+     */
+    public Fields and(final Fields other) {
+        final var union = new HashSet<>(this.names);
+        union.addAll(other.getNames());
+        return new Fields(union);
+    }
+
+    /**
+     * Serialize the page leaving only the requested properties of its
+     * items.
+     *
+     * @param mapper JSON mapper.
+     * @param page   Page.
+     * @return JSON tree of the page.
+     */
+    public JsonNode select(final ObjectMapper mapper, final Paged<?> page) {
+        final ObjectNode tree = mapper.valueToTree(page);
+        tree.path("content").forEach(
+            item -> ((ObjectNode) item).retain(this.names)
+        );
+        return tree;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.paging;
+
+import java.util.List;
+
+/**
+ * A page of a list that we return as a response to the frontend request.
+ *
+ * @param <T> Item type.
+ * @since 0.3
+ */
+public interface Paged<T> {
+
+    /**
+     * Items of the page.
+     *
+     * @return Items.
+     */
+    List<T> getContent();
+
+    /**
+     * Cursor of the next page.
+     *
+     * @return Cursor or null if it is the last page.
+     */
+    String getNext();
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * JSON array that is written to the response item by item.
+ * <p>
+ * Every item is serialized straight into the response as soon as the source
+ * passes it, so the memory that the response needs does not depend on the
+ * number of the items.
+ *
+ * @param <T> Item type.
+ * @since 0.3
+ */
+public final class StreamedArray<T> implements StreamingResponseBody {
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Source that passes the items to the consumer.
+     */
+    private final Consumer<Consumer<T>> source;
+
+    /**
+     * Ctor.
+     *
+     * @param json  JSON mapper.
+     * @param items Source that passes the items to the consumer.
+     */
+    public StreamedArray(
+        final ObjectMapper json, final Consumer<Consumer<T>> items
+    ) {
+        this.mapper = json;
+        this.source = items;
+    }
+
+    @Override
+    public void writeTo(final OutputStream output) throws IOException {
+        try (JsonGenerator generator = this.mapper.getFactory()
+            .createGenerator(output)) {
+            generator.writeStartArray();
+            this.source.accept(item -> StreamedArray.write(generator, item));
+            generator.writeEndArray();
+        } catch (final UncheckedIOException error) {
+            throw error.getCause();
+        }
+    }
+
+    /**
+     * Write the item.
+     *
+     * @param generator JSON generator.
+     * @param item      Item.
+     * @param <T>       Item type.
+     */
+    private static <T> void write(final JsonGenerator generator, final T item) {
+        try {
+            generator.writePOJO(item);
+        } catch (final IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
@@ -15,7 +15,10 @@
  */
 package com.github.aistomin.andys.backend.controllers.user;
 
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import com.github.aistomin.andys.backend.security.RateLimits;
 import com.github.aistomin.andys.backend.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -40,25 +44,39 @@ public final class UserController {
      */
     private final UserService users;
 
+    /**
+     * Rate limits.
+     */
+    private final RateLimits limits;
+
     /**
      * Ctor.
      *
      * @param service User service.
+     * @param rates   Rate limits.
      */
-    public UserController(final UserService service) {
+    public UserController(
+        final UserService service, final RateLimits rates
+    ) {
         this.users = service;
+        this.limits = rates;
     }
 
     /**
      * Create a user.
      *
      * @param user User that needs to be created.
+     * @param http HTTP request.
      * @return Created user.
      */
     @PostMapping("/register")
     public ResponseEntity<UserDto> register(
-        @RequestBody final RegistrationDto user
+        @RequestBody final RegistrationDto user,
+        final HttpServletRequest http
     ) {
+        this.limits.acquire(
+            RateLimits.REGISTER, http.getRemoteAddr(), user.getUsername()
+        );
         return new ResponseEntity<>(
             this.users.register(user), HttpStatus.CREATED
         );
@@ -75,12 +93,18 @@ public final class UserController {
     }
 
     /**
-     * Load all users.
+     * Load all users page by page, newest first.
      *
+     * @param after Cursor of the previous page.
+     * @param limit Page size.
      * @return Users.
      */
     @GetMapping
-    public Users all() {
-        return this.users.loadAll();
+    public Users all(
+        @RequestParam(value = "after", required = false) final String after,
+        @RequestParam(value = "limit", defaultValue = Cursor.DEFAULT_LIMIT)
+        final Integer limit
+    ) {
+        return this.users.loadAll(Cursor.parse(after), Cursor.limit(limit));
     }
 }
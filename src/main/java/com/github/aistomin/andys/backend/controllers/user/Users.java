@@ -15,6 +15,7 @@
  */
 package com.github.aistomin.andys.backend.controllers.user;
 
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,10 +29,15 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public final class Users {
+public final class Users implements Paged<UserDto> {
 
     /**
      * List of loaded users.
      */
     private List<UserDto> content;
+
+    /**
+     * Cursor of the next page or null if it is the last page.
+     */
+    private String next;
 }
@@ -15,8 +15,20 @@
  */
 package com.github.aistomin.andys.backend.controllers.video;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.cache.PreparedBodies;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import com.github.aistomin.andys.backend.controllers.paging.Fields;
+import com.github.aistomin.andys.backend.controllers.stream.StreamedArray;
+import com.github.aistomin.andys.backend.model.Lyrics;
+import com.github.aistomin.andys.backend.model.MusicSheet;
+import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
 import com.github.aistomin.andys.backend.services.VideoService;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,8 +36,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Video controller.
@@ -36,28 +53,163 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/videos")
 public final class VideoController {
 
+    /**
+     * Name of the music sheets' collection.
+     */
+    private static final String SHEETS = "sheets";
+
+    /**
+     * Name of the lyrics' collection.
+     */
+    private static final String LYRICS = "lyrics";
+
+    /**
+     * Properties of the video that the client may request.
+     */
+    private static final Set<String> COLUMNS = Set.of(
+        "id", "title", "description", "url", "youtubeId", "createdOn",
+        "publishedOn"
+    );
+
+    /**
+     * Properties of the video that the summary query selects.
+     */
+    private static final Set<String> SUMMARY = Set.of(
+        "id", "title", "youtubeId", "createdOn", "publishedOn"
+    );
+
+    /**
+     * Properties of the video that are sent if the client did not request
+     * any.
+     */
+    private static final Set<String> DEFAULTS = Set.of(
+        "id", "title", "youtubeId", "publishedOn"
+    );
+
+    /**
+     * Nested collections that the client may expand.
+     */
+    private static final Set<String> NESTED = Set.of(SHEETS, LYRICS);
+
     /**
      * Video service.
      */
     private final VideoService videos;
 
+    /**
+     * Pre-serialized pages.
+     */
+    private final PreparedBodies bodies;
+
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper json;
+
     /**
      * Ctor.
      *
      * @param service Video service.
+     * @param mapper  JSON mapper.
      */
-    public VideoController(final VideoService service) {
+    public VideoController(
+        final VideoService service, final ObjectMapper mapper
+    ) {
         this.videos = service;
+        this.json = mapper;
+        this.bodies = new PreparedBodies(
+            mapper, Lyrics.class, MusicSheet.class, Video.class
+        );
     }
 
     /**
-     * Load videos.
+     * Load videos page by page, newest first. If the client requests the
+     * fields or the nested collections, only the requested properties are
+     * loaded and sent.
      *
-     * @return Videos.
+     * @param after  Cursor of the previous page.
+     * @param limit  Page size.
+     * @param fields Comma-separated properties of the videos.
+     * @param expand Comma-separated nested collections of the videos.
+     * @param match  ETag of the page that the client has.
+     * @param accept Content codings that the client accepts.
+     * @return Serialized page.
      */
     @GetMapping
-    public Videos load() {
-        return this.videos.load();
+    public ResponseEntity<byte[]> load(
+        @RequestParam(value = "after", required = false) final String after,
+        @RequestParam(value = "limit", defaultValue = Cursor.DEFAULT_LIMIT)
+        final Integer limit,
+        @RequestParam(value = "fields", required = false) final String fields,
+        @RequestParam(value = "expand", required = false) final String expand,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+        final String match,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+        final String accept
+    ) {
+        final var cursor = Cursor.parse(after);
+        final int size = Cursor.limit(limit);
+        final Supplier<?> loader;
+        if (fields == null && expand == null) {
+            loader = () -> this.videos.load(cursor, size);
+        } else {
+            final var columns = Fields.parse(fields, COLUMNS, DEFAULTS);
+            final var nested = Fields.parse(expand, NESTED, Set.of());
+            final var selected = columns.and(nested);
+            if (columns.within(SUMMARY)) {
+                loader = () -> selected.select(
+                    this.json,
+                    this.videos.summaries(
+                        cursor, size, nested.has(SHEETS), nested.has(LYRICS)
+                    )
+                );
+            } else {
+                loader = () -> selected.select(
+                    this.json, this.videos.load(cursor, size)
+                );
+            }
+        }
+        return this.bodies.respond(
+            String.format("%s:%d:%s:%s", after, size, fields, expand),
+            match,
+            accept,
+            loader
+        );
+    }
+
+    /**
+     * Load the video with all its details.
+     *
+     * @param id Video ID.
+     * @return Video.
+     */
+    @GetMapping("/{id}")
+    public VideoDto load(@PathVariable("id") final Long id) {
+        return this.videos.load(id);
+    }
+
+    /**
+     * Stream all the videos, newest first, as one JSON array.
+     *
+     * @return Streamed videos.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new StreamedArray<>(this.json, this.videos::stream));
+    }
+
+    /**
+     * Drop the pre-serialized pages if the catalogue was changed. Runs
+     * after the services have started rebuilding their snapshots, so a
+     * page that is serialized for the new version is never stale.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.bodies.onChange(event);
     }
 
     /**
@@ -17,16 +17,20 @@ package com.github.aistomin.andys.backend.controllers.video;
 
 import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
 import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheetDto;
+import com.github.aistomin.andys.backend.model.Identity;
+import com.github.aistomin.andys.backend.model.Lyrics;
+import com.github.aistomin.andys.backend.model.Mapping;
+import com.github.aistomin.andys.backend.model.MusicSheet;
 import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.model.VideoSummary;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Video DTO.
@@ -35,7 +39,6 @@ import java.util.stream.Collectors;
  */
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
 @ToString()
 @Data
 public final class VideoDto {
@@ -91,22 +94,66 @@ public final class VideoDto {
      * @param video Video entity.
      */
     public VideoDto(final Video video) {
+        this(video, video.getSheets(), video.getLyrics());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param video  Video entity without the nested collections.
+     * @param notes  Music sheets that belong to the video.
+     * @param texts  Lyrics that belong to the video.
+     */
+    public VideoDto(
+        final Video video,
+        final Collection<MusicSheet> notes,
+        final Collection<Lyrics> texts
+    ) {
         this(
             video.getId(),
             video.getTitle(),
             video.getDescription(),
             video.getUrl(),
             video.getYoutubeId(),
-            video.getSheets()
-                .stream()
-                .map(MusicSheetDto::new)
-                .collect(Collectors.toSet()),
-            video.getLyrics()
-                .stream()
-                .map(LyricsDto::new)
-                .collect(Collectors.toSet()),
+            Mapping.toSet(notes, MusicSheetDto::new),
+            Mapping.toSet(texts, LyricsDto::new),
             video.getCreatedOn(),
             video.getPublishedOn()
         );
     }
+
+    /**
+     * Ctor.
+     *
+     * @param summary Video summary.
+     * @param notes   Music sheets that belong to the video.
+     * @param texts   Lyrics that belong to the video.
+     */
+    public VideoDto(
+        final VideoSummary summary,
+        final Collection<MusicSheet> notes,
+        final Collection<Lyrics> texts
+    ) {
+        this(
+            summary.getId(),
+            summary.getTitle(),
+            null,
+            null,
+            summary.getYoutubeId(),
+            Mapping.toSet(notes, MusicSheetDto::new),
+            Mapping.toSet(texts, LyricsDto::new),
+            summary.getCreatedOn(),
+            summary.getPublishedOn()
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, VideoDto.class, VideoDto::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.github.aistomin.andys.backend.controllers.video;
 
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,10 +29,15 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public final class Videos {
+public final class Videos implements Paged<VideoDto> {
 
     /**
      * List of videos.
      */
     private List<VideoDto> content;
+
+    /**
+     * Cursor of the next page or null if it is the last page.
+     */
+    private String next;
 }
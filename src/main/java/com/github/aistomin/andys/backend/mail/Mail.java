@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Email that is handed over to a transport.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class Mail {
+
+    /**
+     * Email message ID.
+     */
+    private final Long id;
+
+    /**
+     * Recipient's address.
+     */
+    private final String to;
+
+    /**
+     * Address for the replies.
+     */
+    private final String replyTo;
+
+    /**
+     * Subject.
+     */
+    private final String subject;
+
+    /**
+     * Plain text body.
+     */
+    private final String body;
+}
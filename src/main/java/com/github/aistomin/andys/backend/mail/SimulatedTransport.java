@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transport that only pretends to deliver: the mails to the addresses that
+ * end with "failed.email" fail, all the others are delivered.
+ *
+ * @since 0.3
+ */
+@Component
+@ConditionalOnProperty(
+    name = "mail.transport", havingValue = "simulated", matchIfMissing = true
+)
+public final class SimulatedTransport implements MailTransport {
+
+    @Override
+    public Map<Long, String> send(final List<Mail> mails) {
+        final var failed = new HashMap<Long, String>(0);
+        for (final var mail : mails) {
+            if (mail.getTo().endsWith("failed.email")) {
+                failed.put(mail.getId(), "550 Simulated failure");
+            }
+        }
+        return failed;
+    }
+}
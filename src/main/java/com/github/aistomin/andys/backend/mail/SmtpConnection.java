@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Persistent connection to an SMTP relay.
+ * <p>
+ * A transaction carries one message to several recipients. If the relay
+ * supports PIPELINING, the envelope commands are written at once and the
+ * replies are read afterwards, so a transaction costs two round trips
+ * instead of one per command.
+ *
+ * @since 0.3
+ */
+final class SmtpConnection implements Closeable {
+
+    /**
+     * Line separator of the protocol.
+     */
+    private static final String CRLF = "\r\n";
+
+    /**
+     * Length of the reply code.
+     */
+    private static final int CODE = 3;
+
+    /**
+     * Socket.
+     */
+    private final Socket socket;
+
+    /**
+     * Replies of the relay.
+     */
+    private final BufferedReader input;
+
+    /**
+     * Commands to the relay.
+     */
+    private final OutputStream output;
+
+    /**
+     * Whether the relay supports PIPELINING.
+     */
+    private final boolean pipelining;
+
+    /**
+     * Whether the relay has accepted the envelope sender of the last
+     * transaction.
+     */
+    private boolean started;
+
+    /**
+     * Ctor. Connects and greets the relay.
+     *
+     * @param host    Relay host.
+     * @param port    Relay port.
+     * @param timeout Connect and read timeout in ms.
+     * @param helo    Our host name.
+     * @throws IOException If the relay is not available.
+     */
+    SmtpConnection(
+        final String host, final int port, final int timeout,
+        final String helo
+    ) throws IOException {
+        this.socket = new Socket();
+        try {
+            this.socket.connect(new InetSocketAddress(host, port), timeout);
+            this.socket.setSoTimeout(timeout);
+            this.input = new BufferedReader(
+                new InputStreamReader(
+                    this.socket.getInputStream(), StandardCharsets.UTF_8
+                )
+            );
+            this.output = this.socket.getOutputStream();
+            SmtpConnection.expect(this.reply(), '2');
+            this.write(String.format("EHLO %s", helo));
+            final var ehlo = this.reply();
+            if (ehlo.get(0).charAt(0) == '2') {
+                this.pipelining = ehlo.stream().anyMatch(
+                    line -> line.length() > CODE + 1
+                        && line.substring(CODE + 1).toUpperCase(Locale.ROOT)
+                            .startsWith("PIPELINING")
+                );
+            } else {
+                this.write(String.format("HELO %s", helo));
+                SmtpConnection.expect(this.reply(), '2');
+                this.pipelining = false;
+            }
+        } catch (final IOException error) {
+            this.socket.close();
+            throw error;
+        }
+    }
+
+    /**
+     * Send one message to the recipients. A recipient address that could
+     * end the command fails without being written.
+     *
+     * @param from       Envelope sender.
+     * @param all        Mails with the same content by recipient address.
+     * @param message    Message with the headers.
+     * @return Errors by the mail ID; the mails that are not there are
+     *  delivered.
+     * @throws IOException If the connection is broken.
+     */
+    Map<Long, String> send(
+        final String from,
+        final Map<String, Mail> all,
+        final String message
+    ) throws IOException {
+        this.started = false;
+        final var failed = new HashMap<Long, String>(0);
+        SmtpConnection.check(from);
+        final var recipients = new LinkedHashMap<String, Mail>(2 * all.size());
+        all.forEach(
+            (address, mail) -> {
+                if (SmtpConnection.safe(address)) {
+                    recipients.put(address, mail);
+                } else {
+                    failed.put(mail.getId(), "Invalid recipient address");
+                }
+            }
+        );
+        if (recipients.isEmpty()) {
+            return failed;
+        }
+        final var commands = new ArrayList<String>(recipients.size() + 2);
+        commands.add(String.format("MAIL FROM:<%s>", from));
+        recipients.keySet().forEach(
+            address -> commands.add(String.format("RCPT TO:<%s>", address))
+        );
+        commands.add("DATA");
+        final var replies = new ArrayList<String>(commands.size());
+        if (this.pipelining) {
+            this.write(String.join(CRLF, commands));
+            for (int idx = 0; idx < commands.size(); ++idx) {
+                replies.add(this.reply().get(0));
+                this.started = replies.get(0).charAt(0) == '2';
+            }
+        } else {
+            for (final var command : commands) {
+                this.write(command);
+                final var reply = this.reply().get(0);
+                replies.add(reply);
+                this.started = replies.get(0).charAt(0) == '2';
+                if (!this.started) {
+                    break;
+                }
+            }
+        }
+        final var accepted = new ArrayList<Mail>(recipients.size());
+        int idx = 1;
+        for (final var mail : recipients.values()) {
+            if (replies.get(0).charAt(0) != '2') {
+                failed.put(mail.getId(), replies.get(0));
+            } else if (replies.get(idx).charAt(0) == '2') {
+                accepted.add(mail);
+            } else {
+                failed.put(mail.getId(), replies.get(idx));
+            }
+            idx += 1;
+        }
+        final var data = replies.get(replies.size() - 1);
+        if (data.startsWith("354")) {
+            if (accepted.isEmpty()) {
+                this.write(".");
+                this.reply();
+            } else {
+                this.write(String.format("%s%s.", message, CRLF));
+                final var done = this.reply().get(0);
+                if (done.charAt(0) != '2') {
+                    accepted.forEach(mail -> failed.put(mail.getId(), done));
+                }
+            }
+        } else {
+            accepted.forEach(mail -> failed.put(mail.getId(), data));
+            this.write("RSET");
+            this.reply();
+        }
+        return failed;
+    }
+
+    /**
+     * Whether the relay accepted the envelope sender of the last
+     * transaction. If the transaction failed before that, the relay has not
+     * seen any part of it, so it is safe to repeat it on another
+     * connection.
+     *
+     * @return True if the relay accepted the envelope sender.
+     */
+    boolean started() {
+        return this.started;
+    }
+
+    /**
+     * Whether the address can be written into a command or a header: it
+     * has no line separator to end them and no angle bracket to end the
+     * address.
+     *
+     * @param address Address.
+     * @return True if it can.
+     */
+    static boolean safe(final String address) {
+        return address != null && address.chars().noneMatch(
+            chr -> chr == '\r' || chr == '\n' || chr == '<' || chr == '>'
+        );
+    }
+
+    /**
+     * Build the message: the headers and the Base64-encoded body, so no
+     * line of it needs dot-stuffing.
+     *
+     * @param from    Header sender.
+     * @param to      Header recipient.
+     * @param content Content.
+     * @return Message.
+     */
+    static String message(
+        final String from, final String to, final Mail content
+    ) {
+        SmtpConnection.check(from);
+        if (content.getReplyTo() != null) {
+            SmtpConnection.check(content.getReplyTo());
+        }
+        final var lines = new ArrayList<String>();
+        lines.add(String.format("From: <%s>", from));
+        lines.add(String.format("To: %s", to));
+        if (content.getReplyTo() != null) {
+            lines.add(String.format("Reply-To: <%s>", content.getReplyTo()));
+        }
+        lines.add(
+            String.format(
+                "Subject: =?UTF-8?B?%s?=",
+                Base64.getEncoder().encodeToString(
+                    content.getSubject().getBytes(StandardCharsets.UTF_8)
+                )
+            )
+        );
+        lines.add("MIME-Version: 1.0");
+        lines.add("Content-Type: text/plain; charset=UTF-8");
+        lines.add("Content-Transfer-Encoding: base64");
+        lines.add("");
+        lines.add(
+            Base64.getMimeEncoder().encodeToString(
+                content.getBody().getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        return String.join(CRLF, lines);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.write("QUIT");
+            this.reply();
+        } finally {
+            this.socket.close();
+        }
+    }
+
+    /**
+     * Check that the address can be written.
+     *
+     * @param address Address.
+     */
+    private static void check(final String address) {
+        if (!SmtpConnection.safe(address)) {
+            throw new IllegalArgumentException(
+                String.format("Invalid address: %s", address)
+            );
+        }
+    }
+
+    /**
+     * Check the reply code class.
+     *
+     * @param reply    Reply lines.
+     * @param expected Expected first digit of the code.
+     * @throws IOException If the reply is different.
+     */
+    private static void expect(final List<String> reply, final char expected)
+        throws IOException {
+        if (reply.get(0).charAt(0) != expected) {
+            throw new IOException(reply.get(0));
+        }
+    }
+
+    /**
+     * Write the command.
+     *
+     * @param command Command without the line separator.
+     * @throws IOException If the connection is broken.
+     */
+    private void write(final String command) throws IOException {
+        this.output.write(
+            String.format("%s%s", command, CRLF)
+                .getBytes(StandardCharsets.UTF_8)
+        );
+        this.output.flush();
+    }
+
+    /**
+     * Read the reply, which may span several lines.
+     *
+     * @return Reply lines.
+     * @throws IOException If the connection is broken.
+     */
+    private List<String> reply() throws IOException {
+        final var lines = new ArrayList<String>(1);
+        String line;
+        do {
+            line = this.input.readLine();
+            if (line == null || line.length() < CODE) {
+                throw new IOException(
+                    String.format("Unexpected reply: %s", line)
+                );
+            }
+            lines.add(line);
+        } while (line.length() > CODE && line.charAt(CODE) == '-');
+        return lines;
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Transport that delivers the mails to an SMTP relay.
+ * <p>
+ * The connections to the relay are kept open in a pool and reused. The
+ * mails with the same content are sent in one transaction with several
+ * recipients, pipelined if the relay allows it. The transactions run in
+ * parallel, one per connection, on virtual threads if configured; a
+ * recipient that the relay rejects fails alone.
+ *
+ * @since 0.3
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "smtp")
+public final class SmtpTransport implements MailTransport, DisposableBean {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Relay host.
+     */
+    private final String host;
+
+    /**
+     * Relay port.
+     */
+    private final int port;
+
+    /**
+     * Envelope and header sender.
+     */
+    private final String sender;
+
+    /**
+     * Connect and read timeout in ms.
+     */
+    private final int timeout;
+
+    /**
+     * Maximal number of the recipients per transaction.
+     */
+    private final int recipients;
+
+    /**
+     * Idle connections.
+     */
+    private final BlockingQueue<SmtpConnection> idle;
+
+    /**
+     * Permits to use a connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Threads of the transactions.
+     */
+    private final SimpleAsyncTaskExecutor threads;
+
+    /**
+     * Ctor.
+     *
+     * @param relay       Relay host.
+     * @param relayPort   Relay port.
+     * @param from        Envelope and header sender.
+     * @param connections Maximal number of the connections.
+     * @param wait        Connect and read timeout in ms.
+     * @param batch       Maximal number of the recipients per transaction.
+     * @param virtual     Whether the transactions run on virtual threads.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public SmtpTransport(
+        @Value("${mail.smtp.host}") final String relay,
+        @Value("${mail.smtp.port}") final int relayPort,
+        @Value("${support.email}") final String from,
+        @Value("${mail.smtp.connections}") final int connections,
+        @Value("${mail.smtp.timeout}") final int wait,
+        @Value("${mail.smtp.recipients}") final int batch,
+        @Value("${mail.smtp.virtual-threads}") final boolean virtual
+    ) {
+        this.host = relay;
+        this.port = relayPort;
+        this.sender = from;
+        this.timeout = wait;
+        this.recipients = batch;
+        this.idle = new ArrayBlockingQueue<>(connections);
+        this.permits = new Semaphore(connections);
+        this.threads = new SimpleAsyncTaskExecutor("smtp-");
+        this.threads.setDaemon(true);
+        this.threads.setVirtualThreads(virtual);
+        this.threads.setConcurrencyLimit(connections);
+    }
+
+    @Override
+    public Map<Long, String> send(final List<Mail> mails) {
+        final var failed = new HashMap<Long, String>(0);
+        final var valid = new ArrayList<Mail>(mails.size());
+        for (final var mail : mails) {
+            if (SmtpConnection.safe(mail.getTo())
+                && (mail.getReplyTo() == null
+                || SmtpConnection.safe(mail.getReplyTo()))) {
+                valid.add(mail);
+            } else {
+                failed.put(mail.getId(), "Invalid address");
+            }
+        }
+        final var sending = this.transactions(valid).stream()
+            .map(
+                group -> CompletableFuture.supplyAsync(
+                    () -> this.send(group), this.threads
+                ).handle(
+                    (result, error) -> {
+                        if (error == null) {
+                            return result;
+                        }
+                        this.logger.error("Can not send the mails", error);
+                        return SmtpTransport.failed(
+                            group,
+                            String.format("Error: %s", error.getMessage())
+                        );
+                    }
+                )
+            )
+            .toList();
+        sending.forEach(future -> failed.putAll(future.join()));
+        return failed;
+    }
+
+    @Override
+    public void destroy() {
+        SmtpConnection connection = this.idle.poll();
+        while (connection != null) {
+            this.discard(connection);
+            connection = this.idle.poll();
+        }
+        this.threads.close();
+    }
+
+    /**
+     * Split the mails into the transactions: the same content, distinct
+     * recipients and no more of them than allowed.
+     *
+     * @param mails Mails.
+     * @return Recipients by address, per transaction.
+     */
+    private List<Map<String, Mail>> transactions(final List<Mail> mails) {
+        final var open = new HashMap<List<String>, Map<String, Mail>>();
+        final var all = new ArrayList<Map<String, Mail>>();
+        for (final var mail : mails) {
+            final var content = List.of(
+                Objects.toString(mail.getReplyTo(), ""),
+                mail.getSubject(), mail.getBody()
+            );
+            var group = open.get(content);
+            if (group == null || group.size() >= this.recipients
+                || group.containsKey(mail.getTo())) {
+                group = new LinkedHashMap<>();
+                open.put(content, group);
+                all.add(group);
+            }
+            group.put(mail.getTo(), mail);
+        }
+        return all;
+    }
+
+    /**
+     * Send one transaction on a pooled connection. A pooled connection
+     * that turns out to be closed by the relay before it accepted the
+     * envelope sender is replaced once; a failure after that fails the
+     * whole transaction, because the relay may have delivered it.
+     *
+     * @param group Recipients by address.
+     * @return Errors by the mail ID.
+     */
+    private Map<Long, String> send(final Map<String, Mail> group) {
+        final var first = group.values().iterator().next();
+        final String to;
+        if (group.size() == 1) {
+            to = String.format("<%s>", first.getTo());
+        } else {
+            to = "undisclosed-recipients:;";
+        }
+        final var message = SmtpConnection.message(this.sender, to, first);
+        this.permits.acquireUninterruptibly();
+        try {
+            var connection = this.idle.poll();
+            final boolean reused = connection != null;
+            for (int attempt = 0; attempt < 2; ++attempt) {
+                try {
+                    if (connection == null) {
+                        connection = this.open();
+                    }
+                    final var failed = connection.send(
+                        this.sender, group, message
+                    );
+                    this.idle.offer(connection);
+                    return failed;
+                } catch (final IOException error) {
+                    final boolean started =
+                        connection != null && connection.started();
+                    if (connection != null) {
+                        this.discard(connection);
+                        connection = null;
+                    }
+                    if (!reused || attempt > 0 || started) {
+                        this.logger.error("Can not send the mails", error);
+                        return SmtpTransport.failed(
+                            group,
+                            String.format("I/O error: %s", error.getMessage())
+                        );
+                    }
+                }
+            }
+            return SmtpTransport.failed(group, "I/O error: Retried");
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Open a new connection.
+     *
+     * @return Connection.
+     * @throws IOException If the relay is not available.
+     */
+    private SmtpConnection open() throws IOException {
+        return new SmtpConnection(
+            this.host, this.port, this.timeout,
+            this.sender.substring(this.sender.lastIndexOf('@') + 1)
+        );
+    }
+
+    /**
+     * Close the connection, ignoring the errors.
+     *
+     * @param connection Connection.
+     */
+    private void discard(final SmtpConnection connection) {
+        try {
+            connection.close();
+        } catch (final IOException error) {
+            this.logger.debug("Can not close the connection", error);
+        }
+    }
+
+    /**
+     * All the mails of the transaction failed.
+     *
+     * @param group Recipients by address.
+     * @param error Error.
+     * @return Errors by the mail ID.
+     */
+    private static Map<Long, String> failed(
+        final Map<String, Mail> group, final String error
+    ) {
+        final var failed = new HashMap<Long, String>(2 * group.size());
+        group.values().forEach(mail -> failed.put(mail.getId(), error));
+        return failed;
+    }
+}
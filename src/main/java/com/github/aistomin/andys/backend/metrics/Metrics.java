@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.metrics;
+
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the application metrics: timers, counters and gauges by name.
+ *
+ * @since 0.3
+ */
+@Component
+public final class Metrics {
+
+    /**
+     * Timers by name.
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Counters by name.
+     */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Gauges by name.
+     */
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Timer with the name, created on the first use.
+     *
+     * @param name Timer name.
+     * @return Timer.
+     */
+    public Timer timer(final String name) {
+        return this.timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Counter with the name, created on the first use.
+     *
+     * @param name Counter name.
+     * @return Counter.
+     */
+    public LongAdder counter(final String name) {
+        return this.counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Register a gauge that is read whenever the metrics are reported.
+     *
+     * @param name  Gauge name.
+     * @param gauge Function that reads the current value.
+     */
+    public void gauge(final String name, final LongSupplier gauge) {
+        this.gauges.put(name, gauge);
+    }
+
+    /**
+     * Current values of all the metrics, sorted by name.
+     *
+     * @return Timer statistics, counter and gauge values by name.
+     */
+    public Map<String, Object> report() {
+        final var report = new TreeMap<String, Object>();
+        this.timers.forEach((name, timer) -> report.put(name, timer.stats()));
+        this.counters.forEach(
+            (name, counter) -> report.put(name, counter.sum())
+        );
+        this.gauges.forEach(
+            (name, gauge) -> report.put(name, gauge.getAsLong())
+        );
+        return report;
+    }
+}
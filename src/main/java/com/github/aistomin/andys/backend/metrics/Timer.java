@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timer that counts the recorded durations and keeps their total and
+ * maximum. Recording is lock-free.
+ *
+ * @since 0.3
+ */
+public final class Timer {
+
+    /**
+     * Number of the recorded durations.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Total of the recorded durations in ns.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Maximal recorded duration in ns.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Record the duration.
+     *
+     * @param nanos Duration in ns.
+     */
+    public void record(final long nanos) {
+        this.count.increment();
+        this.total.add(nanos);
+        this.max.accumulate(nanos);
+    }
+
+    /**
+     * Current statistics.
+     *
+     * @return Statistics.
+     */
+    public TimerStats stats() {
+        final long recorded = this.count.sum();
+        final double sum = Timer.millis(this.total.sum());
+        final double mean;
+        if (recorded == 0) {
+            mean = 0;
+        } else {
+            mean = sum / recorded;
+        }
+        return new TimerStats(
+            recorded, sum, mean, Timer.millis(this.max.get())
+        );
+    }
+
+    /**
+     * Convert ns to ms.
+     *
+     * @param nanos Duration in ns.
+     * @return Duration in ms.
+     */
+    private static double millis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
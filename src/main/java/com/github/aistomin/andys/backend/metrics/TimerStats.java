@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of a timer.
+ *
+ * @since 0.3
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public final class TimerStats {
+
+    /**
+     * Number of the recorded durations.
+     */
+    private long count;
+
+    /**
+     * Total of the recorded durations in ms.
+     */
+    private double totalMs;
+
+    /**
+     * Mean of the recorded durations in ms.
+     */
+    private double meanMs;
+
+    /**
+     * Maximal recorded duration in ms.
+     */
+    private double maxMs;
+}
@@ -21,6 +21,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -37,6 +40,11 @@ import java.util.Date;
 @NoArgsConstructor
 @ToString
 @Entity
+@Table(
+    indexes = @Index(
+        name = "blog_post_created_on_id_idx", columnList = "createdOn, id"
+    )
+)
 public final class BlogPost {
 
     /**
@@ -49,7 +57,13 @@ public final class BlogPost {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "blog_post_seq"
+    )
+    @SequenceGenerator(
+        name = "blog_post_seq",
+        sequenceName = "blog_post_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -91,4 +105,14 @@ public final class BlogPost {
             dto.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, BlogPost.class, BlogPost::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
@@ -15,7 +15,16 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data access class for {@link BlogPost}.
@@ -23,4 +32,54 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @since 0.1
  */
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
+    /**
+     * Load the first page of the blog posts, newest first.
+     *
+     * @param page Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT post
+            FROM BlogPost post
+            ORDER BY post.createdOn DESC, post.id DESC
+        """)
+    List<BlogPost> loadFirst(Pageable page);
+
+    /**
+     * Load the page of the blog posts that follows the given post.
+     *
+     * @param createdOn Creation date of the last post of the previous page.
+     * @param id        ID of the last post of the previous page.
+     * @param page      Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT post
+            FROM BlogPost post
+            WHERE post.createdOn <= :createdOn
+            AND (post.createdOn < :createdOn OR post.id < :id)
+            ORDER BY post.createdOn DESC, post.id DESC
+        """)
+    List<BlogPost> loadAfter(
+        @Param("createdOn") Date createdOn,
+        @Param("id") Long id,
+        Pageable page
+    );
+
+    /**
+     * Stream all the blog posts, newest first. The rows are fetched from the
+     * database in chunks of {@link Fetch#SIZE} while the stream is consumed, so
+     * it must be consumed and closed inside a transaction.
+     *
+     * @return Blog posts.
+     */
+    @Query("""
+            SELECT post
+            FROM BlogPost post
+            ORDER BY post.createdOn DESC, post.id DESC
+        """)
+    @QueryHints(
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Fetch.SIZE)
+    )
+    Stream<BlogPost> streamAll();
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+/**
+ * Data object that stores a newsletter campaign and its progress: the
+ * subscribers are enqueued in the order of their IDs, so the ID of the last
+ * enqueued one is the checkpoint to resume from.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public final class Campaign {
+
+    /**
+     * Length of the body.
+     */
+    private static final int BODY_LENGTH = 100_000;
+
+    /**
+     * Campaign ID.
+     */
+    @Id
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "campaign_seq"
+    )
+    @SequenceGenerator(
+        name = "campaign_seq",
+        sequenceName = "campaign_seq",
+        allocationSize = Sequences.ALLOCATION
+    )
+    private Long id;
+
+    /**
+     * Dispatcher of the emails.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Person dispatcher;
+
+    /**
+     * Email subject.
+     */
+    @Column(nullable = false)
+    private String subject;
+
+    /**
+     * Email body, the same for all the subscribers.
+     */
+    @Column(nullable = false, length = BODY_LENGTH)
+    private String body;
+
+    /**
+     * ID of the last enqueued subscriber.
+     */
+    @Column(nullable = false)
+    private Long checkpoint;
+
+    /**
+     * Number of the enqueued emails.
+     */
+    @Column(nullable = false)
+    private Long enqueued;
+
+    /**
+     * The date when the campaign was created.
+     */
+    @Column(nullable = false)
+    private Date createdOn;
+
+    /**
+     * The date when the last email was enqueued or null if the campaign is
+     * still running.
+     */
+    @Column
+    private Date finishedOn;
+}
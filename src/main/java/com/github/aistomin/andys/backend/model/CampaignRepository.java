@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data access class for {@link Campaign}.
+ *
+ * @since 0.3
+ */
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    /**
+     * Load the campaign together with its dispatcher.
+     *
+     * @param id Campaign ID.
+     * @return Campaign or null.
+     */
+    @Query("""
+            SELECT campaign
+            FROM Campaign campaign
+            JOIN FETCH campaign.dispatcher
+            WHERE campaign.id = :id
+        """)
+    Campaign loadWithDispatcher(@Param("id") Long id);
+
+    /**
+     * IDs of the campaigns that are not finished yet.
+     *
+     * @return Campaign IDs, oldest first.
+     */
+    @Query("""
+            SELECT campaign.id
+            FROM Campaign campaign
+            WHERE campaign.finishedOn IS NULL
+            ORDER BY campaign.id
+        """)
+    List<Long> findRunning();
+
+    /**
+     * Move the checkpoint of the campaign, unless somebody else has already
+     * moved it.
+     *
+     * @param id       Campaign ID.
+     * @param previous Expected checkpoint.
+     * @param next     New checkpoint.
+     * @param count    Number of the enqueued emails.
+     * @return 1 if the checkpoint was moved, 0 otherwise.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Campaign campaign
+            SET campaign.checkpoint = :next,
+                campaign.enqueued = campaign.enqueued + :count
+            WHERE campaign.id = :id AND campaign.checkpoint = :previous
+        """)
+    int checkpoint(
+        @Param("id") Long id,
+        @Param("previous") Long previous,
+        @Param("next") Long next,
+        @Param("count") long count
+    );
+
+    /**
+     * Mark the campaign as finished.
+     *
+     * @param id   Campaign ID.
+     * @param date Finish date.
+     * @return Number of the updated campaigns.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Campaign campaign
+            SET campaign.finishedOn = :date
+            WHERE campaign.id = :id AND campaign.finishedOn IS NULL
+        """)
+    int finish(@Param("id") Long id, @Param("date") Date date);
+}
@@ -15,13 +15,17 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import com.github.aistomin.andys.backend.utils.Sha256;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -38,6 +42,12 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(
+    indexes = @Index(
+        name = "email_message_fingerprint_created_on_idx",
+        columnList = "fingerprint, createdOn"
+    )
+)
 public final class EmailMessage {
 
     /**
@@ -45,12 +55,23 @@ public final class EmailMessage {
      */
     private static final int BODY_LENGTH = 100_000;
 
+    /**
+     * Length of the Base64-encoded SHA-256 fingerprint.
+     */
+    private static final int FINGERPRINT_LENGTH = 44;
+
     /**
      * Email message ID.
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "email_message_seq"
+    )
+    @SequenceGenerator(
+        name = "email_message_seq",
+        sequenceName = "email_message_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -101,4 +122,36 @@ public final class EmailMessage {
      */
     @Column(nullable = false)
     private Date createdOn;
+
+    /**
+     * SHA-256 fingerprint of the dispatcher, receptor, subject and body, so
+     * identical messages are found by the index instead of comparing the
+     * bodies.
+     */
+    @Column(nullable = false, length = FINGERPRINT_LENGTH)
+    private String fingerprint;
+
+    /**
+     * The date when the email message was claimed for sending, if it is
+     * being sent.
+     */
+    private Date claimedOn;
+
+    /**
+     * Fingerprint of the message.
+     *
+     * @param dispatcher Dispatcher's email.
+     * @param receptor   Receptor's email.
+     * @param subject    Email subject.
+     * @param body       Email body.
+     * @return Base64-encoded SHA-256 digest.
+     */
+    public static String fingerprint(
+        final String dispatcher,
+        final String receptor,
+        final String subject,
+        final String body
+    ) {
+        return Sha256.fields(dispatcher, receptor, subject, body);
+    }
 }
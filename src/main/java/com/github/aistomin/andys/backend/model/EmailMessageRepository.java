@@ -15,9 +15,15 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data access class for {@link EmailMessage}.
@@ -36,21 +42,211 @@ public interface EmailMessageRepository
     List<EmailMessage> findAllByDispatcher(Person dispatcher);
 
     /**
-     * Find all the identical messages created after certain date.
+     * Check whether an identical message was created after certain date.
      *
-     * @param dispatcher Dispatcher.
-     * @param receptor   Receptor.
-     * @param subject    Email's subject.
-     * @param body       Email's body.
-     * @param date       The date.
-     * @return List of emails.
-     */
-    @SuppressWarnings("linelength")
-    List<EmailMessage> findAllByDispatcherAndReceptorAndSubjectAndBodyAndCreatedOnIsAfter(
-        Person dispatcher,
-        Person receptor,
-        String subject,
-        String body,
-        Date date
+     * @param fingerprint Fingerprint of the message.
+     * @param date        The date.
+     * @return True if there is such a message.
+     * @see EmailMessage#fingerprint(String, String, String, String)
+     */
+    boolean existsByFingerprintAndCreatedOnAfter(
+        String fingerprint, Date date
+    );
+
+    /**
+     * Select the fingerprints of the messages created after certain date.
+     *
+     * @param fingerprints Fingerprints to look for.
+     * @param date         The date.
+     * @return Found fingerprints.
+     */
+    @Query("""
+            SELECT DISTINCT email.fingerprint
+            FROM EmailMessage email
+            WHERE email.fingerprint IN :fingerprints
+            AND email.createdOn > :date
+        """)
+    Set<String> findFingerprints(
+        @Param("fingerprints") Collection<String> fingerprints,
+        @Param("date") Date date
+    );
+
+    /**
+     * Load the IDs of the page of the emails of the type in the status
+     * that were created before the date and follow the given email.
+     *
+     * @param status Status.
+     * @param type   Type.
+     * @param before The date.
+     * @param after  ID of the last email of the previous page.
+     * @param page   Page window.
+     * @return Email IDs in ascending order.
+     */
+    @Query("""
+            SELECT email.id
+            FROM EmailMessage email
+            WHERE email.status = :status
+            AND email.type = :type
+            AND email.createdOn < :before
+            AND email.id > :after
+            ORDER BY email.id
+        """)
+    List<Long> loadIds(
+        @Param("status") EmailMessageStatus status,
+        @Param("type") EmailMessageType type,
+        @Param("before") Date before,
+        @Param("after") Long after,
+        Pageable page
+    );
+
+    /**
+     * Load the IDs of the page of the emails of the type in the status
+     * that were claimed before the date and follow the given email.
+     *
+     * @param status Status.
+     * @param type   Type.
+     * @param before The date.
+     * @param after  ID of the last email of the previous page.
+     * @param page   Page window.
+     * @return Email IDs in ascending order.
+     */
+    @Query("""
+            SELECT email.id
+            FROM EmailMessage email
+            WHERE email.status = :status
+            AND email.type = :type
+            AND email.claimedOn < :before
+            AND email.id > :after
+            ORDER BY email.id
+        """)
+    List<Long> loadClaimedIds(
+        @Param("status") EmailMessageStatus status,
+        @Param("type") EmailMessageType type,
+        @Param("before") Date before,
+        @Param("after") Long after,
+        Pageable page
+    );
+
+    /**
+     * Lock the emails that nobody else has locked. Must be called in a
+     * transaction, which holds the locks until it ends.
+     *
+     * @param ids Email IDs.
+     * @return IDs of the locked emails.
+     */
+    @Query(
+        value = """
+                SELECT id
+                FROM email_message
+                WHERE id IN :ids
+                FOR UPDATE SKIP LOCKED
+            """,
+        nativeQuery = true
+    )
+    List<Long> lock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load the emails in the status together with their dispatchers and
+     * receptors.
+     *
+     * @param ids    Email IDs.
+     * @param status Status.
+     * @return Emails.
+     */
+    @Query("""
+            SELECT email
+            FROM EmailMessage email
+            JOIN FETCH email.dispatcher
+            JOIN FETCH email.receptor
+            WHERE email.id IN :ids
+            AND email.status = :status
+        """)
+    List<EmailMessage> loadWithReceptors(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") EmailMessageStatus status
+    );
+
+    /**
+     * Set the status of the emails with one statement.
+     *
+     * @param ids    Email IDs.
+     * @param status New status.
+     * @return Number of the updated emails.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EmailMessage email
+            SET email.status = :status
+            WHERE email.id IN :ids
+        """)
+    int updateStatus(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") EmailMessageStatus status
+    );
+
+    /**
+     * Set the status of the emails and the date when they were claimed,
+     * with one statement.
+     *
+     * @param ids    Email IDs.
+     * @param status New status.
+     * @param date   Date of the claim, null if they are not claimed.
+     * @return Number of the updated emails.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EmailMessage email
+            SET email.status = :status, email.claimedOn = :date
+            WHERE email.id IN :ids
+        """)
+    int updateClaim(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") EmailMessageStatus status,
+        @Param("date") Date date
+    );
+
+    /**
+     * Move the emails that are still claimed since before the date to the
+     * new status.
+     *
+     * @param ids     Email IDs.
+     * @param claimed Status of the claimed emails.
+     * @param before  The date.
+     * @param status  New status.
+     * @return Number of the released emails.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EmailMessage email
+            SET email.status = :status, email.claimedOn = NULL
+            WHERE email.id IN :ids
+            AND email.status = :claimed
+            AND email.claimedOn < :before
+        """)
+    int release(
+        @Param("ids") Collection<Long> ids,
+        @Param("claimed") EmailMessageStatus claimed,
+        @Param("before") Date before,
+        @Param("status") EmailMessageStatus status
+    );
+
+    /**
+     * Set the status of the email together with the info about it.
+     *
+     * @param id     Email ID.
+     * @param status New status.
+     * @param info   Info, e.g. the reply of the mail server.
+     * @return Number of the updated emails.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EmailMessage email
+            SET email.status = :status, email.info = :info
+            WHERE email.id = :id
+        """)
+    int updateStatus(
+        @Param("id") Long id,
+        @Param("status") EmailMessageStatus status,
+        @Param("info") String info
     );
 }
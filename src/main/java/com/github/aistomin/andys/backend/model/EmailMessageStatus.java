@@ -35,5 +35,13 @@ public enum EmailMessageStatus {
     /**
      * Email sending is failed.
      */
-    FAILED
+    FAILED,
+
+    /**
+     * Email message is claimed by a consumer and handed to the mail server;
+     * its outcome is not known yet. An email that stays in this status
+     * longer than the sending timeout is moved back to
+     * {@link #CREATED} and sent again.
+     */
+    SENDING
 }
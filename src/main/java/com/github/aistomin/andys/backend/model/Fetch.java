@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+/**
+ * Settings of the queries that stream the whole tables.
+ *
+ * @since 0.3
+ */
+public final class Fetch {
+
+    /**
+     * Number of rows that the JDBC driver fetches per round trip.
+     */
+    public static final String SIZE = "100";
+
+    /**
+     * Hidden ctor.
+     */
+    private Fetch() {
+    }
+}
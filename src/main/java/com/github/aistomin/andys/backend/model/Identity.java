@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import java.util.function.Function;
+
+/**
+ * ID-based equality of the entities and their DTOs.
+ * <p>
+ * Two objects are equal if they are of the same type and have the same ID.
+ * An object without an ID is equal only to itself. Neither method touches
+ * the other fields, so hashing a video never reads its long description or
+ * its lazy collections.
+ *
+ * @since 0.3
+ */
+public final class Identity {
+
+    /**
+     * Hidden ctor.
+     */
+    private Identity() {
+    }
+
+    /**
+     * Compare the object with the other one.
+     *
+     * @param self  Object.
+     * @param other Other object or null.
+     * @param type  Object type.
+     * @param id    Function that reads the ID.
+     * @param <T>   Object type.
+     * @return Whether the objects are equal.
+     */
+    public static <T> boolean equal(
+        final T self,
+        final Object other,
+        final Class<T> type,
+        final Function<T, Long> id
+    ) {
+        final boolean equal;
+        if (self == other) {
+            equal = true;
+        } else if (type.isInstance(other)) {
+            final Long mine = id.apply(self);
+            equal = mine != null && mine.equals(id.apply(type.cast(other)));
+        } else {
+            equal = false;
+        }
+        return equal;
+    }
+
+    /**
+     * Hash code of the object.
+     *
+     * @param self Object.
+     * @param id   Object ID or null.
+     * @return Hash code.
+     */
+    public static int hash(final Object self, final Long id) {
+        final int hash;
+        if (id == null) {
+            hash = System.identityHashCode(self);
+        } else {
+            hash = id.hashCode();
+        }
+        return hash;
+    }
+}
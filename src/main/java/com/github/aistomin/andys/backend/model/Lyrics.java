@@ -21,6 +21,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -39,6 +42,11 @@ import java.util.Date;
 @NoArgsConstructor
 @ToString
 @Entity
+@Table(
+    indexes = @Index(
+        name = "lyrics_created_on_id_idx", columnList = "createdOn, id"
+    )
+)
 public final class Lyrics {
 
     /**
@@ -51,7 +59,13 @@ public final class Lyrics {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "lyrics_seq"
+    )
+    @SequenceGenerator(
+        name = "lyrics_seq",
+        sequenceName = "lyrics_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -93,4 +107,14 @@ public final class Lyrics {
             dto.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, Lyrics.class, Lyrics::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
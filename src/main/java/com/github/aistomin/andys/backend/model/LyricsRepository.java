@@ -15,7 +15,16 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data access class for {@link Lyrics}.
@@ -23,4 +32,54 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @since 0.2
  */
 public interface LyricsRepository extends JpaRepository<Lyrics, Long> {
+    /**
+     * Load the first page of the lyrics, newest first.
+     *
+     * @param page Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT lyrics
+            FROM Lyrics lyrics
+            ORDER BY lyrics.createdOn DESC, lyrics.id DESC
+        """)
+    List<Lyrics> loadFirst(Pageable page);
+
+    /**
+     * Load the page of the lyrics that follows the given lyrics.
+     *
+     * @param createdOn Creation date of the last lyrics of the previous page.
+     * @param id        ID of the last lyrics of the previous page.
+     * @param page      Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT lyrics
+            FROM Lyrics lyrics
+            WHERE lyrics.createdOn <= :createdOn
+            AND (lyrics.createdOn < :createdOn OR lyrics.id < :id)
+            ORDER BY lyrics.createdOn DESC, lyrics.id DESC
+        """)
+    List<Lyrics> loadAfter(
+        @Param("createdOn") Date createdOn,
+        @Param("id") Long id,
+        Pageable page
+    );
+
+    /**
+     * Stream all the lyrics, newest first. The rows are fetched from the
+     * database in chunks of {@link Fetch#SIZE} while the stream is consumed, so
+     * it must be consumed and closed inside a transaction.
+     *
+     * @return Lyrics.
+     */
+    @Query("""
+            SELECT lyrics
+            FROM Lyrics lyrics
+            ORDER BY lyrics.createdOn DESC, lyrics.id DESC
+        """)
+    @QueryHints(
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Fetch.SIZE)
+    )
+    Stream<Lyrics> streamAll();
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Mapping between the entities and their DTOs.
+ *
+ * @since 0.3
+ */
+public final class Mapping {
+
+    /**
+     * Hidden ctor.
+     */
+    private Mapping() {
+    }
+
+    /**
+     * Map every item into a set that is sized for all of them up front
+     * (twice the size stays below the default load factor), so it is never
+     * rehashed and no stream pipeline is allocated.
+     *
+     * @param items Items or null.
+     * @param map   Function that maps an item.
+     * @param <S>   Source type.
+     * @param <T>   Target type.
+     * @return Mapped items.
+     */
+    public static <S, T> Set<T> toSet(
+        final Collection<S> items, final Function<S, T> map
+    ) {
+        final Set<T> mapped;
+        if (items == null) {
+            mapped = new HashSet<>();
+        } else {
+            mapped = new HashSet<>(2 * items.size());
+            for (final S item : items) {
+                mapped.add(map.apply(item));
+            }
+        }
+        return mapped;
+    }
+}
@@ -21,6 +21,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -39,6 +42,11 @@ import java.util.Date;
 @NoArgsConstructor
 @ToString
 @Entity
+@Table(
+    indexes = @Index(
+        name = "music_sheet_created_on_id_idx", columnList = "createdOn, id"
+    )
+)
 public final class MusicSheet {
 
     /**
@@ -51,7 +59,13 @@ public final class MusicSheet {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "music_sheet_seq"
+    )
+    @SequenceGenerator(
+        name = "music_sheet_seq",
+        sequenceName = "music_sheet_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -107,4 +121,14 @@ public final class MusicSheet {
             dto.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, MusicSheet.class, MusicSheet::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
@@ -15,7 +15,16 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data access class for {@link MusicSheet}.
@@ -23,4 +32,54 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @since 0.1
  */
 public interface MusicSheetRepository extends JpaRepository<MusicSheet, Long> {
+    /**
+     * Load the first page of the music sheets, newest first.
+     *
+     * @param page Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT sheet
+            FROM MusicSheet sheet
+            ORDER BY sheet.createdOn DESC, sheet.id DESC
+        """)
+    List<MusicSheet> loadFirst(Pageable page);
+
+    /**
+     * Load the page of the music sheets that follows the given sheet.
+     *
+     * @param createdOn Creation date of the last sheet of the previous page.
+     * @param id        ID of the last sheet of the previous page.
+     * @param page      Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT sheet
+            FROM MusicSheet sheet
+            WHERE sheet.createdOn <= :createdOn
+            AND (sheet.createdOn < :createdOn OR sheet.id < :id)
+            ORDER BY sheet.createdOn DESC, sheet.id DESC
+        """)
+    List<MusicSheet> loadAfter(
+        @Param("createdOn") Date createdOn,
+        @Param("id") Long id,
+        Pageable page
+    );
+
+    /**
+     * Stream all the music sheets, newest first. The rows are fetched from the
+     * database in chunks of {@link Fetch#SIZE} while the stream is consumed, so
+     * it must be consumed and closed inside a transaction.
+     *
+     * @return Music sheets.
+     */
+    @Query("""
+            SELECT sheet
+            FROM MusicSheet sheet
+            ORDER BY sheet.createdOn DESC, sheet.id DESC
+        """)
+    @QueryHints(
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Fetch.SIZE)
+    )
+    Stream<MusicSheet> streamAll();
 }
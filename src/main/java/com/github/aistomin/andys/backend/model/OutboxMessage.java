@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import java.util.Date;
+
+/**
+ * Data object that stores a JMS message which must be published. The row is
+ * written in the same transaction as the data the message is about and is
+ * deleted once the message is published, but not before its time.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Entity
+public final class OutboxMessage {
+
+    /**
+     * Length of the message text.
+     */
+    private static final int PAYLOAD_LENGTH = 10_000;
+
+    /**
+     * Outbox message ID.
+     */
+    @Id
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "outbox_message_seq"
+    )
+    @SequenceGenerator(
+        name = "outbox_message_seq",
+        sequenceName = "outbox_message_seq",
+        allocationSize = Sequences.ALLOCATION
+    )
+    private Long id;
+
+    /**
+     * Queue name.
+     */
+    @Column(nullable = false)
+    private String destination;
+
+    /**
+     * Message text.
+     */
+    @Column(nullable = false, length = PAYLOAD_LENGTH)
+    private String payload;
+
+    /**
+     * The date when the message was created.
+     */
+    @Column(nullable = false)
+    private Date createdOn;
+
+    /**
+     * The date before which the message must not be published.
+     */
+    @Column(nullable = false)
+    private Date notBefore;
+}
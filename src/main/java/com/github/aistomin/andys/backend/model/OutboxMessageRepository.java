@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data access class for {@link OutboxMessage}.
+ *
+ * @since 0.3
+ */
+public interface OutboxMessageRepository
+    extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Lock the oldest messages that are due and that nobody else has
+     * locked. Must be called in a transaction, which holds the locks until
+     * it ends.
+     *
+     * @param limit Maximal number of the messages.
+     * @param now   Current date.
+     * @return Locked messages, oldest first.
+     */
+    @Query(
+        value = """
+                SELECT *
+                FROM outbox_message
+                WHERE not_before <= :now
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """,
+        nativeQuery = true
+    )
+    List<OutboxMessage> claim(
+        @Param("limit") int limit, @Param("now") Date now
+    );
+}
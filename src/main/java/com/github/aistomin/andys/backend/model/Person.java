@@ -20,6 +20,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -44,7 +45,13 @@ public final class Person {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "person_seq"
+    )
+    @SequenceGenerator(
+        name = "person_seq",
+        sequenceName = "person_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -15,7 +15,12 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data access class for {@link Person}.
@@ -31,4 +36,28 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      * @return Found person.
      */
     Person findByEmail(String email);
+
+    /**
+     * Find people by emails.
+     *
+     * @param emails Emails.
+     * @return Found people.
+     */
+    List<Person> findAllByEmailIn(Collection<String> emails);
+
+    /**
+     * Load the next chunk of the people who allow us to send newsletters,
+     * in the order of their IDs.
+     *
+     * @param after ID of the last person of the previous chunk.
+     * @param chunk Chunk size.
+     * @return People.
+     */
+    @Query("""
+            SELECT person
+            FROM Person person
+            WHERE person.allowToSendNewsLetters = TRUE AND person.id > :after
+            ORDER BY person.id
+        """)
+    List<Person> loadSubscribers(@Param("after") Long after, Pageable chunk);
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import java.util.Date;
+
+/**
+ * Data object that stores a refresh token. Only the digest of the token is
+ * stored, never the token itself.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString(exclude = "digest")
+@Entity
+public final class RefreshToken {
+
+    /**
+     * Length of the Base64-encoded SHA-256 digest.
+     */
+    private static final int DIGEST_LENGTH = 44;
+
+    /**
+     * Refresh token ID.
+     */
+    @Id
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "refresh_token_seq"
+    )
+    @SequenceGenerator(
+        name = "refresh_token_seq",
+        sequenceName = "refresh_token_seq",
+        allocationSize = Sequences.ALLOCATION
+    )
+    private Long id;
+
+    /**
+     * Base64-encoded SHA-256 digest of the token.
+     */
+    @Column(nullable = false, unique = true, length = DIGEST_LENGTH)
+    private String digest;
+
+    /**
+     * Username of the token owner.
+     */
+    @Column(nullable = false)
+    private String username;
+
+    /**
+     * Comma-separated names of the authorities that were granted to the
+     * owner.
+     */
+    @Column(nullable = false)
+    private String authorities;
+
+    /**
+     * Epoch of the owner when the token was issued.
+     */
+    @Column(nullable = false)
+    private Long epoch;
+
+    /**
+     * The date when the token expires.
+     */
+    @Column(nullable = false)
+    private Date expiresOn;
+
+    /**
+     * ID of the access token that was issued together with the token.
+     */
+    @Column(nullable = false)
+    private String jti;
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Data access class for {@link RefreshToken}.
+ *
+ * @since 0.3
+ */
+public interface RefreshTokenRepository
+    extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find the token by the digest.
+     *
+     * @param digest Base64-encoded SHA-256 digest of the token.
+     * @return Token if it exists.
+     */
+    Optional<RefreshToken> findByDigest(String digest);
+
+    /**
+     * Redeem the token: delete it unless it has expired.
+     *
+     * @param id  Token ID.
+     * @param now Current date.
+     * @return Number of the deleted tokens: 1 if the token has been
+     *  redeemed, 0 if it has been used already or has expired.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM RefreshToken token
+            WHERE token.id = :id AND token.expiresOn > :now
+        """)
+    int redeem(@Param("id") Long id, @Param("now") Date now);
+
+    /**
+     * Delete the token that was issued together with the access token.
+     *
+     * @param jti      ID of the access token.
+     * @param username Username of the token owner.
+     * @return Number of the deleted tokens.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM RefreshToken token
+            WHERE token.jti = :jti AND token.username = :username
+        """)
+    int deleteByJti(
+        @Param("jti") String jti, @Param("username") String username
+    );
+
+    /**
+     * Delete the expired tokens.
+     *
+     * @param now Current date.
+     * @return Number of the deleted tokens.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM RefreshToken token
+            WHERE token.expiresOn <= :now
+        """)
+    int deleteExpired(@Param("now") Date now);
+}
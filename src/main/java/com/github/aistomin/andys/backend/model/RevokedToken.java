@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import java.util.Date;
+
+/**
+ * Data object that stores a revoked JWT token. The row is needed only until
+ * the token expires.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Entity
+public final class RevokedToken {
+
+    /**
+     * Revoked token ID.
+     */
+    @Id
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "revoked_token_seq"
+    )
+    @SequenceGenerator(
+        name = "revoked_token_seq",
+        sequenceName = "revoked_token_seq",
+        allocationSize = Sequences.ALLOCATION
+    )
+    private Long id;
+
+    /**
+     * The jti claim of the token.
+     */
+    @Column(nullable = false, unique = true)
+    private String jti;
+
+    /**
+     * The date when the token expires.
+     */
+    @Column(nullable = false)
+    private Date expiresOn;
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+/**
+ * Settings of the sequences that generate the entity IDs.
+ *
+ * @since 0.3
+ */
+public final class Sequences {
+
+    /**
+     * Number of IDs that one sequence call reserves. It matches the JDBC
+     * batch size, so a full batch of inserts needs one sequence call.
+     */
+    public static final int ALLOCATION = 50;
+
+    /**
+     * Hidden ctor.
+     */
+    private Sequences() {
+    }
+}
@@ -21,6 +21,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -38,7 +40,12 @@ import java.util.Date;
 @NoArgsConstructor
 @ToString(exclude = "password")
 @Entity
-@Table(name = "andys_user")
+@Table(
+    name = "andys_user",
+    indexes = @Index(
+        name = "andys_user_created_on_id_idx", columnList = "createdOn, id"
+    )
+)
 public final class User {
 
     /**
@@ -46,7 +53,13 @@ public final class User {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "andys_user_seq"
+    )
+    @SequenceGenerator(
+        name = "andys_user_seq",
+        sequenceName = "andys_user_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
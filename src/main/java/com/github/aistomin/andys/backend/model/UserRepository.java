@@ -15,7 +15,12 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
 
 /**
  * Data access class for {@link User}.
@@ -31,4 +36,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return User.
      */
     User findByUsername(String username);
+
+    /**
+     * Load the first page of the users, newest first.
+     *
+     * @param page Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT account
+            FROM User account
+            ORDER BY account.createdOn DESC, account.id DESC
+        """)
+    List<User> loadFirst(Pageable page);
+
+    /**
+     * Load the page of the users that follows the given user.
+     *
+     * @param createdOn Creation date of the last user of the previous page.
+     * @param id        ID of the last user of the previous page.
+     * @param page      Page window.
+     * @return The page.
+     */
+    @Query("""
+            SELECT account
+            FROM User account
+            WHERE account.createdOn <= :createdOn
+            AND (account.createdOn < :createdOn OR account.id < :id)
+            ORDER BY account.createdOn DESC, account.id DESC
+        """)
+    List<User> loadAfter(
+        @Param("createdOn") Date createdOn,
+        @Param("id") Long id,
+        Pageable page
+    );
 }
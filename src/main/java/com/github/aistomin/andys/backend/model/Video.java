@@ -22,28 +22,49 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Data object that stores video's data.
  *
  * @since 0.1
  */
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
 @Entity
+@Table(
+    indexes = @Index(
+        name = "video_created_on_id_idx", columnList = "createdOn, id"
+    )
+)
 public final class Video {
 
+    /**
+     * Table that links the videos with their music sheets.
+     */
+    public static final String SHEETS_TABLE = "video_sheets";
+
+    /**
+     * Table that links the videos with their lyrics.
+     */
+    public static final String LYRICS_TABLE = "video_lyrics";
+
     /**
      * Length of the video description.
      */
@@ -54,7 +75,13 @@ public final class Video {
      */
     @Id
     @GeneratedValue(
-        strategy = GenerationType.IDENTITY
+        strategy = GenerationType.SEQUENCE,
+        generator = "video_seq"
+    )
+    @SequenceGenerator(
+        name = "video_seq",
+        sequenceName = "video_seq",
+        allocationSize = Sequences.ALLOCATION
     )
     private Long id;
 
@@ -86,12 +113,24 @@ public final class Video {
      * Music sheets that belong to the video.
      */
     @OneToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = SHEETS_TABLE,
+        joinColumns = @JoinColumn(name = "video_id"),
+        inverseJoinColumns = @JoinColumn(name = "sheets_id")
+    )
+    @ToString.Exclude
     private Set<MusicSheet> sheets = new HashSet<>();
 
     /**
      * Lyrics that belong to the video.
      */
     @OneToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = LYRICS_TABLE,
+        joinColumns = @JoinColumn(name = "video_id"),
+        inverseJoinColumns = @JoinColumn(name = "lyrics_id")
+    )
+    @ToString.Exclude
     private Set<Lyrics> lyrics = new HashSet<>();
 
     /**
@@ -118,16 +157,20 @@ public final class Video {
             dto.getDescription(),
             dto.getUrl(),
             dto.getYoutubeId(),
-            dto.getSheets()
-                .stream()
-                .map(MusicSheet::new)
-                .collect(Collectors.toSet()),
-            dto.getLyrics()
-                .stream()
-                .map(Lyrics::new)
-                .collect(Collectors.toSet()),
+            Mapping.toSet(dto.getSheets(), MusicSheet::new),
+            Mapping.toSet(dto.getLyrics(), Lyrics::new),
             dto.getCreatedOn(),
             dto.getPublishedOn()
         );
     }
+
+    @Override
+    public boolean equals(final Object other) {
+        return Identity.equal(this, other, Video.class, Video::getId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Identity.hash(this, this.id);
+    }
 }
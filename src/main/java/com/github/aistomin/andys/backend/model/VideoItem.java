@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Item of the video's nested collection together with the ID of the video
+ * it belongs to. We use it to load the nested collections of many videos
+ * with one query per collection.
+ *
+ * @param <T> Item type.
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+public final class VideoItem<T> {
+
+    /**
+     * Video ID.
+     */
+    private final Long video;
+
+    /**
+     * Collection item.
+     */
+    private final T item;
+
+    /**
+     * Group the items by the video they belong to.
+     *
+     * @param items Items.
+     * @param <T>   Item type.
+     * @return Items grouped by the video ID.
+     */
+    public static <T> Map<Long, List<T>> group(
+        final Collection<VideoItem<T>> items
+    ) {
+        return items.stream().collect(
+            Collectors.groupingBy(
+                VideoItem::getVideo,
+                Collectors.mapping(VideoItem::getItem, Collectors.toList())
+            )
+        );
+    }
+}
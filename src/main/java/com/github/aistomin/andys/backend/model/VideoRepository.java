@@ -15,9 +15,17 @@
  */
 package com.github.aistomin.andys.backend.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data access class for {@link Video}.
@@ -35,15 +43,120 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
     Video findByTitle(String title);
 
     /**
-     * Deeply load all the videos with their nested collections.
+     * Load the IDs of the first page of the videos, newest first.
+     *
+     * @param page Page window.
+     * @return Video IDs.
+     */
+    @Query("""
+            SELECT video.id
+            FROM Video video
+            ORDER BY video.createdOn DESC, video.id DESC
+        """)
+    List<Long> loadFirst(Pageable page);
+
+    /**
+     * Load the IDs of the page of the videos that follows the given video.
+     *
+     * @param createdOn Creation date of the last video of the previous page.
+     * @param id        ID of the last video of the previous page.
+     * @param page      Page window.
+     * @return Video IDs.
+     */
+    @Query("""
+            SELECT video.id
+            FROM Video video
+            WHERE video.createdOn <= :createdOn
+            AND (video.createdOn < :createdOn OR video.id < :id)
+            ORDER BY video.createdOn DESC, video.id DESC
+        """)
+    List<Long> loadAfter(
+        @Param("createdOn") Date createdOn,
+        @Param("id") Long id,
+        Pageable page
+    );
+
+    /**
+     * Load the videos without their nested collections.
+     *
+     * @param ids Video IDs.
+     * @return Videos, newest first.
+     */
+    @Query("""
+            SELECT video
+            FROM Video video
+            WHERE video.id IN :ids
+            ORDER BY video.createdOn DESC, video.id DESC
+        """)
+    List<Video> loadAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load the summaries of the videos.
+     *
+     * @param ids Video IDs.
+     * @return Summaries, newest first.
+     */
+    @Query("""
+            SELECT new com.github.aistomin.andys.backend.model.VideoSummary(
+                video.id,
+                video.title,
+                video.youtubeId,
+                video.createdOn,
+                video.publishedOn
+            )
+            FROM Video video
+            WHERE video.id IN :ids
+            ORDER BY video.createdOn DESC, video.id DESC
+        """)
+    List<VideoSummary> loadSummaries(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load the music sheets of the videos.
+     *
+     * @param ids Video IDs.
+     * @return Music sheets together with their video IDs.
+     */
+    @Query("""
+            SELECT new com.github.aistomin.andys.backend.model.VideoItem(
+                video.id, sheet
+            )
+            FROM Video video
+            JOIN video.sheets sheet
+            WHERE video.id IN :ids
+        """)
+    List<VideoItem<MusicSheet>> loadSheets(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load the lyrics of the videos.
+     *
+     * @param ids Video IDs.
+     * @return Lyrics together with their video IDs.
+     */
+    @Query("""
+            SELECT new com.github.aistomin.andys.backend.model.VideoItem(
+                video.id, lyrics
+            )
+            FROM Video video
+            JOIN video.lyrics lyrics
+            WHERE video.id IN :ids
+        """)
+    List<VideoItem<Lyrics>> loadLyrics(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream all the videos without their nested collections, newest first. The
+     * rows are fetched from the database in chunks of {@link Fetch#SIZE} while
+     * the stream is consumed, so it must be consumed and closed inside a
+     * transaction.
      *
      * @return Videos.
      */
     @Query("""
             SELECT video
             FROM Video video
-            LEFT JOIN FETCH video.sheets
-            LEFT JOIN FETCH video.lyrics
+            ORDER BY video.createdOn DESC, video.id DESC
         """)
-    List<Video> loadAll();
+    @QueryHints(
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Fetch.SIZE)
+    )
+    Stream<Video> streamAll();
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Date;
+
+/**
+ * Projection of the video with the columns that the lists need. It is
+ * selected without the description and the nested collections.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+public final class VideoSummary {
+
+    /**
+     * Video ID.
+     */
+    private final Long id;
+
+    /**
+     * Video's title.
+     */
+    private final String title;
+
+    /**
+     * Video's ID on the YouTube platform.
+     */
+    private final String youtubeId;
+
+    /**
+     * The date when the video was created.
+     */
+    private final Date createdOn;
+
+    /**
+     * The date when the video was published.
+     */
+    private final Date publishedOn;
+}
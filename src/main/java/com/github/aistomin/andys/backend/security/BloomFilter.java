@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings.
+ * <p>
+ * The filter answers "definitely absent" or "maybe present". The bits are
+ * set with atomic operations, so the filter is updated and read by many
+ * threads without locks. About ten bits per expected item keep the false
+ * positive rate near one percent.
+ *
+ * @since 0.3
+ */
+public final class BloomFilter {
+
+    /**
+     * Bits per expected item.
+     */
+    private static final int BITS_PER_ITEM = 10;
+
+    /**
+     * Number of the hash functions.
+     */
+    private static final int HASHES = 7;
+
+    /**
+     * Bits in a word.
+     */
+    private static final int WORD = Long.SIZE;
+
+    /**
+     * FNV-1a 64-bit offset basis.
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    /**
+     * FNV-1a 64-bit prime.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Multiplier of the first round of the finalizer.
+     */
+    private static final long MIX_FIRST = 0xbf58476d1ce4e5b9L;
+
+    /**
+     * Multiplier of the second round of the finalizer.
+     */
+    private static final long MIX_SECOND = 0x94d049bb133111ebL;
+
+    /**
+     * Shift of the first round of the finalizer.
+     */
+    private static final int SHIFT_FIRST = 30;
+
+    /**
+     * Shift of the second round of the finalizer.
+     */
+    private static final int SHIFT_SECOND = 27;
+
+    /**
+     * Shift of the last round of the finalizer.
+     */
+    private static final int SHIFT_LAST = 31;
+
+    /**
+     * Bits.
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * Number of the bits.
+     */
+    private final long size;
+
+    /**
+     * Ctor.
+     *
+     * @param expected Expected number of the items.
+     */
+    public BloomFilter(final int expected) {
+        final int words = Math.max(
+            1, (int) ((long) Math.max(1, expected) * BITS_PER_ITEM / WORD) + 1
+        );
+        this.bits = new AtomicLongArray(words);
+        this.size = (long) words * WORD;
+    }
+
+    /**
+     * Add the item.
+     *
+     * @param item Item.
+     */
+    public void put(final String item) {
+        final long first = BloomFilter.hash(item);
+        final long second = BloomFilter.mix(first);
+        for (int idx = 0; idx < HASHES; ++idx) {
+            final long bit = Math.floorMod(first + idx * second, this.size);
+            final int word = (int) (bit / WORD);
+            final long mask = 1L << (bit % WORD);
+            long old = this.bits.get(word);
+            while ((old & mask) == 0L
+                && !this.bits.compareAndSet(word, old, old | mask)) {
+                old = this.bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Check whether the item may have been added.
+     *
+     * @param item Item.
+     * @return False - the item was never added; True - it may have been.
+     */
+    public boolean mightContain(final String item) {
+        final long first = BloomFilter.hash(item);
+        final long second = BloomFilter.mix(first);
+        boolean found = true;
+        for (int idx = 0; found && idx < HASHES; ++idx) {
+            final long bit = Math.floorMod(first + idx * second, this.size);
+            found = (this.bits.get((int) (bit / WORD)) & 1L << (bit % WORD))
+                != 0L;
+        }
+        return found;
+    }
+
+    /**
+     * FNV-1a hash of the item.
+     *
+     * @param item Item.
+     * @return Hash.
+     */
+    private static long hash(final String item) {
+        long hash = FNV_OFFSET;
+        for (final byte octet : item.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= octet;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Derive the second hash from the first one with the SplitMix64
+     * finalizer. The result is never zero, so the probes do not collapse
+     * into one bit.
+     *
+     * @param hash First hash.
+     * @return Second hash.
+     */
+    private static long mix(final long hash) {
+        long mixed = (hash ^ hash >>> SHIFT_FIRST) * MIX_FIRST;
+        mixed = (mixed ^ mixed >>> SHIFT_SECOND) * MIX_SECOND;
+        return (mixed ^ mixed >>> SHIFT_LAST) | 1L;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Map with a bounded number of keys.
+ * <p>
+ * The keys are spread over lock stripes, so the threads that work with
+ * different keys rarely wait for each other. Every stripe keeps its keys in
+ * the order of their last use and, once it is full, evicts the least
+ * recently used key: a flood of new keys pushes out only the keys that have
+ * been idle for the longest time, which are the first to expire anyway,
+ * and never resets the others.
+ *
+ * @param <V> Value type.
+ * @since 0.3
+ */
+public final class BoundedMap<V> {
+
+    /**
+     * Stripes.
+     */
+    private final List<Stripe<V>> stripes;
+
+    /**
+     * Maximal number of the keys of a stripe.
+     */
+    private final int capacity;
+
+    /**
+     * Ctor.
+     *
+     * @param count Number of the lock stripes.
+     * @param keys  Maximal number of the keys.
+     */
+    public BoundedMap(final int count, final int keys) {
+        this.capacity = Math.max(1, keys / count);
+        this.stripes = new ArrayList<>(count);
+        for (int idx = 0; idx < count; ++idx) {
+            this.stripes.add(new Stripe<>(this.capacity));
+        }
+    }
+
+    /**
+     * Work with the stripe of the key while holding its lock. The keys
+     * that the action reads or writes become the most recently used ones.
+     *
+     * @param key    Key.
+     * @param action Action on the stripe.
+     * @param <R>    Result type.
+     * @return Result of the action.
+     */
+    public <R> R apply(
+        final String key, final Function<Map<String, V>, R> action
+    ) {
+        final var stripe = this.stripes.get(
+            Math.floorMod(key.hashCode(), this.stripes.size())
+        );
+        synchronized (stripe) {
+            return action.apply(stripe);
+        }
+    }
+
+    /**
+     * Maximal number of the keys of a stripe. An action that does not want
+     * the least recently used key to be evicted may make room on its own
+     * before the stripe grows over it.
+     *
+     * @return Capacity.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Number of the keys.
+     *
+     * @return Size.
+     */
+    public int size() {
+        int size = 0;
+        for (final var stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Stripe: keys in the access order that evicts the eldest one when it
+     * is full.
+     *
+     * @param <V> Value type.
+     * @since 0.3
+     */
+    private static final class Stripe<V> extends LinkedHashMap<String, V> {
+
+        /**
+         * Serial version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Load factor.
+         */
+        private static final float LOAD = 0.75f;
+
+        /**
+         * Maximal number of the keys.
+         */
+        private final int capacity;
+
+        /**
+         * Ctor.
+         *
+         * @param keys Maximal number of the keys.
+         */
+        Stripe(final int keys) {
+            super(2, LOAD, true);
+            this.capacity = keys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+            return this.size() > this.capacity;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+
+/**
+ * Sliding-window counters of the failed attempts by key.
+ * <p>
+ * An attempt is counted as a failure before it is made and is forgiven if
+ * it succeeds, so the check of the limit and the count are one atomic step
+ * and parallel attempts can not pass the limit together. A key keeps at most
+ * as many timestamps as the limit, and the number of the keys is bounded by
+ * a {@link BoundedMap}: a flood of new keys evicts the idle ones instead of
+ * exhausting the memory or resetting the others.
+ *
+ * @since 0.3
+ */
+public final class FailureCounters {
+
+    /**
+     * Number of the lock stripes.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Timestamps of the failures by key, oldest first.
+     */
+    private final BoundedMap<ArrayDeque<Long>> failures;
+
+    /**
+     * Number of the failures within the window that blocks the key.
+     */
+    private final int limit;
+
+    /**
+     * Window in ms.
+     */
+    private final long window;
+
+    /**
+     * Ctor.
+     *
+     * @param max    Number of the failures within the window that blocks the
+     *               key.
+     * @param period Window.
+     * @param keys   Maximal number of the tracked keys.
+     */
+    public FailureCounters(
+        final int max, final Duration period, final int keys
+    ) {
+        this.limit = max;
+        this.window = period.toMillis();
+        this.failures = new BoundedMap<>(STRIPES, keys);
+    }
+
+    /**
+     * Count an attempt of the key as a failure unless the key is blocked.
+     * The attempt that succeeds must be given back with
+     * {@link #release(String, long)}.
+     *
+     * @param key Key.
+     * @param now Current time in ms.
+     * @return Zero if the attempt is allowed, otherwise how long the key
+     *  stays blocked.
+     */
+    public Duration acquire(final String key, final long now) {
+        return this.failures.apply(
+            key,
+            all -> {
+                final var recent = all.computeIfAbsent(
+                    key, ignored -> new ArrayDeque<>(this.limit)
+                );
+                this.expire(recent, now);
+                final Duration blocked;
+                if (recent.size() >= this.limit) {
+                    blocked = Duration.ofMillis(
+                        recent.peekFirst() + this.window - now
+                    );
+                } else {
+                    recent.addLast(now);
+                    blocked = Duration.ZERO;
+                }
+                return blocked;
+            }
+        );
+    }
+
+    /**
+     * Forgive the attempt that did not fail.
+     *
+     * @param key Key.
+     * @param now Time of the attempt in ms, as it was acquired.
+     */
+    public void release(final String key, final long now) {
+        this.failures.apply(
+            key,
+            all -> {
+                final var recent = all.get(key);
+                if (recent != null) {
+                    recent.removeLastOccurrence(now);
+                    if (recent.isEmpty()) {
+                        all.remove(key);
+                    }
+                }
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Forget the failures of the key.
+     *
+     * @param key Key.
+     */
+    public void reset(final String key) {
+        this.failures.apply(key, all -> all.remove(key));
+    }
+
+    /**
+     * Drop the failures that are out of the window.
+     *
+     * @param recent Timestamps of the failures, oldest first.
+     * @param now    Current time in ms.
+     */
+    private void expire(final ArrayDeque<Long> recent, final long now) {
+        while (!recent.isEmpty()
+            && recent.peekFirst() <= now - this.window) {
+            recent.pollFirst();
+        }
+    }
+}
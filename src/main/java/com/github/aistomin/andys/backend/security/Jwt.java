@@ -15,10 +15,11 @@
  */
 package com.github.aistomin.andys.backend.security;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
@@ -27,8 +28,10 @@ import java.io.Serializable;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT utils.
@@ -42,83 +45,116 @@ public final class Jwt implements Serializable {
     private static final long serialVersionUID = -2550185165626007488L;
 
     /**
-     * JWT token validness period in ms.
+     * Secret key, derived once from the configured secret.
      */
-    public static final long JWT_TOKEN_VALIDITY = 5 * 60 * 60 * 1000;
+    private final transient SecretKey key;
 
     /**
-     * JWT secret.
+     * Parser that verifies the tokens. It is immutable and thread-safe.
      */
-    @Value("${jwt.secret}")
-    private String secret;
+    private final transient JwtParser parser;
 
     /**
-     * Retrieve username from jwt token.
-     *
-     * @param token JWT token.
-     * @return Username.
+     * Verified tokens.
      */
-    public String getUsernameFromToken(final String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
+    private final transient VerifiedTokens tokens;
 
     /**
-     * Retrieve expiration date from jwt token.
-     *
-     * @param token JWT token.
-     * @return Date.
+     * Validity of the issued tokens in ms.
      */
-    public Date getExpirationDateFromToken(final String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
+    private final long validity;
 
     /**
-     * Get claim from token.
+     * Ctor.
      *
-     * @param token    JWT token.
-     * @param resolver Claims resolver.
-     * @param <T>      Claim type.
-     * @return Claim.
+     * @param secret Base64-encoded JWT secret.
+     * @param size   Maximal number of the cached verified tokens.
+     * @param ttl    Validity of the issued tokens in seconds.
      */
-    public <T> T getClaimFromToken(
-        final String token, final Function<Claims, T> resolver
+    public Jwt(
+        @Value("${jwt.secret}") final String secret,
+        @Value("${jwt.cache-size}") final int size,
+        @Value("${jwt.validity}") final long ttl
     ) {
-        return resolver.apply(getAllClaimsFromToken(token));
+        this.validity = TimeUnit.SECONDS.toMillis(ttl);
+        this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        this.parser = Jwts.parser().verifyWith(this.key).build();
+        this.tokens = new VerifiedTokens(size, System::currentTimeMillis);
     }
 
     /**
-     * For retrieving any information from token we will need the secret key.
+     * Verify the token and read its claims. The signature and the JSON of
+     * a token are checked only on its first use; later uses are served from
+     * the cache until the token expires.
      *
      * @param token JWT token.
      * @return Claims.
+     * @throws io.jsonwebtoken.JwtException If the token is invalid or expired.
      */
-    private Claims getAllClaimsFromToken(final String token) {
-        return Jwts.parser()
-            .verifyWith(this.key())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+    public JwtClaims verify(final String token) {
+        return this.tokens.get(
+            token,
+            raw -> new JwtClaims(
+                this.parser.parseSignedClaims(raw).getPayload()
+            )
+        );
     }
 
     /**
-     * Check if the token has expired.
+     * Generate token for user. The token carries everything the request
+     * filter needs to authenticate the user without the database.
      *
-     * @param token JWT token.
-     * @return True - expired; False - still valid.
+     * @param details User details.
+     * @param epoch   Current epoch of the user or null if it is unknown.
+     * @return Token.
      */
-    private Boolean isTokenExpired(final String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public String generateToken(final UserDetails details, final Long epoch) {
+        return this.generateToken(
+            details.getUsername(),
+            details.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList(),
+            epoch
+        );
     }
 
     /**
      * Generate token for user.
      *
-     * @param details User details.
+     * @param username    Username.
+     * @param authorities Names of the authorities that were granted to the
+     *                    user.
+     * @param epoch       Current epoch of the user or null if it is unknown.
+     * @return Token.
+     */
+    public String generateToken(
+        final String username, final List<String> authorities, final Long epoch
+    ) {
+        return this.generateToken(
+            username, authorities, epoch, UUID.randomUUID().toString()
+        );
+    }
+
+    /**
+     * Generate token for user with the given ID.
+     *
+     * @param username    Username.
+     * @param authorities Names of the authorities that were granted to the
+     *                    user.
+     * @param epoch       Current epoch of the user or null if it is unknown.
+     * @param jti         Token ID.
      * @return Token.
      */
-    public String generateToken(final UserDetails details) {
-        return doGenerateToken(new HashMap<>(), details.getUsername());
+    public String generateToken(
+        final String username, final List<String> authorities,
+        final Long epoch, final String jti
+    ) {
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.AUTHORITIES, authorities);
+        if (epoch != null) {
+            claims.put(JwtClaims.EPOCH, epoch);
+        }
+        return doGenerateToken(claims, username, jti);
     }
 
     /**
@@ -130,40 +166,20 @@ public final class Jwt implements Serializable {
      *  compaction of the JWT to a URL-safe string
      * @param claims Claims.
      * @param subject Subject.
+     * @param jti Token ID.
      * @return Token.
      */
     private String doGenerateToken(
-        final Map<String, Object> claims, final String subject
+        final Map<String, Object> claims, final String subject,
+        final String jti
     ) {
         return Jwts.builder()
             .claims(claims)
+            .id(jti)
             .subject(subject)
             .issuedAt(new Date(System.currentTimeMillis()))
             .expiration(
-                new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY)
-            ).signWith(key()).compact();
-    }
-
-    /**
-     * Validate token.
-     *
-     * @param token   JWT token.
-     * @param details User details.
-     * @return True - token is valid; False - token is invalid.
-     */
-    public Boolean validateToken(
-        final String token, final UserDetails details
-    ) {
-        final String username = getUsernameFromToken(token);
-        return username.equals(details.getUsername()) && !isTokenExpired(token);
-    }
-
-    /**
-     * Secret key.
-     *
-     * @return Secret key.
-     */
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(this.secret));
+                new Date(System.currentTimeMillis() + this.validity)
+            ).signWith(this.key).compact();
     }
 }
@@ -15,16 +15,20 @@
  */
 package com.github.aistomin.andys.backend.security;
 
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import java.security.Principal;
 
 /**
  * JWT authentication controller.
@@ -36,9 +40,19 @@ import org.springframework.web.bind.annotation.RestController;
 public final class JwtAuthenticationController {
 
     /**
-     * Authentication manager.
+     * Prefix of the token in the Authorization header.
      */
-    private final AuthenticationManager authenticator;
+    private static final String BEARER = "Bearer ";
+
+    /**
+     * Password checks.
+     */
+    private final PasswordChecks checks;
+
+    /**
+     * Refresh tokens.
+     */
+    private final RefreshTokens tokens;
 
     /**
      * JWT utils.
@@ -46,55 +60,103 @@ public final class JwtAuthenticationController {
     private final Jwt jwt;
 
     /**
-     * User details service.
+     * Revoked tokens.
      */
-    private final UserDetailsService service;
+    private final Revocations revocations;
 
     /**
      * Ctor.
      *
-     * @param authenticationManager Authentication manager.
+     * @param passwords Password checks.
+     * @param refresh Refresh tokens.
      * @param utils JWT utils.
-     * @param userDetailsService User details service.
+     * @param revoked Revoked tokens.
      */
     public JwtAuthenticationController(
-        final AuthenticationManager authenticationManager,
+        final PasswordChecks passwords,
+        final RefreshTokens refresh,
         final Jwt utils,
-        final UserDetailsService userDetailsService
+        final Revocations revoked
     ) {
-        this.authenticator = authenticationManager;
+        this.checks = passwords;
+        this.tokens = refresh;
         this.jwt = utils;
-        this.service = userDetailsService;
+        this.revocations = revoked;
     }
 
     /**
      * Authenticate user.
      *
      * @param request Authentication request.
+     * @param http    HTTP request.
      * @return JWT response.
      */
     @RequestMapping(value = "/authenticate", method = RequestMethod.POST)
     public ResponseEntity<?> authenticate(
-        @RequestBody final JwtRequest request
+        @RequestBody final JwtRequest request,
+        final HttpServletRequest http
     ) {
-        authenticate(request.getUsername(), request.getPassword());
-        final UserDetails details = this.service
-            .loadUserByUsername(request.getUsername());
-        final String token = this.jwt.generateToken(details);
-        return ResponseEntity.ok(new JwtResponse(token));
+        final UserDetails details = this.checks.authenticate(
+            request.getUsername(), request.getPassword(), http.getRemoteAddr()
+        );
+        return ResponseEntity.ok(this.tokens.issue(details));
     }
 
     /**
-     * Authenticate user.
+     * Exchange the refresh token for the next pair of tokens without the
+     * password.
      *
-     * @param username Username.
-     * @param password Password.
+     * @param request Refresh request.
+     * @return JWT response.
      */
-    private void authenticate(
-        final String username, final String password
+    @RequestMapping(
+        value = "/authenticate/refresh", method = RequestMethod.POST
+    )
+    public ResponseEntity<JwtResponse> refresh(
+        @RequestBody final RefreshRequest request
     ) {
-        this.authenticator.authenticate(
-            new UsernamePasswordAuthenticationToken(username, password)
+        return ResponseEntity.ok(
+            this.tokens.refresh(request.getRefreshToken())
         );
     }
+
+    /**
+     * Revoke the token, so it is rejected by all the nodes from now on,
+     * together with the refresh token that was issued with it. A user can
+     * revoke only their own tokens.
+     *
+     * @param request       Revoke request or null to revoke the token of the
+     *                      request.
+     * @param authorization Authorization header.
+     * @param principal     Authenticated user.
+     * @return Empty response.
+     */
+    @RequestMapping(
+        value = "/authenticate/revoke", method = RequestMethod.POST
+    )
+    public ResponseEntity<Void> revoke(
+        @RequestBody(required = false) final RevokeRequest request,
+        @RequestHeader(HttpHeaders.AUTHORIZATION) final String authorization,
+        final Principal principal
+    ) {
+        final String token;
+        if (request == null || request.getToken() == null) {
+            token = authorization.substring(BEARER.length());
+        } else {
+            token = request.getToken();
+        }
+        final JwtClaims claims;
+        try {
+            claims = this.jwt.verify(token);
+        } catch (final JwtException error) {
+            throw new BadRequest("Invalid token.");
+        }
+        if (principal == null
+            || !principal.getName().equals(claims.getUsername())) {
+            throw new AccessDeniedException("Not the owner of the token.");
+        }
+        this.revocations.revoke(claims);
+        this.tokens.revoke(claims);
+        return ResponseEntity.noContent().build();
+    }
 }
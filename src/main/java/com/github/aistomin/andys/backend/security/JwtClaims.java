@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verified claims of a JWT token.
+ *
+ * @since 0.3
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class JwtClaims {
+
+    /**
+     * Claim with the names of the authorities.
+     */
+    public static final String AUTHORITIES = "authorities";
+
+    /**
+     * Claim with the epoch of the user.
+     */
+    public static final String EPOCH = "epoch";
+
+    /**
+     * Token ID, the jti claim, or null if the token has none.
+     */
+    private final String id;
+
+    /**
+     * Username.
+     */
+    private final String username;
+
+    /**
+     * The date when the token was issued.
+     */
+    private final Date issuedAt;
+
+    /**
+     * The date when the token expires.
+     */
+    private final Date expiration;
+
+    /**
+     * Names of the authorities that were granted to the user.
+     */
+    private final List<String> authorities;
+
+    /**
+     * Epoch of the user when the token was issued or null if the token has
+     * none.
+     */
+    private final Long epoch;
+
+    /**
+     * Ctor.
+     *
+     * @param claims Parsed claims.
+     */
+    public JwtClaims(final Claims claims) {
+        this(
+            claims.getId(),
+            claims.getSubject(),
+            claims.getIssuedAt(),
+            claims.getExpiration(),
+            JwtClaims.names(claims.get(AUTHORITIES, List.class)),
+            claims.get(EPOCH, Long.class)
+        );
+    }
+
+    /**
+     * Check whether the token has expired.
+     *
+     * @param now Current time in ms.
+     * @return True - expired; False - still valid.
+     */
+    public boolean expired(final long now) {
+        return this.expiration.getTime() <= now;
+    }
+
+    /**
+     * Names of the authorities from the claim.
+     *
+     * @param claim Claim value or null.
+     * @return Names.
+     */
+    private static List<String> names(final List<?> claim) {
+        final List<String> names;
+        if (claim == null) {
+            names = List.of();
+        } else {
+            names = claim.stream().map(String::valueOf).toList();
+        }
+        return names;
+    }
+}
@@ -15,12 +15,16 @@
  */
 package com.github.aistomin.andys.backend.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -46,18 +50,46 @@ public final class JwtRequestFilter extends OncePerRequestFilter {
      */
     private final Jwt jwt;
 
+    /**
+     * User epochs.
+     */
+    private final UserEpochs epochs;
+
+    /**
+     * Revoked tokens.
+     */
+    private final Revocations revocations;
+
+    /**
+     * Whether we authenticate the requests from the token claims alone.
+     * Otherwise we load the user from the database on every request, which
+     * is still needed when several nodes share the users: the epochs of one
+     * node do not see the changes made on the others.
+     */
+    private final boolean stateless;
+
     /**
      * Ctor.
      *
      * @param userDetails User details service.
      * @param utils JWT utils.
+     * @param table User epochs.
+     * @param revoked Revoked tokens.
+     * @param claimsOnly Whether we authenticate the requests from the token
+     *  claims alone.
      */
     public JwtRequestFilter(
         final UserDetailsService userDetails,
-        final Jwt utils
+        final Jwt utils,
+        final UserEpochs table,
+        final Revocations revoked,
+        @Value("${jwt.stateless}") final boolean claimsOnly
     ) {
         this.service = userDetails;
         this.jwt = utils;
+        this.epochs = table;
+        this.revocations = revoked;
+        this.stateless = claimsOnly;
     }
 
     @Override
@@ -69,26 +101,62 @@ public final class JwtRequestFilter extends OncePerRequestFilter {
         final var authorization = request.getHeader("Authorization");
         final var bearer = "Bearer ";
         if (authorization != null && authorization.startsWith(bearer)) {
-            final var jwtToken = authorization.substring(bearer.length());
-            final var username = this.jwt.getUsernameFromToken(jwtToken);
             final var auth = SecurityContextHolder
                 .getContext()
                 .getAuthentication();
             if (auth == null) {
-                UserDetails userDetails = this.service
-                    .loadUserByUsername(username);
-                if (this.jwt.validateToken(jwtToken, userDetails)) {
-                    final var token = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                    );
-                    token.setDetails(new WebAuthenticationDetailsSource()
-                        .buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(token);
-                }
+                this.authenticate(
+                    request, authorization.substring(bearer.length())
+                );
             }
         } else {
             this.logger.debug("JWT Token does not begin with Bearer String");
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Authenticate the request with the token. An invalid or expired token
+     * leaves the request anonymous.
+     *
+     * @param request  HTTP request.
+     * @param jwtToken JWT token.
+     */
+    private void authenticate(
+        final HttpServletRequest request, final String jwtToken
+    ) {
+        final JwtClaims claims;
+        try {
+            claims = this.jwt.verify(jwtToken);
+        } catch (final JwtException error) {
+            this.logger.debug("Invalid JWT Token", error);
+            return;
+        }
+        if (this.revocations.revoked(claims)) {
+            this.logger.debug("JWT Token is revoked");
+            return;
+        }
+        final UserDetails userDetails;
+        if (this.stateless) {
+            if (!this.epochs.valid(claims)) {
+                this.logger.debug("JWT Token belongs to a stale epoch");
+                return;
+            }
+            userDetails = new User(
+                claims.getUsername(),
+                "",
+                claims.getAuthorities().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList()
+            );
+        } else {
+            userDetails = this.service.loadUserByUsername(claims.getUsername());
+        }
+        final var token = new UsernamePasswordAuthenticationToken(
+            userDetails, null, userDetails.getAuthorities()
+        );
+        token.setDetails(new WebAuthenticationDetailsSource()
+            .buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(token);
+    }
 }
@@ -41,4 +41,9 @@ public final class JwtResponse implements Serializable {
      * JWT token.
      */
     private String token;
+
+    /**
+     * Refresh token that gets the next pair of tokens.
+     */
+    private String refreshToken;
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.ServiceUnavailable;
+import com.github.aistomin.andys.backend.controllers.exceptions.TooManyRequests;
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.metrics.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks on a dedicated bounded pool.
+ * <p>
+ * BCrypt is slow on purpose, so a burst of logins must not take the servlet
+ * threads and all the cores from the rest of the API. The checks run on a
+ * fixed number of threads behind a bounded queue: when the queue is full
+ * the login is rejected with 503 right away. The usernames and the client
+ * addresses with too many recent failures are rejected with 429 before any
+ * hashing is done; every login counts as a failure until it succeeds, so
+ * parallel wrong guesses can not pass the limit together.
+ *
+ * @since 0.3
+ */
+@Component
+public final class PasswordChecks implements DisposableBean {
+
+    /**
+     * When the client may retry if the queue is full.
+     */
+    private static final Duration BUSY = Duration.ofSeconds(1);
+
+    /**
+     * Pool that checks the passwords.
+     */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Authentication manager.
+     */
+    private final AuthenticationManager manager;
+
+    /**
+     * Recent failures by username.
+     */
+    private final FailureCounters users;
+
+    /**
+     * Recent failures by client address.
+     */
+    private final FailureCounters addresses;
+
+    /**
+     * Time that the checks wait in the queue.
+     */
+    private final Timer waits;
+
+    /**
+     * Time that the checks take.
+     */
+    private final Timer checks;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param authenticator  Authentication manager.
+     * @param registry       Metrics.
+     * @param threads        Number of the threads that check the passwords.
+     * @param queue          Maximal number of the waiting checks.
+     * @param userFailures   Number of the recent failures that blocks the
+     *                       username.
+     * @param clientFailures Number of the recent failures that blocks the
+     *                       client address.
+     * @param window         Window of the recent failures in seconds.
+     * @param keys           Maximal number of the tracked usernames and
+     *                       addresses.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public PasswordChecks(
+        final AuthenticationManager authenticator,
+        final Metrics registry,
+        @Value("${authentication.threads}") final int threads,
+        @Value("${authentication.queue}") final int queue,
+        @Value("${authentication.user-failures}") final int userFailures,
+        @Value("${authentication.client-failures}") final int clientFailures,
+        @Value("${authentication.failure-window}") final long window,
+        @Value("${authentication.tracked-keys}") final int keys
+    ) {
+        this.manager = authenticator;
+        this.metrics = registry;
+        this.pool = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queue),
+            PasswordChecks.threads(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        final var period = Duration.ofSeconds(window);
+        this.users = new FailureCounters(userFailures, period, keys);
+        this.addresses = new FailureCounters(clientFailures, period, keys);
+        this.waits = registry.timer("authentication.queue-wait");
+        this.checks = registry.timer("authentication.check");
+        registry.gauge(
+            "authentication.queue", () -> this.pool.getQueue().size()
+        );
+    }
+
+    /**
+     * Check the password of the user.
+     *
+     * @param username Username.
+     * @param password Password.
+     * @param address  Client address.
+     * @return Details of the authenticated user.
+     * @throws AuthenticationException If the credentials are wrong.
+     */
+    public UserDetails authenticate(
+        final String username, final String password, final String address
+    ) {
+        final var user = String.format("user:%s", username);
+        final var client = String.format("client:%s", address);
+        final long now = System.currentTimeMillis();
+        var blocked = this.users.acquire(user, now);
+        if (blocked.isZero()) {
+            blocked = this.addresses.acquire(client, now);
+            if (!blocked.isZero()) {
+                this.users.release(user, now);
+            }
+        }
+        if (!blocked.isZero()) {
+            this.metrics.counter("authentication.throttled").increment();
+            throw new TooManyRequests("Too many failed logins.", blocked);
+        }
+        try {
+            final var details = this.check(username, password);
+            this.users.reset(user);
+            this.addresses.release(client, now);
+            return details;
+        } catch (final AuthenticationException error) {
+            throw error;
+        } catch (final RuntimeException error) {
+            this.users.release(user, now);
+            this.addresses.release(client, now);
+            throw error;
+        }
+    }
+
+    /**
+     * Check the password on the pool.
+     *
+     * @param username Username.
+     * @param password Password.
+     * @return Details of the authenticated user.
+     * @throws AuthenticationException If the credentials are wrong.
+     */
+    private UserDetails check(final String username, final String password) {
+        final long submitted = System.nanoTime();
+        final Future<Authentication> check;
+        try {
+            check = this.pool.submit(
+                () -> {
+                    final long started = System.nanoTime();
+                    this.waits.record(started - submitted);
+                    try {
+                        return this.manager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                username, password
+                            )
+                        );
+                    } finally {
+                        this.checks.record(System.nanoTime() - started);
+                    }
+                }
+            );
+        } catch (final RejectedExecutionException error) {
+            this.metrics.counter("authentication.rejected").increment();
+            throw new ServiceUnavailable("Too many logins in progress.", BUSY);
+        }
+        try {
+            return (UserDetails) check.get().getPrincipal();
+        } catch (final ExecutionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(error.getCause());
+        } catch (final InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailable("Login was interrupted.", BUSY);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.pool.shutdownNow();
+    }
+
+    /**
+     * Factory of the daemon threads that check the passwords.
+     *
+     * @return Thread factory.
+     */
+    private static ThreadFactory threads() {
+        final var factory = new CustomizableThreadFactory("password-check-");
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    /**
+     * The longer of the durations.
+     *
+     * @param first  Duration.
+     * @param second Duration.
+     * @return The longer one.
+     */
+    private static Duration max(final Duration first, final Duration second) {
+        final Duration max;
+        if (first.compareTo(second) >= 0) {
+            max = first;
+        } else {
+            max = second;
+        }
+        return max;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.TooManyRequests;
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rate limits of the endpoints that anyone can call and that write to the
+ * database.
+ * <p>
+ * Every endpoint limits the requests per client address and per subject
+ * (the submitted email or username) with the token buckets. A request over
+ * a limit is rejected with 429 before any database work. The limits are
+ * configured under {@code rate-limits.<endpoint>} and are reported as
+ * metrics together with the number of the rejected requests.
+ *
+ * @since 0.3
+ */
+@Component
+public final class RateLimits {
+
+    /**
+     * "Contact Us" endpoint.
+     */
+    public static final String CONTACT = "contact";
+
+    /**
+     * User registration endpoint.
+     */
+    public static final String REGISTER = "register";
+
+    /**
+     * Limits by endpoint.
+     */
+    private final Map<String, Limit> limits;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param env      Environment with the limits.
+     * @param registry Metrics.
+     */
+    public RateLimits(final Environment env, final Metrics registry) {
+        this.metrics = registry;
+        final int keys = env.getRequiredProperty(
+            "rate-limits.tracked-keys", Integer.class
+        );
+        this.limits = Stream.of(CONTACT, REGISTER).collect(
+            Collectors.toUnmodifiableMap(
+                Function.identity(),
+                endpoint -> new Limit(env, registry, endpoint, keys)
+            )
+        );
+    }
+
+    /**
+     * Take a token for the request to the endpoint.
+     *
+     * @param endpoint Endpoint.
+     * @param client   Client address.
+     * @param subject  Submitted email or username, or null.
+     * @throws TooManyRequests If the client or the subject is over the limit.
+     */
+    public void acquire(
+        final String endpoint, final String client, final String subject
+    ) {
+        final var limit = this.limits.get(endpoint);
+        final long now = System.nanoTime();
+        var wait = limit.getClients().acquire(client, now);
+        if (wait.isZero() && subject != null) {
+            wait = limit.getSubjects().acquire(
+                subject.trim().toLowerCase(Locale.ROOT), now
+            );
+        }
+        if (!wait.isZero()) {
+            this.metrics.counter(
+                String.format("rate-limits.%s.rejected", endpoint)
+            ).increment();
+            throw new TooManyRequests("Too many requests.", wait);
+        }
+    }
+
+    /**
+     * Limits of an endpoint.
+     *
+     * @since 0.3
+     */
+    private static final class Limit {
+
+        /**
+         * Buckets by client address.
+         */
+        private final TokenBuckets clients;
+
+        /**
+         * Buckets by subject.
+         */
+        private final TokenBuckets subjects;
+
+        /**
+         * Ctor.
+         *
+         * @param env      Environment with the limits.
+         * @param registry Metrics.
+         * @param endpoint Endpoint.
+         * @param keys     Maximal number of the tracked keys.
+         */
+        Limit(
+            final Environment env,
+            final Metrics registry,
+            final String endpoint,
+            final int keys
+        ) {
+            final var prefix = String.format("rate-limits.%s", endpoint);
+            final int client = env.getRequiredProperty(
+                String.format("%s.client", prefix), Integer.class
+            );
+            final int subject = env.getRequiredProperty(
+                String.format("%s.subject", prefix), Integer.class
+            );
+            final long period = env.getRequiredProperty(
+                String.format("%s.period", prefix), Long.class
+            );
+            final var window = Duration.ofSeconds(period);
+            this.clients = new TokenBuckets(client, window, keys);
+            this.subjects = new TokenBuckets(subject, window, keys);
+            registry.gauge(String.format("%s.client", prefix), () -> client);
+            registry.gauge(String.format("%s.subject", prefix), () -> subject);
+            registry.gauge(String.format("%s.period", prefix), () -> period);
+            registry.gauge(
+                String.format("%s.tracked", prefix),
+                () -> this.clients.size() + this.subjects.size()
+            );
+        }
+
+        /**
+         * Buckets by client address.
+         *
+         * @return Buckets.
+         */
+        TokenBuckets getClients() {
+            return this.clients;
+        }
+
+        /**
+         * Buckets by subject.
+         *
+         * @return Buckets.
+         */
+        TokenBuckets getSubjects() {
+            return this.subjects;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Request for a new pair of tokens.
+ *
+ * @since 0.3
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public final class RefreshRequest implements Serializable {
+
+    /**
+     * Serialization-related field.
+     */
+    @Serial
+    private static final long serialVersionUID = 2754104960471815470L;
+
+    /**
+     * Refresh token.
+     */
+    private String refreshToken;
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.model.RefreshToken;
+import com.github.aistomin.andys.backend.model.RefreshTokenRepository;
+import com.github.aistomin.andys.backend.utils.Sha256;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rotating refresh tokens.
+ * <p>
+ * A login issues a short-lived access token together with a refresh token.
+ * The refresh token can be exchanged once for the next pair, so a long
+ * session never posts the password again and does no BCrypt work after the
+ * first login. The tokens are random; only their digests are stored. The
+ * database is the only authority on whether a token is still live: an
+ * exchange redeems the token with a conditional delete and succeeds only
+ * if that very statement removed the row, so a token can not be exchanged
+ * twice, neither on two nodes nor after it has expired. The recently
+ * issued tokens are cached to spare the lookup by digest. Every refresh
+ * token remembers the access token it was issued with, so revoking that
+ * access token ends the whole session.
+ *
+ * @since 0.3
+ */
+@Component
+public final class RefreshTokens {
+
+    /**
+     * Number of the random bytes in a token.
+     */
+    private static final int BYTES = 32;
+
+    /**
+     * Number of the lock stripes of the cache.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Minimal period between the deletions of the expired tokens in ms.
+     */
+    private static final long PURGE = TimeUnit.HOURS.toMillis(1L);
+
+    /**
+     * Source of the tokens.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Recently issued tokens by digest.
+     */
+    private final BoundedMap<RefreshToken> cache;
+
+    /**
+     * Time of the next deletion of the expired tokens in ms.
+     */
+    private final AtomicLong purge = new AtomicLong();
+
+    /**
+     * Refresh token repository.
+     */
+    private final RefreshTokenRepository repo;
+
+    /**
+     * Transactions.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * JWT utils.
+     */
+    private final Jwt jwt;
+
+    /**
+     * User epochs.
+     */
+    private final UserEpochs epochs;
+
+    /**
+     * Validity of the refresh tokens in ms.
+     */
+    private final long validity;
+
+    /**
+     * Ctor.
+     *
+     * @param repository Refresh token repository.
+     * @param manager    Transaction manager.
+     * @param utils      JWT utils.
+     * @param table      User epochs.
+     * @param ttl        Validity of the refresh tokens in seconds.
+     * @param size       Maximal number of the cached tokens.
+     */
+    public RefreshTokens(
+        final RefreshTokenRepository repository,
+        final PlatformTransactionManager manager,
+        final Jwt utils,
+        final UserEpochs table,
+        @Value("${jwt.refresh-validity}") final long ttl,
+        @Value("${jwt.cache-size}") final int size
+    ) {
+        this.repo = repository;
+        this.transactions = new TransactionTemplate(manager);
+        this.jwt = utils;
+        this.epochs = table;
+        this.validity = TimeUnit.SECONDS.toMillis(ttl);
+        this.cache = new BoundedMap<>(STRIPES, size);
+    }
+
+    /**
+     * Issue the tokens to the user who has just logged in.
+     *
+     * @param details User details.
+     * @return Access and refresh tokens.
+     */
+    public JwtResponse issue(final UserDetails details) {
+        final var epoch = this.epochs.current(details.getUsername());
+        if (epoch == null) {
+            throw new BadCredentialsException("Unknown user");
+        }
+        return this.issue(
+            details.getUsername(),
+            details.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList(),
+            epoch
+        );
+    }
+
+    /**
+     * Exchange the refresh token for the next pair of tokens. The refresh
+     * token can be exchanged only once.
+     *
+     * @param token Refresh token.
+     * @return Access and refresh tokens.
+     * @throws BadCredentialsException If the token is unknown, used,
+     *  expired or belongs to a stale epoch of its user.
+     */
+    public JwtResponse refresh(final String token) {
+        if (token == null) {
+            throw new BadCredentialsException("Unknown refresh token");
+        }
+        final var digest = Sha256.base64(token);
+        RefreshToken found = this.cache.apply(
+            digest, tokens -> tokens.remove(digest)
+        );
+        if (found == null) {
+            found = this.repo.findByDigest(digest).orElseThrow(
+                () -> new BadCredentialsException("Unknown refresh token")
+            );
+        }
+        final Long id = found.getId();
+        final Integer redeemed = this.transactions.execute(
+            status -> this.repo.redeem(id, new Date())
+        );
+        if (redeemed == null || redeemed != 1
+            || !found.getEpoch().equals(
+                this.epochs.current(found.getUsername())
+            )) {
+            throw new BadCredentialsException("Expired refresh token");
+        }
+        return this.issue(
+            found.getUsername(),
+            Arrays.stream(found.getAuthorities().split(","))
+                .filter(name -> !name.isEmpty())
+                .toList(),
+            found.getEpoch()
+        );
+    }
+
+    /**
+     * Delete the refresh token that was issued together with the access
+     * token, so the session can not be continued without the password.
+     *
+     * @param claims Verified claims of the access token.
+     */
+    public void revoke(final JwtClaims claims) {
+        if (claims.getId() != null) {
+            this.transactions.executeWithoutResult(
+                status -> this.repo.deleteByJti(
+                    claims.getId(), claims.getUsername()
+                )
+            );
+        }
+    }
+
+    /**
+     * Issue the tokens.
+     *
+     * @param username    Username.
+     * @param authorities Names of the authorities that were granted to the
+     *                    user.
+     * @param epoch       Current epoch of the user.
+     * @return Access and refresh tokens.
+     */
+    private JwtResponse issue(
+        final String username, final List<String> authorities, final Long epoch
+    ) {
+        this.purge();
+        final var bytes = new byte[BYTES];
+        this.random.nextBytes(bytes);
+        final var token = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(bytes);
+        final var jti = UUID.randomUUID().toString();
+        final var saved = this.repo.save(
+            new RefreshToken(
+                null,
+                Sha256.base64(token),
+                username,
+                String.join(",", authorities),
+                epoch,
+                new Date(System.currentTimeMillis() + this.validity),
+                jti
+            )
+        );
+        this.cache.apply(
+            saved.getDigest(), tokens -> tokens.put(saved.getDigest(), saved)
+        );
+        return new JwtResponse(
+            this.jwt.generateToken(username, authorities, epoch, jti), token
+        );
+    }
+
+    /**
+     * Delete the expired tokens from the database, at most once per
+     * {@link #PURGE} on all the threads. The cache needs no purge: an
+     * expired token there fails to be redeemed and the cache evicts the
+     * least recently used tokens anyway.
+     */
+    private void purge() {
+        final long now = System.currentTimeMillis();
+        final long next = this.purge.get();
+        if (now >= next && this.purge.compareAndSet(next, now + PURGE)) {
+            this.transactions.executeWithoutResult(
+                status -> this.repo.deleteExpired(new Date(now))
+            );
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.model.RevokedToken;
+import com.github.aistomin.andys.backend.model.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked tokens.
+ * <p>
+ * The revoked jti values are stored in the database. Every node keeps a
+ * Bloom filter of them, so a token that was never revoked is let through
+ * after a few bit reads and only a possible hit costs a database lookup.
+ * A revocation on this node is added to the filter at once; the filter is
+ * rebuilt from the database periodically, which picks up the revocations
+ * of the other nodes and forgets the expired ones.
+ *
+ * @since 0.3
+ */
+@Component
+public final class Revocations implements DisposableBean {
+
+    /**
+     * Minimal expected number of the revoked tokens of a filter.
+     */
+    private static final int MIN_EXPECTED = 1024;
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Current filter.
+     */
+    private final AtomicReference<BloomFilter> filter;
+
+    /**
+     * Lock that orders the rebuilds and the local revocations, so a
+     * revocation that a rebuild did not read is added to the new filter.
+     */
+    private final Lock updates = new ReentrantLock();
+
+    /**
+     * Revoked token repository.
+     */
+    private final RevokedTokenRepository repo;
+
+    /**
+     * Thread that rebuilds the filter.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Period of the filter rebuilds in seconds.
+     */
+    private final long period;
+
+    /**
+     * Ctor.
+     *
+     * @param repository Revoked token repository.
+     * @param rebuilds   Period of the filter rebuilds in seconds.
+     */
+    public Revocations(
+        final RevokedTokenRepository repository,
+        @Value("${jwt.revocations-rebuild}") final long rebuilds
+    ) {
+        this.repo = repository;
+        this.filter = new AtomicReference<>(new BloomFilter(MIN_EXPECTED));
+        final var threads = new CustomizableThreadFactory("revocations-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        this.period = rebuilds;
+    }
+
+    /**
+     * Start rebuilding the filter once the application is ready, so the
+     * first rebuild does not race the schema creation and the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    this.rebuild();
+                } catch (final RuntimeException error) {
+                    this.logger.error("Can not rebuild the revocations", error);
+                }
+            },
+            0L, this.period, TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Revoke the token.
+     *
+     * @param claims Verified claims of the token.
+     */
+    public void revoke(final JwtClaims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        if (!this.repo.existsByJti(claims.getId())) {
+            this.repo.save(
+                new RevokedToken(null, claims.getId(), claims.getExpiration())
+            );
+        }
+        this.updates.lock();
+        try {
+            this.filter.get().put(claims.getId());
+        } finally {
+            this.updates.unlock();
+        }
+    }
+
+    /**
+     * Check whether the token is revoked.
+     *
+     * @param claims Verified claims of the token.
+     * @return True - revoked; False - not revoked.
+     */
+    public boolean revoked(final JwtClaims claims) {
+        final var jti = claims.getId();
+        return jti != null
+            && this.filter.get().mightContain(jti)
+            && this.repo.existsByJti(jti);
+    }
+
+    /**
+     * Rebuild the filter from the database and delete the revocations of
+     * the expired tokens.
+     */
+    public void rebuild() {
+        this.updates.lock();
+        try {
+            final long now = System.currentTimeMillis();
+            final var live = new ArrayList<String>();
+            final var expired = new ArrayList<Long>();
+            this.repo.findAll().forEach(
+                token -> {
+                    if (token.getExpiresOn().getTime() <= now) {
+                        expired.add(token.getId());
+                    } else {
+                        live.add(token.getJti());
+                    }
+                }
+            );
+            final var fresh = new BloomFilter(
+                Math.max(MIN_EXPECTED, 2 * live.size())
+            );
+            live.forEach(fresh::put);
+            this.filter.set(fresh);
+            this.repo.deleteAllByIdInBatch(expired);
+        } finally {
+            this.updates.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.scheduler.shutdownNow();
+    }
+}
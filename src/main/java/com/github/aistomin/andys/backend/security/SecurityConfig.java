@@ -132,16 +132,22 @@ public class SecurityConfig {
         http.csrf(AbstractHttpConfigurer::disable)
             .cors(configurer -> configurer.configure(http))
             .authorizeHttpRequests(registry ->
-                registry.requestMatchers("/authenticate")
+                registry.requestMatchers(
+                        "/authenticate", "/authenticate/refresh"
+                    )
                     .permitAll()
                     .requestMatchers("/contact/us")
                     .permitAll()
                     .requestMatchers(
                         HttpMethod.GET,
                         "/videos",
+                        "/videos/*",
                         "/music/sheets",
+                        "/music/sheets/stream",
                         "/blog/posts",
-                        "/lyrics"
+                        "/blog/posts/stream",
+                        "/lyrics",
+                        "/lyrics/stream"
                     )
                     .permitAll()
                     .anyRequest().authenticated())
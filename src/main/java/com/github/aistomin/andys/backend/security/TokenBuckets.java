@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Token buckets by key.
+ * <p>
+ * Every bucket is a single "theoretical arrival time" (the generic cell
+ * rate algorithm): it allows a burst of as many requests as the limit and
+ * then one request per period divided by the limit, exactly like a token
+ * bucket, but costs one number per key and no refill. The buckets live in
+ * a {@link BoundedMap}, and a new key takes the place of a bucket that has
+ * refilled completely, which is the same as no bucket at all. While every
+ * bucket of its stripe is still throttled, a new key is refused until one
+ * of them refills: a flood of new keys can neither evict a throttled key
+ * nor get tokens that nobody counts.
+ *
+ * @since 0.3
+ */
+public final class TokenBuckets {
+
+    /**
+     * Number of the lock stripes.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Theoretical arrival time by key in ns, as a one-element array that is
+     * updated under the lock of its stripe.
+     */
+    private final BoundedMap<long[]> buckets;
+
+    /**
+     * Time between two requests at the sustained rate in ns.
+     */
+    private final long interval;
+
+    /**
+     * How far ahead of the current time a bucket may be in ns.
+     */
+    private final long tolerance;
+
+    /**
+     * Ctor.
+     *
+     * @param requests Number of the requests per period.
+     * @param period   Period.
+     * @param keys     Maximal number of the tracked keys.
+     */
+    public TokenBuckets(
+        final int requests, final Duration period, final int keys
+    ) {
+        this.interval = period.toNanos() / requests;
+        this.tolerance = this.interval * (requests - 1);
+        this.buckets = new BoundedMap<>(STRIPES, keys);
+    }
+
+    /**
+     * Take a token from the bucket of the key.
+     *
+     * @param key Key.
+     * @param now Current time in ns, from {@link System#nanoTime()}.
+     * @return Zero if the token is taken, otherwise the time after which it
+     *  will be available.
+     */
+    public Duration acquire(final String key, final long now) {
+        return this.buckets.apply(
+            key,
+            stripe -> {
+                final var bucket = this.bucket(stripe, key, now);
+                if (bucket == null) {
+                    return TokenBuckets.refill(stripe, now);
+                }
+                final long start = Math.max(bucket[0] - now, 0L) + now;
+                final Duration wait;
+                if (start - now > this.tolerance) {
+                    wait = Duration.ofNanos(start - now - this.tolerance);
+                } else {
+                    bucket[0] = start + this.interval;
+                    wait = Duration.ZERO;
+                }
+                return wait;
+            }
+        );
+    }
+
+    /**
+     * Reserve the next token of the bucket of the key, even if it is not
+     * available yet. Every caller gets a token of its own, so the callers
+     * that have to wait are spread over the period at the sustained rate
+     * instead of all coming back at the same time.
+     *
+     * @param key Key.
+     * @param now Current time in ns, from {@link System#nanoTime()}.
+     * @return Zero if the token is available now, otherwise the time after
+     *  which the reserved token will be available; if the key is refused,
+     *  nothing is reserved and the time is when it may be tracked.
+     */
+    public Duration reserve(final String key, final long now) {
+        return this.buckets.apply(
+            key,
+            stripe -> {
+                final var bucket = this.bucket(stripe, key, now);
+                if (bucket == null) {
+                    return TokenBuckets.refill(stripe, now);
+                }
+                final long start = Math.max(bucket[0] - now, 0L) + now;
+                bucket[0] = start + this.interval;
+                return Duration.ofNanos(
+                    Math.max(start - now - this.tolerance, 0L)
+                );
+            }
+        );
+    }
+
+    /**
+     * Number of the tracked keys.
+     *
+     * @return Size.
+     */
+    public int size() {
+        return this.buckets.size();
+    }
+
+    /**
+     * Bucket of the key. A new key takes the place of the least recently
+     * used bucket that has refilled if the stripe is full. Must be called
+     * under the lock of the stripe.
+     *
+     * @param stripe Stripe of the key.
+     * @param key    Key.
+     * @param now    Current time in ns.
+     * @return Bucket or null if the key is refused.
+     */
+    private long[] bucket(
+        final Map<String, long[]> stripe, final String key, final long now
+    ) {
+        var bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= this.buckets.capacity()) {
+                final var eldest = stripe.values().iterator();
+                boolean evicted = false;
+                while (!evicted && eldest.hasNext()) {
+                    if (eldest.next()[0] - now <= 0L) {
+                        eldest.remove();
+                        evicted = true;
+                    }
+                }
+                if (!evicted) {
+                    return null;
+                }
+            }
+            bucket = new long[] {now};
+            stripe.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * Time after which the first bucket of the full stripe refills. Must
+     * be called under the lock of the stripe.
+     *
+     * @param stripe Stripe.
+     * @param now    Current time in ns.
+     * @return Time.
+     */
+    private static Duration refill(
+        final Map<String, long[]> stripe, final long now
+    ) {
+        return Duration.ofNanos(
+            stripe.values().stream()
+                .mapToLong(bucket -> bucket[0] - now)
+                .min()
+                .orElse(0L)
+        );
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.model.User;
+import com.github.aistomin.andys.backend.model.UserRepository;
+import com.github.aistomin.andys.backend.utils.Sha256;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the user epochs.
+ * <p>
+ * The epoch of a user is derived from the user's ID and password hash, so it
+ * changes when the password changes or the username is registered again.
+ * Every token carries the epoch of its user, and a token is accepted only
+ * while the epoch is still the current one. A deleted user has no epoch, so
+ * all the user's tokens are rejected at once.
+ * <p>
+ * An epoch that is not cached is looked up in the database and kept for a
+ * short time, and so is the absence of the user, so a burst of requests
+ * with the tokens of an unknown user costs one query. The user service
+ * updates the cache of its own node at once; the other nodes see the new
+ * epoch when their entry expires, so a token of a changed or deleted user
+ * is accepted by them for no longer than {@code jwt.epochs-ttl}.
+ *
+ * @since 0.3
+ */
+@Component
+public final class UserEpochs {
+
+    /**
+     * Number of the lock stripes of the cache.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Cached epochs by username.
+     */
+    private final BoundedMap<Epoch> epochs;
+
+    /**
+     * User repository.
+     */
+    private final UserRepository repo;
+
+    /**
+     * Time to keep an epoch in ns.
+     */
+    private final long ttl;
+
+    /**
+     * Ctor.
+     *
+     * @param repository User repository.
+     * @param expiry     Time to keep an epoch in seconds.
+     * @param size       Maximal number of the cached epochs.
+     */
+    public UserEpochs(
+        final UserRepository repository,
+        @Value("${jwt.epochs-ttl}") final long expiry,
+        @Value("${jwt.cache-size}") final int size
+    ) {
+        this.repo = repository;
+        this.ttl = TimeUnit.SECONDS.toNanos(expiry);
+        this.epochs = new BoundedMap<>(STRIPES, size);
+    }
+
+    /**
+     * Current epoch of the user.
+     *
+     * @param username Username.
+     * @return Epoch or null if there is no such user.
+     */
+    public Long current(final String username) {
+        final long now = System.nanoTime();
+        final var cached = this.epochs.apply(
+            username, stripe -> stripe.get(username)
+        );
+        if (cached != null && cached.expires() - now > 0L) {
+            return cached.value();
+        }
+        final var user = this.repo.findByUsername(username);
+        final Long epoch;
+        if (user == null) {
+            epoch = null;
+        } else {
+            epoch = UserEpochs.epoch(user);
+        }
+        this.put(username, epoch, now);
+        return epoch;
+    }
+
+    /**
+     * Check whether the token was issued in the current epoch of its user.
+     *
+     * @param claims Verified claims of the token.
+     * @return True - the token is valid; False - it is stale.
+     */
+    public boolean valid(final JwtClaims claims) {
+        final var epoch = this.current(claims.getUsername());
+        return epoch != null && epoch.equals(claims.getEpoch());
+    }
+
+    /**
+     * Start a new epoch of the user. Call it when the user is registered or
+     * the password is changed.
+     *
+     * @param user Saved user.
+     */
+    public void update(final User user) {
+        this.put(user.getUsername(), UserEpochs.epoch(user), System.nanoTime());
+    }
+
+    /**
+     * Forget the user, so none of the user's tokens is accepted anymore.
+     *
+     * @param user Deleted user.
+     */
+    public void remove(final User user) {
+        this.put(user.getUsername(), null, System.nanoTime());
+    }
+
+    /**
+     * Epoch of the user.
+     *
+     * @param user User.
+     * @return Epoch.
+     */
+    static long epoch(final User user) {
+        return ByteBuffer.wrap(
+            Sha256.digest(
+                String.format("%d:%s", user.getId(), user.getPassword())
+            )
+        ).getLong();
+    }
+
+    /**
+     * Cache the epoch of the user.
+     *
+     * @param username Username.
+     * @param epoch    Epoch or null if there is no such user.
+     * @param now      Current time in ns.
+     */
+    private void put(final String username, final Long epoch, final long now) {
+        final var entry = new Epoch(epoch, now + this.ttl);
+        this.epochs.apply(username, stripe -> stripe.put(username, entry));
+    }
+
+    /**
+     * Cached epoch.
+     *
+     * @param value   Epoch or null if there is no such user.
+     * @param expires Time when it expires in ns.
+     * @since 0.3
+     */
+    private record Epoch(Long value, long expires) {
+    }
+}
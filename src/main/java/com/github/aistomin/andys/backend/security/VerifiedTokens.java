@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.Sha256;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the verified tokens.
+ * <p>
+ * The tokens are keyed by their SHA-256 digest, so the cache never keeps
+ * the tokens themselves. An entry is valid until the token expires. When the
+ * cache is full the least recently used token is evicted, so a flood of new
+ * tokens never makes the live ones verified again all at once.
+ *
+ * @since 0.3
+ */
+public final class VerifiedTokens {
+
+    /**
+     * Number of the lock stripes.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Verified claims by token digest.
+     */
+    private final BoundedMap<JwtClaims> verified;
+
+    /**
+     * Clock in ms.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Ctor.
+     *
+     * @param size Maximal number of the cached tokens.
+     * @param time Clock in ms.
+     */
+    public VerifiedTokens(final int size, final LongSupplier time) {
+        this.verified = new BoundedMap<>(
+            Math.max(1, Math.min(STRIPES, size)), size
+        );
+        this.clock = time;
+    }
+
+    /**
+     * Claims of the token: cached ones or freshly verified. The token is
+     * verified outside of the lock.
+     *
+     * @param token  JWT token.
+     * @param verify Function that verifies the token. It throws if the token
+     *               is invalid or expired.
+     * @return Claims.
+     */
+    public JwtClaims get(
+        final String token, final Function<String, JwtClaims> verify
+    ) {
+        final var key = Sha256.base64(token);
+        final long now = this.clock.getAsLong();
+        final var cached = this.verified.apply(
+            key,
+            stripe -> {
+                final var found = stripe.get(key);
+                if (found != null && found.expired(now)) {
+                    stripe.remove(key);
+                    return null;
+                }
+                return found;
+            }
+        );
+        if (cached != null) {
+            return cached;
+        }
+        final var claims = verify.apply(token);
+        this.verified.apply(key, stripe -> stripe.put(key, claims));
+        return claims;
+    }
+
+    /**
+     * Number of the cached tokens.
+     *
+     * @return Size.
+     */
+    public int size() {
+        return this.verified.size();
+    }
+}
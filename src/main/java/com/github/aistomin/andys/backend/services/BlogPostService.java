@@ -17,6 +17,8 @@ package com.github.aistomin.andys.backend.services;
 
 import com.github.aistomin.andys.backend.controllers.blog.BlogPostDto;
 import com.github.aistomin.andys.backend.controllers.blog.BlogPosts;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import java.util.function.Consumer;
 
 /**
  * Blog post's service.
@@ -26,11 +28,21 @@ import com.github.aistomin.andys.backend.controllers.blog.BlogPosts;
 public interface BlogPostService {
 
     /**
-     * Load blog posts.
+     * Load blog posts page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Blog posts.
      */
-    BlogPosts load();
+    BlogPosts load(Cursor after, int limit);
+
+    /**
+     * Pass all the blog posts to the consumer one by one, newest first, without
+     * holding the whole catalogue in memory.
+     *
+     * @param consumer Consumer of the blog posts.
+     */
+    void stream(Consumer<BlogPostDto> consumer);
 
     /**
      * Save a blog post.
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services;
+
+import com.github.aistomin.andys.backend.controllers.campaign.CampaignDto;
+
+/**
+ * Newsletter campaign service.
+ *
+ * @since 0.3
+ */
+public interface CampaignService {
+
+    /**
+     * Start a campaign that sends the newsletter to everyone who allows us
+     * to send newsletters.
+     *
+     * @param subject Newsletter's subject.
+     * @param body    Newsletter's body.
+     * @return Started campaign.
+     */
+    CampaignDto start(String subject, String body);
+
+    /**
+     * Load the campaign.
+     *
+     * @param id Campaign ID.
+     * @return Campaign.
+     */
+    CampaignDto load(Long id);
+}
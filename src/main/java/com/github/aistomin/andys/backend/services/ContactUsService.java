@@ -15,6 +15,9 @@
  */
 package com.github.aistomin.andys.backend.services;
 
+import com.github.aistomin.andys.backend.controllers.contact.ContactRequest;
+import java.util.List;
+
 /**
  * "Contact Us" service.
  *
@@ -35,4 +38,12 @@ public interface ContactUsService {
         String email, String subject, String body,
         Boolean allowToSendNewsLetters
     );
+
+    /**
+     * Process a batch of the contact requests. The later request of the
+     * same person wins the newsletter consent.
+     *
+     * @param requests Contact requests.
+     */
+    void contactUs(List<ContactRequest> requests);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk export service.
+ *
+ * @since 0.3
+ */
+public interface ExportService {
+
+    /**
+     * Names of the exported columns of the entity.
+     *
+     * @param entity Exported entity, for example "videos".
+     * @return Column names.
+     */
+    List<String> columns(String entity);
+
+    /**
+     * Pass all the rows of the entity to the consumer, ordered by ID. The
+     * values of every row are in the order of {@link #columns(String)}.
+     *
+     * @param entity   Exported entity.
+     * @param consumer Consumer of the rows.
+     */
+    void export(String entity, Consumer<Object[]> consumer);
+}
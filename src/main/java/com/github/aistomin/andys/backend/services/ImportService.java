@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services;
+
+import com.github.aistomin.andys.backend.controllers.importer.ImportReport;
+import java.io.InputStream;
+
+/**
+ * Bulk import service.
+ *
+ * @since 0.3
+ */
+public interface ImportService {
+
+    /**
+     * Import the NDJSON stream. The lines are parsed one by one while the
+     * stream is read and written to the database in batches. A line that
+     * can not be imported does not stop the import.
+     *
+     * @param input NDJSON stream.
+     * @return Report.
+     */
+    ImportReport load(InputStream input);
+}
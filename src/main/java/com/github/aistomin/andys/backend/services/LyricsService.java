@@ -17,6 +17,8 @@ package com.github.aistomin.andys.backend.services;
 
 import com.github.aistomin.andys.backend.controllers.lyrics.LyricsCatalogue;
 import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import java.util.function.Consumer;
 
 /**
  * Lyrics' service.
@@ -26,11 +28,21 @@ import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
 public interface LyricsService {
 
     /**
-     * Load the lyrics catalogue.
+     * Load the lyrics catalogue page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Lyrics.
      */
-    LyricsCatalogue load();
+    LyricsCatalogue load(Cursor after, int limit);
+
+    /**
+     * Pass all the lyrics to the consumer one by one, newest first, without
+     * holding the whole catalogue in memory.
+     *
+     * @param consumer Consumer of the lyrics.
+     */
+    void stream(Consumer<LyricsDto> consumer);
 
     /**
      * Save lyrics.
@@ -17,6 +17,8 @@ package com.github.aistomin.andys.backend.services;
 
 import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheetDto;
 import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheets;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import java.util.function.Consumer;
 
 /**
  * Music sheets' service.
@@ -26,11 +28,21 @@ import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheets;
 public interface MusicSheetService {
 
     /**
-     * Load music sheets.
+     * Load music sheets page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Music sheets.
      */
-    MusicSheets load();
+    MusicSheets load(Cursor after, int limit);
+
+    /**
+     * Pass all the music sheets to the consumer one by one, newest first,
+     * without holding the whole catalogue in memory.
+     *
+     * @param consumer Consumer of the music sheets.
+     */
+    void stream(Consumer<MusicSheetDto> consumer);
 
     /**
      * Create a music sheet.
@@ -15,6 +15,7 @@
  */
 package com.github.aistomin.andys.backend.services;
 
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.controllers.user.RegistrationDto;
 import com.github.aistomin.andys.backend.controllers.user.UserDto;
 import com.github.aistomin.andys.backend.controllers.user.Users;
@@ -42,9 +43,19 @@ public interface UserService {
     void delete(Long id);
 
     /**
-     * Load all users.
+     * Load users page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Users
      */
-    Users loadAll();
+    Users loadAll(Cursor after, int limit);
+
+    /**
+     * Check whether the user exists.
+     *
+     * @param username Username.
+     * @return True - the user exists; False - otherwise.
+     */
+    boolean exists(String username);
 }
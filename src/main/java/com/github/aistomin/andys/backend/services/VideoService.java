@@ -15,8 +15,12 @@
  */
 package com.github.aistomin.andys.backend.services;
 
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.controllers.video.VideoDto;
 import com.github.aistomin.andys.backend.controllers.video.Videos;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Video's service.
@@ -26,11 +30,41 @@ import com.github.aistomin.andys.backend.controllers.video.Videos;
 public interface VideoService {
 
     /**
-     * Load videos.
+     * Load videos page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Videos.
      */
-    Videos load();
+    Videos load(Cursor after, int limit);
+
+    /**
+     * Load video summaries page by page, newest first. The nested
+     * collections are loaded only if they are requested.
+     *
+     * @param after  Cursor of the previous page or null for the first page.
+     * @param limit  Page size.
+     * @param sheets Whether the music sheets are needed.
+     * @param lyrics Whether the lyrics are needed.
+     * @return Videos without the descriptions and the URLs.
+     */
+    Videos summaries(Cursor after, int limit, boolean sheets, boolean lyrics);
+
+    /**
+     * Load the video with all its details.
+     *
+     * @param id Video ID.
+     * @return Video.
+     */
+    VideoDto load(Long id);
+
+    /**
+     * Pass all the videos to the consumer one by one, newest first, without
+     * holding the whole catalogue in memory.
+     *
+     * @param consumer Consumer of the videos.
+     */
+    void stream(Consumer<VideoDto> consumer);
 
     /**
      * Save a video.
@@ -40,6 +74,15 @@ public interface VideoService {
      */
     VideoDto save(VideoDto video);
 
+    /**
+     * Save the videos in one transaction. The inserts are sent to the
+     * database in JDBC batches.
+     *
+     * @param batch Videos that need to be saved.
+     * @return Saved videos.
+     */
+    List<VideoDto> saveAll(Collection<VideoDto> batch);
+
     /**
      * Delete video.
      *
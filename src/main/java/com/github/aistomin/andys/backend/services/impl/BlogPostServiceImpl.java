@@ -18,11 +18,23 @@ package com.github.aistomin.andys.backend.services.impl;
 import com.github.aistomin.andys.backend.controllers.blog.BlogPostDto;
 import com.github.aistomin.andys.backend.controllers.blog.BlogPosts;
 import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.model.BlogPost;
 import com.github.aistomin.andys.backend.model.BlogPostRepository;
 import com.github.aistomin.andys.backend.services.BlogPostService;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Blog posts service's implementation.
@@ -37,30 +49,124 @@ public final class BlogPostServiceImpl implements BlogPostService {
      */
     private final BlogPostRepository repo;
 
+    /**
+     * Catalogue snapshot.
+     */
+    private final Snapshot<BlogPostDto> cache;
+
+    /**
+     * Event publisher.
+     */
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Entity manager.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Read-only transactions.
+     */
+    private final TransactionTemplate reads;
+
     /**
      * Ctor.
      *
-     * @param repository Blog posts repository.
+     * @param repository   Blog posts repository.
+     * @param publisher    Event publisher.
+     * @param executor     Executor that builds the catalogue snapshots.
+     * @param manager      Entity manager.
+     * @param transactions Transaction manager.
      */
-    public BlogPostServiceImpl(final BlogPostRepository repository) {
+    public BlogPostServiceImpl(
+        final BlogPostRepository repository,
+        final ApplicationEventPublisher publisher,
+        final TaskExecutor executor,
+        final EntityManager manager,
+        final PlatformTransactionManager transactions
+    ) {
         this.repo = repository;
+        this.events = publisher;
+        this.entities = manager;
+        this.reads = new TransactionTemplate(transactions);
+        this.reads.setReadOnly(true);
+        this.cache = new Snapshot<>(
+            executor,
+            () -> Snapshot.all(this::query),
+            item -> new Cursor(item.getCreatedOn(), item.getId()),
+            BlogPost.class
+        );
+    }
+
+    @Override
+    public BlogPosts load(final Cursor after, final int limit) {
+        return this.cache.page(after, limit, BlogPosts::new);
     }
 
     @Override
-    public BlogPosts load() {
+    public void stream(final Consumer<BlogPostDto> consumer) {
+        this.reads.executeWithoutResult(
+            status -> {
+                try (var rows = this.repo.streamAll()) {
+                    rows.forEach(
+                        post -> {
+                            consumer.accept(new BlogPostDto(post));
+                            this.entities.detach(post);
+                        }
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Rebuild the catalogue snapshot if the catalogue was changed.
+     * Runs before the other listeners, so they already see the new build.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.cache.onChange(event);
+    }
+
+    /**
+     * Load a page from the database.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @return Page.
+     */
+    private BlogPosts query(final Cursor after, final int limit) {
+        final List<BlogPost> rows;
+        if (after == null) {
+            rows = this.repo.loadFirst(Cursor.window(limit));
+        } else {
+            rows = this.repo.loadAfter(
+                after.getCreatedOn(), after.getId(), Cursor.window(limit)
+            );
+        }
         return new BlogPosts(
-            this.repo.findAll().stream().map(BlogPostDto::new).toList()
+            rows.stream().limit(limit).map(BlogPostDto::new).toList(),
+            Cursor.next(
+                rows, limit,
+                post -> new Cursor(post.getCreatedOn(), post.getId())
+            )
         );
     }
 
     @Override
     public BlogPostDto save(final BlogPostDto post) {
-        return new BlogPostDto(this.repo.save(new BlogPost(post)));
+        final var saved = new BlogPostDto(this.repo.save(new BlogPost(post)));
+        this.events.publishEvent(new CatalogueChanged(BlogPost.class));
+        return saved;
     }
 
     @Override
     public void delete(final Long id) {
         this.repo.delete(this.findById(id));
+        this.events.publishEvent(new CatalogueChanged(BlogPost.class));
     }
 
     /**
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.activemq.EmailSender;
+import com.github.aistomin.andys.backend.controllers.campaign.CampaignDto;
+import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.model.Campaign;
+import com.github.aistomin.andys.backend.model.CampaignRepository;
+import com.github.aistomin.andys.backend.model.EmailMessage;
+import com.github.aistomin.andys.backend.model.EmailMessageStatus;
+import com.github.aistomin.andys.backend.model.EmailMessageType;
+import com.github.aistomin.andys.backend.model.Person;
+import com.github.aistomin.andys.backend.model.PersonRepository;
+import com.github.aistomin.andys.backend.services.CampaignService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Newsletter campaign service's implementation.
+ * <p>
+ * A campaign walks the subscribers in chunks by the keyset of their IDs.
+ * Every chunk is one transaction: the emails and their outbox messages are
+ * inserted in batches and the checkpoint of the campaign is moved to the
+ * last subscriber of the chunk, so the memory and the transactions stay
+ * small whatever the audience is, and a campaign that was interrupted
+ * resumes after the last committed chunk when the application starts. The
+ * checkpoint is moved only from the expected value, so a chunk is never
+ * enqueued twice, even if several nodes resume the same campaign.
+ * <p>
+ * The newsletter is rendered once per campaign: all the emails share the
+ * subject and the body, which lets the transport deliver them with many
+ * recipients per message. The chunks are paced to {@code campaign.rate}
+ * emails per second; the campaigns run one after another. A campaign that
+ * fails is retried from its checkpoint after a delay that doubles with
+ * every failure in a row, up to five minutes.
+ *
+ * @since 0.3
+ */
+@Service
+public final class CampaignServiceImpl
+    implements CampaignService, DisposableBean {
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final long NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * Delay of the first retry of a failed campaign.
+     */
+    private static final Duration FIRST_RETRY = Duration.ofSeconds(1L);
+
+    /**
+     * Maximal delay of the retries of a failed campaign.
+     */
+    private static final Duration LAST_RETRY = Duration.ofMinutes(5L);
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Campaign repository.
+     */
+    private final CampaignRepository campaigns;
+
+    /**
+     * Person repository.
+     */
+    private final PersonRepository persons;
+
+    /**
+     * Email sender.
+     */
+    private final EmailSender sender;
+
+    /**
+     * Transactions.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Support email, the dispatcher of the newsletters.
+     */
+    private final String support;
+
+    /**
+     * Chunk size.
+     */
+    private final int chunk;
+
+    /**
+     * Maximal number of the enqueued emails per second.
+     */
+    private final int rate;
+
+    /**
+     * Number of the enqueued emails.
+     */
+    private final LongAdder enqueued;
+
+    /**
+     * Thread that runs the campaigns.
+     */
+    private final ScheduledExecutorService runner;
+
+    /**
+     * Ctor.
+     *
+     * @param repository Campaign repository.
+     * @param people     Person repository.
+     * @param emails     Email sender.
+     * @param manager    Transaction manager.
+     * @param registry   Metrics.
+     * @param email      Support email.
+     * @param size       Chunk size.
+     * @param limit      Maximal number of the enqueued emails per second.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public CampaignServiceImpl(
+        final CampaignRepository repository,
+        final PersonRepository people,
+        final EmailSender emails,
+        final PlatformTransactionManager manager,
+        final Metrics registry,
+        @Value("${support.email}") final String email,
+        @Value("${campaign.chunk-size}") final int size,
+        @Value("${campaign.rate}") final int limit
+    ) {
+        this.campaigns = repository;
+        this.persons = people;
+        this.sender = emails;
+        this.transactions = new TransactionTemplate(manager);
+        this.support = email;
+        this.chunk = size;
+        this.rate = limit;
+        this.enqueued = registry.counter("campaign.enqueued");
+        final var threads = new CustomizableThreadFactory("campaign-");
+        threads.setDaemon(true);
+        this.runner = Executors.newSingleThreadScheduledExecutor(threads);
+    }
+
+    @Override
+    public CampaignDto start(final String subject, final String body) {
+        final var campaign = this.transactions.execute(
+            status -> {
+                var dispatcher = this.persons.findByEmail(this.support);
+                if (dispatcher == null) {
+                    dispatcher = this.persons.save(
+                        new Person(
+                            null, "Support", "Support", this.support, true,
+                            new Date()
+                        )
+                    );
+                }
+                return this.campaigns.save(
+                    new Campaign(
+                        null, dispatcher, subject, body, 0L, 0L, new Date(),
+                        null
+                    )
+                );
+            }
+        );
+        this.runner.execute(() -> this.run(campaign.getId(), 0));
+        return new CampaignDto(campaign);
+    }
+
+    @Override
+    public CampaignDto load(final Long id) {
+        final Optional<Campaign> found = this.campaigns.findById(id);
+        if (found.isPresent()) {
+            return new CampaignDto(found.get());
+        } else {
+            throw new NotFound(
+                String.format("Campaign with ID = %d not found.", id)
+            );
+        }
+    }
+
+    /**
+     * Resume the campaigns that were interrupted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        for (final var id : this.campaigns.findRunning()) {
+            this.runner.execute(() -> this.run(id, 0));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.runner.shutdownNow();
+    }
+
+    /**
+     * Enqueue the emails of the campaign from its checkpoint to the end.
+     * If that fails, run it again later.
+     *
+     * @param id       Campaign ID.
+     * @param failures Number of the failures of the campaign in a row.
+     */
+    private void run(final Long id, final int failures) {
+        final long start = System.nanoTime();
+        long after = 0L;
+        long count = 0L;
+        try {
+            final var campaign = this.campaigns.loadWithDispatcher(id);
+            if (campaign == null || campaign.getFinishedOn() != null) {
+                return;
+            }
+            after = campaign.getCheckpoint();
+            logger.info(
+                "Campaign {} starts after the subscriber {}.", id, after
+            );
+            var ids = this.next(campaign, after);
+            while (!ids.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+                count += ids.size();
+                final long wait = start + count * NANOS / this.rate
+                    - System.nanoTime();
+                if (wait > 0L) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                ids = this.next(campaign, after);
+            }
+            this.transactions.executeWithoutResult(
+                status -> this.campaigns.finish(id, new Date())
+            );
+            logger.info("Campaign {} is finished: {} emails.", id, count);
+        } catch (final InterruptedException error) {
+            Thread.currentThread().interrupt();
+            logger.info("Campaign {} is stopped at {}.", id, after);
+        } catch (final RuntimeException error) {
+            final int row;
+            if (count > 0L) {
+                row = 1;
+            } else {
+                row = failures + 1;
+            }
+            final var delay = CampaignServiceImpl.retry(row);
+            logger.error(
+                String.format(
+                    "Campaign %d is stopped at %d, retry in %s.",
+                    id, after, delay
+                ),
+                error
+            );
+            if (!this.runner.isShutdown()) {
+                this.runner.schedule(
+                    () -> this.run(id, row), delay.toMillis(),
+                    TimeUnit.MILLISECONDS
+                );
+            }
+        }
+    }
+
+    /**
+     * Delay of the retry after the failures in a row.
+     *
+     * @param failures Number of the failures in a row, at least one.
+     * @return Delay.
+     */
+    private static Duration retry(final int failures) {
+        var delay = FIRST_RETRY;
+        for (int idx = 1; idx < failures && delay.compareTo(LAST_RETRY) < 0;
+            ++idx) {
+            delay = delay.multipliedBy(2L);
+        }
+        if (delay.compareTo(LAST_RETRY) > 0) {
+            delay = LAST_RETRY;
+        }
+        return delay;
+    }
+
+    /**
+     * Enqueue the emails of the next chunk of the subscribers and move the
+     * checkpoint, in one transaction.
+     *
+     * @param campaign Campaign with its dispatcher.
+     * @param after    Checkpoint.
+     * @return IDs of the subscribers of the chunk.
+     */
+    private List<Long> next(final Campaign campaign, final long after) {
+        return this.transactions.execute(
+            status -> {
+                final var people = this.persons.loadSubscribers(
+                    after, PageRequest.of(0, this.chunk)
+                );
+                if (people.isEmpty()) {
+                    return List.of();
+                }
+                final var ids = people.stream().map(Person::getId).toList();
+                final int moved = this.campaigns.checkpoint(
+                    campaign.getId(), after, ids.get(ids.size() - 1),
+                    ids.size()
+                );
+                if (moved == 0) {
+                    throw new IllegalStateException(
+                        "The checkpoint was moved by another node."
+                    );
+                }
+                final var dispatcher = campaign.getDispatcher();
+                final var from = this.persons.getReferenceById(
+                    dispatcher.getId()
+                );
+                final var now = new Date();
+                this.sender.sendEmails(
+                    people.stream()
+                        .map(
+                            person -> new EmailMessage(
+                                null, from, person, campaign.getSubject(),
+                                campaign.getBody(),
+                                EmailMessageStatus.CREATED,
+                                EmailMessageType.NEWS_LETTER, null, now,
+                                EmailMessage.fingerprint(
+                                    dispatcher.getEmail(), person.getEmail(),
+                                    campaign.getSubject(), campaign.getBody()
+                                ),
+                                null
+                            )
+                        )
+                        .toList()
+                );
+                this.enqueued.add(ids.size());
+                return ids;
+            }
+        );
+    }
+}
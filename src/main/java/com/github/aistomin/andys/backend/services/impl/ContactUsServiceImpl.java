@@ -16,17 +16,26 @@
 package com.github.aistomin.andys.backend.services.impl;
 
 import com.github.aistomin.andys.backend.activemq.EmailSender;
+import com.github.aistomin.andys.backend.controllers.contact.ContactRequest;
+import com.github.aistomin.andys.backend.model.EmailMessage;
 import com.github.aistomin.andys.backend.model.EmailMessageRepository;
+import com.github.aistomin.andys.backend.model.EmailMessageStatus;
 import com.github.aistomin.andys.backend.model.EmailMessageType;
 import com.github.aistomin.andys.backend.model.Person;
 import com.github.aistomin.andys.backend.model.PersonRepository;
 import com.github.aistomin.andys.backend.services.ContactUsService;
-import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * "Contact Us" service implementation.
@@ -41,6 +50,11 @@ public final class ContactUsServiceImpl implements ContactUsService {
      */
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    /**
+     * How long we ignore the identical messages.
+     */
+    private static final Duration DUPLICATES_WINDOW = Duration.ofDays(7);
+
     /**
      * Person repository.
      */
@@ -56,30 +70,43 @@ public final class ContactUsServiceImpl implements ContactUsService {
      */
     private final EmailSender sender;
 
+    /**
+     * Recently stored messages.
+     */
+    private final RecentKeys recent;
+
     /**
      * Support email.
      */
     @Value("${support.email}")
     private String support;
 
+    /**
+     * Support person's ID, once it is known.
+     */
+    private volatile Long receptor;
+
     /**
      * Ctor.
      *
      * @param personRepository       Person repository.
      * @param emailMessageRepository Email messages repository.
      * @param emailSender            Email sender.
+     * @param messages               Maximal number of the recently stored
+     *                               messages that we remember.
      */
     public ContactUsServiceImpl(
         final PersonRepository personRepository,
         final EmailMessageRepository emailMessageRepository,
-        final EmailSender emailSender
+        final EmailSender emailSender,
+        @Value("${contact.recent-messages}") final int messages
     ) {
         this.persons = personRepository;
         this.emails = emailMessageRepository;
         this.sender = emailSender;
+        this.recent = new RecentKeys(DUPLICATES_WINDOW, messages);
     }
 
-    @SuppressWarnings("linelength")
     @Override
     public void contactUs(
         final String email,
@@ -87,37 +114,132 @@ public final class ContactUsServiceImpl implements ContactUsService {
         final String body,
         final Boolean allowToSendNewsLetters
     ) {
-        var dispatcher = this.persons.findByEmail(email);
-        if (dispatcher == null) {
-            dispatcher = this.persons.save(
-                new Person(
-                    null, null, null, email, allowToSendNewsLetters, new Date()
-                )
-            );
-        } else {
-            dispatcher.setAllowToSendNewsLetters(allowToSendNewsLetters);
-            this.persons.save(dispatcher);
+        this.contactUs(
+            List.of(
+                new ContactRequest(email, subject, body, allowToSendNewsLetters)
+            )
+        );
+    }
+
+    @Override
+    public void contactUs(final List<ContactRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
         }
-        var receptor = this.persons.findByEmail(this.support);
-        if (receptor == null) {
-            receptor = this.persons.save(
-                new Person(
-                    null, "Support", "Support", support, true, new Date()
-                )
+        final var people = this.people(requests);
+        final long now = System.currentTimeMillis();
+        final var fresh = new LinkedHashMap<String, ContactRequest>();
+        for (final var request : requests) {
+            final var fingerprint = EmailMessage.fingerprint(
+                request.getEmail(), this.support,
+                request.getSubject(), request.getBody()
             );
+            if (this.recent.contains(fingerprint, now)
+                || fresh.putIfAbsent(fingerprint, request) != null) {
+                this.logger.warn(
+                    "User {} already sent this message.", request.getEmail()
+                );
+            }
         }
-        final var duplicates = this.emails
-            .findAllByDispatcherAndReceptorAndSubjectAndBodyAndCreatedOnIsAfter(
-                dispatcher, receptor, subject,
-                body, DateUtils.addWeeks(new Date(), -1)
-            );
-        if (duplicates.size() == 0) {
-            this.sender.sendEmail(
-                dispatcher, receptor, subject, body,
-                EmailMessageType.CONTACT_REQUEST
-            );
-        } else {
-            this.logger.warn("User {} already sent this message.", email);
+        if (fresh.isEmpty()) {
+            return;
+        }
+        final var known = this.emails.findFingerprints(
+            fresh.keySet(), new Date(now - DUPLICATES_WINDOW.toMillis())
+        );
+        final var recipient = this.support();
+        final var drafts = new ArrayList<EmailMessage>(fresh.size());
+        fresh.forEach(
+            (fingerprint, request) -> {
+                if (known.contains(fingerprint)) {
+                    this.logger.warn(
+                        "User {} already sent this message.",
+                        request.getEmail()
+                    );
+                } else {
+                    drafts.add(
+                        new EmailMessage(
+                            null, people.get(request.getEmail()), recipient,
+                            request.getSubject(), request.getBody(),
+                            EmailMessageStatus.CREATED,
+                            EmailMessageType.CONTACT_REQUEST, null,
+                            new Date(now), fingerprint, null
+                        )
+                    );
+                }
+            }
+        );
+        if (!drafts.isEmpty()) {
+            this.sender.sendEmails(drafts);
+        }
+        for (final var fingerprint : fresh.keySet()) {
+            this.recent.add(fingerprint, now);
+        }
+    }
+
+    /**
+     * Create or update the people who sent the requests with one query and
+     * one batch of writes.
+     *
+     * @param requests Contact requests.
+     * @return People by email.
+     */
+    private Map<String, Person> people(final List<ContactRequest> requests) {
+        final var consents = new LinkedHashMap<String, Boolean>();
+        requests.forEach(
+            request -> consents.put(
+                request.getEmail(), request.getAllowToSendNewsLetters()
+            )
+        );
+        final var people = new HashMap<String, Person>(2 * consents.size());
+        this.persons.findAllByEmailIn(consents.keySet()).forEach(
+            person -> people.put(person.getEmail(), person)
+        );
+        final var changed = new ArrayList<Person>(consents.size());
+        consents.forEach(
+            (email, allow) -> {
+                final var person = people.get(email);
+                if (person == null) {
+                    changed.add(
+                        new Person(null, null, null, email, allow, new Date())
+                    );
+                } else if (!Objects.equals(
+                    person.getAllowToSendNewsLetters(), allow
+                )) {
+                    person.setAllowToSendNewsLetters(allow);
+                    changed.add(person);
+                }
+            }
+        );
+        this.persons.saveAll(changed).forEach(
+            person -> people.put(person.getEmail(), person)
+        );
+        return people;
+    }
+
+    /**
+     * Support person. It is created on the first request and then
+     * referenced by its ID without loading it.
+     *
+     * @return Support person.
+     */
+    private Person support() {
+        if (this.receptor == null) {
+            synchronized (this) {
+                if (this.receptor == null) {
+                    var person = this.persons.findByEmail(this.support);
+                    if (person == null) {
+                        person = this.persons.save(
+                            new Person(
+                                null, "Support", "Support", this.support,
+                                true, new Date()
+                            )
+                        );
+                    }
+                    this.receptor = person.getId();
+                }
+            }
         }
+        return this.persons.getReferenceById(this.receptor);
     }
 }
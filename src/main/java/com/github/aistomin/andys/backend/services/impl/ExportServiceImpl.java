@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
+import com.github.aistomin.andys.backend.model.Fetch;
+import com.github.aistomin.andys.backend.services.ExportService;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk export service's implementation.
+ * <p>
+ * The rows are selected as plain values without entities, so nothing is
+ * kept in the persistence context. The table is scanned in chunks of
+ * {@link #CHUNK} rows by ID and every chunk is streamed with the fixed
+ * fetch size in its own short read-only transaction.
+ *
+ * @since 0.3
+ */
+@Service
+public final class ExportServiceImpl implements ExportService {
+
+    /**
+     * Number of the rows that are read in one transaction.
+     */
+    private static final int CHUNK = 10_000;
+
+    /**
+     * Exported columns of the entities by the names in the URL.
+     */
+    private static final Map<String, Table> TABLES = Map.of(
+        "videos", new Table(
+            "Video",
+            List.of(
+                "id", "title", "description", "url", "youtubeId",
+                "createdOn", "publishedOn"
+            )
+        ),
+        "sheets", new Table(
+            "MusicSheet",
+            List.of(
+                "id", "title", "description", "previewUrl", "downloadUrl",
+                "createdOn", "publishedOn"
+            )
+        ),
+        "lyrics", new Table(
+            "Lyrics",
+            List.of("id", "title", "text", "createdOn", "publishedOn")
+        ),
+        "posts", new Table(
+            "BlogPost",
+            List.of("id", "title", "text", "createdOn", "publishedOn")
+        ),
+        "persons", new Table(
+            "Person",
+            List.of(
+                "id", "firstName", "lastName", "email",
+                "allowToSendNewsLetters", "createdOn"
+            )
+        ),
+        "emails", new Table(
+            "EmailMessage",
+            List.of(
+                "id", "dispatcher.id", "receptor.id", "subject", "body",
+                "status", "type", "info", "createdOn"
+            )
+        )
+    );
+
+    /**
+     * Entity manager.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Read-only transactions.
+     */
+    private final TransactionTemplate reads;
+
+    /**
+     * Ctor.
+     *
+     * @param manager      Entity manager.
+     * @param transactions Transaction manager.
+     */
+    public ExportServiceImpl(
+        final EntityManager manager,
+        final PlatformTransactionManager transactions
+    ) {
+        this.entities = manager;
+        this.reads = new TransactionTemplate(transactions);
+        this.reads.setReadOnly(true);
+    }
+
+    @Override
+    public List<String> columns(final String entity) {
+        return ExportServiceImpl.table(entity).getColumns().stream()
+            .map(column -> column.replace(".id", ""))
+            .toList();
+    }
+
+    @Override
+    public void export(final String entity, final Consumer<Object[]> consumer) {
+        final var table = ExportServiceImpl.table(entity);
+        final var query = String.format(
+            "SELECT %s FROM %s item WHERE item.id > :after ORDER BY item.id",
+            table.getColumns().stream()
+                .map(column -> String.format("item.%s", column))
+                .collect(Collectors.joining(", ")),
+            table.getEntity()
+        );
+        final var after = new AtomicLong();
+        final var read = new AtomicLong();
+        do {
+            read.set(0);
+            this.reads.executeWithoutResult(
+                status -> {
+                    try (var rows = this.entities
+                        .createQuery(query, Object[].class)
+                        .setParameter("after", after.get())
+                        .setMaxResults(CHUNK)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, Fetch.SIZE)
+                        .getResultStream()) {
+                        rows.forEach(
+                            row -> {
+                                consumer.accept(row);
+                                after.set((Long) row[0]);
+                                read.incrementAndGet();
+                            }
+                        );
+                    }
+                }
+            );
+        } while (read.get() == CHUNK);
+    }
+
+    /**
+     * Exported table by its name in the URL.
+     *
+     * @param entity Name in the URL.
+     * @return Table.
+     */
+    private static Table table(final String entity) {
+        final var table = TABLES.get(entity);
+        if (table == null) {
+            throw new NotFound(
+                String.format(
+                    "Unknown entity: %s. Available entities: %s.",
+                    entity, String.join(", ", TABLES.keySet())
+                )
+            );
+        }
+        return table;
+    }
+
+    /**
+     * Exported entity.
+     *
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Table {
+
+        /**
+         * Entity name.
+         */
+        private final String entity;
+
+        /**
+         * Exported attributes; the ID goes first.
+         */
+        private final List<String> columns;
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.aistomin.andys.backend.controllers.blog.BlogPostDto;
+import com.github.aistomin.andys.backend.controllers.importer.ImportLine;
+import com.github.aistomin.andys.backend.controllers.importer.ImportReport;
+import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheetDto;
+import com.github.aistomin.andys.backend.controllers.video.VideoDto;
+import com.github.aistomin.andys.backend.model.BlogPost;
+import com.github.aistomin.andys.backend.model.Lyrics;
+import com.github.aistomin.andys.backend.model.Mapping;
+import com.github.aistomin.andys.backend.model.MusicSheet;
+import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import com.github.aistomin.andys.backend.services.ImportService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import service's implementation.
+ * <p>
+ * Every batch is written in its own transaction of a stateless session with
+ * JDBC batching, so there is no persistence context to grow and the speed
+ * is bounded by the database. The stateless session inserts the links of a
+ * video to its music sheets and lyrics together with the video, in the same
+ * batches. The music sheets and the lyrics of a video
+ * are referenced by their titles and must either exist or be imported
+ * earlier in the stream or in the same batch.
+ *
+ * @since 0.3
+ */
+@Service
+public final class ImportServiceImpl implements ImportService {
+
+    /**
+     * Reader of the lines.
+     */
+    private final ObjectReader reader;
+
+    /**
+     * Session factory.
+     */
+    private final SessionFactory sessions;
+
+    /**
+     * Event publisher.
+     */
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Number of the lines that are written in one transaction.
+     */
+    @Value("${import.batch-size}")
+    private int size;
+
+    /**
+     * Ctor.
+     *
+     * @param mapper    JSON mapper.
+     * @param factory   Entity manager factory.
+     * @param publisher Event publisher.
+     */
+    public ImportServiceImpl(
+        final ObjectMapper mapper,
+        final EntityManagerFactory factory,
+        final ApplicationEventPublisher publisher
+    ) {
+        this.reader = mapper.readerFor(ImportLine.class);
+        this.sessions = factory.unwrap(SessionFactory.class);
+        this.events = publisher;
+    }
+
+    @Override
+    public ImportReport load(final InputStream input) {
+        final var report = new ImportReport();
+        final var changed = new HashSet<Class<?>>();
+        final var batch = new ArrayList<Row>(this.size);
+        try (var lines = new BufferedReader(
+            new InputStreamReader(input, StandardCharsets.UTF_8)
+        )) {
+            long number = 0;
+            for (var text = lines.readLine(); text != null;
+                text = lines.readLine()) {
+                number += 1;
+                if (!text.isBlank()) {
+                    report.setLines(report.getLines() + 1);
+                    this.parse(number, text, report).ifPresent(batch::add);
+                    if (batch.size() == this.size) {
+                        this.write(batch, report, changed);
+                    }
+                }
+            }
+            this.write(batch, report, changed);
+        } catch (final IOException error) {
+            throw new UncheckedIOException(error);
+        } finally {
+            changed.forEach(
+                entity -> this.events.publishEvent(new CatalogueChanged(entity))
+            );
+        }
+        return report;
+    }
+
+    /**
+     * Parse and validate the line.
+     *
+     * @param number Line number.
+     * @param text   Line.
+     * @param report Report.
+     * @return Row or nothing if the line is invalid.
+     */
+    private Optional<Row> parse(
+        final long number, final String text, final ImportReport report
+    ) {
+        Optional<Row> row = Optional.empty();
+        try {
+            final ImportLine line = this.reader.readValue(text);
+            final var problem = ImportServiceImpl.problem(line);
+            if (problem == null) {
+                row = Optional.of(new Row(number, line));
+            } else {
+                report.fail(number, problem);
+            }
+        } catch (final JsonProcessingException error) {
+            report.fail(
+                number,
+                String.format("Invalid JSON: %s", error.getOriginalMessage())
+            );
+        }
+        return row;
+    }
+
+    /**
+     * Write the batch in one transaction and empty it.
+     *
+     * @param batch   Valid rows.
+     * @param report  Report.
+     * @param changed Entities that were imported.
+     */
+    private void write(
+        final List<Row> batch,
+        final ImportReport report,
+        final Set<Class<?>> changed
+    ) {
+        if (!batch.isEmpty()) {
+            final var problems = new HashMap<Long, String>();
+            try (var session = this.sessions.openStatelessSession()) {
+                session.setJdbcBatchSize(this.size);
+                final var transaction = session.beginTransaction();
+                try {
+                    ImportServiceImpl.insert(session, batch, problems);
+                    transaction.commit();
+                    problems.forEach(report::fail);
+                    report.setImported(
+                        report.getImported() + batch.size() - problems.size()
+                    );
+                    batch.stream()
+                        .filter(row -> !problems.containsKey(row.getNumber()))
+                        .forEach(row -> changed.add(row.entity()));
+                } catch (final PersistenceException error) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    batch.forEach(
+                        row -> report.fail(
+                            row.getNumber(),
+                            problems.getOrDefault(
+                                row.getNumber(),
+                                String.format(
+                                    "Batch failed: %s", error.getMessage()
+                                )
+                            )
+                        )
+                    );
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Insert the rows. The music sheets, the lyrics and the blog posts are
+     * inserted first, so the videos of the same batch can reference them.
+     *
+     * @param session  Stateless session.
+     * @param batch    Valid rows.
+     * @param problems Rows that were not inserted with the reasons.
+     */
+    private static void insert(
+        final StatelessSession session,
+        final List<Row> batch,
+        final Map<Long, String> problems
+    ) {
+        final var sheets = new HashMap<String, Long>();
+        final var lyrics = new HashMap<String, Long>();
+        for (final var row : batch) {
+            final var line = row.getLine();
+            if (line.getSheet() != null) {
+                sheets.put(
+                    line.getSheet().getTitle(),
+                    (Long) session.insert(new MusicSheet(line.getSheet()))
+                );
+            } else if (line.getLyrics() != null) {
+                lyrics.put(
+                    line.getLyrics().getTitle(),
+                    (Long) session.insert(new Lyrics(line.getLyrics()))
+                );
+            } else if (line.getPost() != null) {
+                session.insert(new BlogPost(line.getPost()));
+            }
+        }
+        final var videos = batch.stream()
+            .map(Row::getLine)
+            .map(ImportLine::getVideo)
+            .filter(Objects::nonNull)
+            .toList();
+        ImportServiceImpl.resolve(
+            session, "MusicSheet", sheets,
+            videos.stream().flatMap(
+                video -> video.getSheets().stream().map(MusicSheetDto::getTitle)
+            )
+        );
+        ImportServiceImpl.resolve(
+            session, "Lyrics", lyrics,
+            videos.stream().flatMap(
+                video -> video.getLyrics().stream().map(LyricsDto::getTitle)
+            )
+        );
+        for (final var row : batch) {
+            final var video = row.getLine().getVideo();
+            if (video != null) {
+                final var missing = Stream.concat(
+                    video.getSheets().stream()
+                        .map(MusicSheetDto::getTitle)
+                        .filter(title -> !sheets.containsKey(title)),
+                    video.getLyrics().stream()
+                        .map(LyricsDto::getTitle)
+                        .filter(title -> !lyrics.containsKey(title))
+                ).toList();
+                if (missing.isEmpty()) {
+                    final var entity = new Video(video);
+                    entity.setSheets(
+                        Mapping.toSet(
+                            video.getSheets(),
+                            sheet -> {
+                                final var ref = new MusicSheet();
+                                ref.setId(sheets.get(sheet.getTitle()));
+                                return ref;
+                            }
+                        )
+                    );
+                    entity.setLyrics(
+                        Mapping.toSet(
+                            video.getLyrics(),
+                            text -> {
+                                final var ref = new Lyrics();
+                                ref.setId(lyrics.get(text.getTitle()));
+                                return ref;
+                            }
+                        )
+                    );
+                    session.insert(entity);
+                } else {
+                    problems.put(
+                        row.getNumber(),
+                        String.format(
+                            "Unknown music sheets or lyrics: %s",
+                            String.join(", ", missing)
+                        )
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the IDs of the titles that were not imported in this batch. If
+     * there are many items with the same title, the newest one wins.
+     *
+     * @param session Stateless session.
+     * @param entity  Entity name.
+     * @param known   IDs by the titles. The found IDs are added to it.
+     * @param titles  Titles that the videos reference.
+     */
+    private static void resolve(
+        final StatelessSession session,
+        final String entity,
+        final Map<String, Long> known,
+        final Stream<String> titles
+    ) {
+        final var unknown = titles
+            .filter(title -> !known.containsKey(title))
+            .distinct()
+            .toList();
+        if (!unknown.isEmpty()) {
+            session.createSelectionQuery(
+                String.format(
+                    "SELECT item.title, item.id FROM %s item %s",
+                    entity, "WHERE item.title IN :titles"
+                ),
+                Object[].class
+            ).setParameter("titles", unknown).getResultList().forEach(
+                found -> known.merge(
+                    (String) found[0], (Long) found[1], Math::max
+                )
+            );
+        }
+    }
+
+    /**
+     * What is wrong with the line. Fills the missing creation dates and
+     * collections and drops the IDs, because the imported items are always
+     * new.
+     *
+     * @param line Line.
+     * @return Problem or null if the line is valid.
+     */
+    private static String problem(final ImportLine line) {
+        final var now = new Date();
+        final String problem;
+        final var items = Stream.of(
+            line.getVideo(), line.getSheet(), line.getLyrics(), line.getPost()
+        ).filter(Objects::nonNull).count();
+        if (items == 1) {
+            problem = ImportServiceImpl.problem(line, now);
+        } else {
+            problem = "Exactly one of video, sheet, lyrics or post expected.";
+        }
+        return problem;
+    }
+
+    /**
+     * What is wrong with the line that has exactly one item.
+     *
+     * @param line Line.
+     * @param now  Creation date of the items that have none.
+     * @return Problem or null if the line is valid.
+     */
+    private static String problem(final ImportLine line, final Date now) {
+        String problem = null;
+        if (line.getVideo() != null) {
+            final VideoDto video = line.getVideo();
+            video.setId(null);
+            if (video.getCreatedOn() == null) {
+                video.setCreatedOn(now);
+            }
+            if (video.getSheets() == null) {
+                video.setSheets(new HashSet<>());
+            }
+            if (video.getLyrics() == null) {
+                video.setLyrics(new HashSet<>());
+            }
+            if (video.getTitle() == null || video.getUrl() == null
+                || video.getYoutubeId() == null) {
+                problem = "Video needs a title, a URL and a YouTube ID.";
+            } else if (video.getSheets().stream().anyMatch(
+                sheet -> sheet.getTitle() == null
+            ) || video.getLyrics().stream().anyMatch(
+                text -> text.getTitle() == null
+            )) {
+                problem = "Music sheets and lyrics are referenced by title.";
+            }
+        } else if (line.getSheet() != null) {
+            final MusicSheetDto sheet = line.getSheet();
+            sheet.setId(null);
+            if (sheet.getCreatedOn() == null) {
+                sheet.setCreatedOn(now);
+            }
+            if (sheet.getTitle() == null) {
+                problem = "Music sheet needs a title.";
+            }
+        } else if (line.getLyrics() != null) {
+            final LyricsDto lyrics = line.getLyrics();
+            lyrics.setId(null);
+            if (lyrics.getCreatedOn() == null) {
+                lyrics.setCreatedOn(now);
+            }
+            if (lyrics.getTitle() == null) {
+                problem = "Lyrics need a title.";
+            }
+        } else {
+            final BlogPostDto post = line.getPost();
+            post.setId(null);
+            if (post.getCreatedOn() == null) {
+                post.setCreatedOn(now);
+            }
+            if (post.getTitle() == null) {
+                problem = "Blog post needs a title.";
+            }
+        }
+        return problem;
+    }
+
+    /**
+     * Valid line.
+     *
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Row {
+
+        /**
+         * Line number.
+         */
+        private final long number;
+
+        /**
+         * Parsed line.
+         */
+        private final ImportLine line;
+
+        /**
+         * Entity of the line.
+         *
+         * @return Entity class.
+         */
+        Class<?> entity() {
+            final Class<?> entity;
+            if (this.line.getVideo() != null) {
+                entity = Video.class;
+            } else if (this.line.getSheet() != null) {
+                entity = MusicSheet.class;
+            } else if (this.line.getLyrics() != null) {
+                entity = Lyrics.class;
+            } else {
+                entity = BlogPost.class;
+            }
+            return entity;
+        }
+    }
+}
@@ -18,11 +18,23 @@ package com.github.aistomin.andys.backend.services.impl;
 import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
 import com.github.aistomin.andys.backend.controllers.lyrics.LyricsCatalogue;
 import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.model.Lyrics;
 import com.github.aistomin.andys.backend.model.LyricsRepository;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
 import com.github.aistomin.andys.backend.services.LyricsService;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Lyrics' service's implementation.
@@ -37,30 +49,124 @@ public final class LyricsServiceImpl implements LyricsService {
      */
     private final LyricsRepository repo;
 
+    /**
+     * Catalogue snapshot.
+     */
+    private final Snapshot<LyricsDto> cache;
+
+    /**
+     * Event publisher.
+     */
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Entity manager.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Read-only transactions.
+     */
+    private final TransactionTemplate reads;
+
     /**
      * Ctor.
      *
-     * @param repository Lyrics repository.
+     * @param repository   Lyrics repository.
+     * @param publisher    Event publisher.
+     * @param executor     Executor that builds the catalogue snapshots.
+     * @param manager      Entity manager.
+     * @param transactions Transaction manager.
      */
-    public LyricsServiceImpl(final LyricsRepository repository) {
+    public LyricsServiceImpl(
+        final LyricsRepository repository,
+        final ApplicationEventPublisher publisher,
+        final TaskExecutor executor,
+        final EntityManager manager,
+        final PlatformTransactionManager transactions
+    ) {
         this.repo = repository;
+        this.events = publisher;
+        this.entities = manager;
+        this.reads = new TransactionTemplate(transactions);
+        this.reads.setReadOnly(true);
+        this.cache = new Snapshot<>(
+            executor,
+            () -> Snapshot.all(this::query),
+            item -> new Cursor(item.getCreatedOn(), item.getId()),
+            Lyrics.class
+        );
+    }
+
+    @Override
+    public LyricsCatalogue load(final Cursor after, final int limit) {
+        return this.cache.page(after, limit, LyricsCatalogue::new);
     }
 
     @Override
-    public LyricsCatalogue load() {
+    public void stream(final Consumer<LyricsDto> consumer) {
+        this.reads.executeWithoutResult(
+            status -> {
+                try (var rows = this.repo.streamAll()) {
+                    rows.forEach(
+                        lyrics -> {
+                            consumer.accept(new LyricsDto(lyrics));
+                            this.entities.detach(lyrics);
+                        }
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Rebuild the catalogue snapshot if the catalogue was changed.
+     * Runs before the other listeners, so they already see the new build.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.cache.onChange(event);
+    }
+
+    /**
+     * Load a page from the database.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @return Page.
+     */
+    private LyricsCatalogue query(final Cursor after, final int limit) {
+        final List<Lyrics> rows;
+        if (after == null) {
+            rows = this.repo.loadFirst(Cursor.window(limit));
+        } else {
+            rows = this.repo.loadAfter(
+                after.getCreatedOn(), after.getId(), Cursor.window(limit)
+            );
+        }
         return new LyricsCatalogue(
-            this.repo.findAll().stream().map(LyricsDto::new).toList()
+            rows.stream().limit(limit).map(LyricsDto::new).toList(),
+            Cursor.next(
+                rows, limit,
+                item -> new Cursor(item.getCreatedOn(), item.getId())
+            )
         );
     }
 
     @Override
     public LyricsDto save(final LyricsDto lyrics) {
-        return new LyricsDto(this.repo.save(new Lyrics(lyrics)));
+        final var saved = new LyricsDto(this.repo.save(new Lyrics(lyrics)));
+        this.events.publishEvent(new CatalogueChanged(Lyrics.class));
+        return saved;
     }
 
     @Override
     public void delete(final Long id) {
         this.repo.delete(this.findById(id));
+        this.events.publishEvent(new CatalogueChanged(Lyrics.class));
     }
 
     /**
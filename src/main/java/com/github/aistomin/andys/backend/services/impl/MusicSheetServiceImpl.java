@@ -18,11 +18,23 @@ package com.github.aistomin.andys.backend.services.impl;
 import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
 import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheetDto;
 import com.github.aistomin.andys.backend.controllers.music.sheet.MusicSheets;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.model.MusicSheet;
 import com.github.aistomin.andys.backend.model.MusicSheetRepository;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
 import com.github.aistomin.andys.backend.services.MusicSheetService;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Music sheets service's implementation.
@@ -37,30 +49,126 @@ public final class MusicSheetServiceImpl implements MusicSheetService {
      */
     private final MusicSheetRepository repo;
 
+    /**
+     * Catalogue snapshot.
+     */
+    private final Snapshot<MusicSheetDto> cache;
+
+    /**
+     * Event publisher.
+     */
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Entity manager.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Read-only transactions.
+     */
+    private final TransactionTemplate reads;
+
     /**
      * Ctor.
      *
-     * @param repository Music sheet repository.
+     * @param repository   Music sheet repository.
+     * @param publisher    Event publisher.
+     * @param executor     Executor that builds the catalogue snapshots.
+     * @param manager      Entity manager.
+     * @param transactions Transaction manager.
      */
-    public MusicSheetServiceImpl(final MusicSheetRepository repository) {
+    public MusicSheetServiceImpl(
+        final MusicSheetRepository repository,
+        final ApplicationEventPublisher publisher,
+        final TaskExecutor executor,
+        final EntityManager manager,
+        final PlatformTransactionManager transactions
+    ) {
         this.repo = repository;
+        this.events = publisher;
+        this.entities = manager;
+        this.reads = new TransactionTemplate(transactions);
+        this.reads.setReadOnly(true);
+        this.cache = new Snapshot<>(
+            executor,
+            () -> Snapshot.all(this::query),
+            item -> new Cursor(item.getCreatedOn(), item.getId()),
+            MusicSheet.class
+        );
+    }
+
+    @Override
+    public MusicSheets load(final Cursor after, final int limit) {
+        return this.cache.page(after, limit, MusicSheets::new);
     }
 
     @Override
-    public MusicSheets load() {
+    public void stream(final Consumer<MusicSheetDto> consumer) {
+        this.reads.executeWithoutResult(
+            status -> {
+                try (var rows = this.repo.streamAll()) {
+                    rows.forEach(
+                        sheet -> {
+                            consumer.accept(new MusicSheetDto(sheet));
+                            this.entities.detach(sheet);
+                        }
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Rebuild the catalogue snapshot if the catalogue was changed.
+     * Runs before the other listeners, so they already see the new build.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.cache.onChange(event);
+    }
+
+    /**
+     * Load a page from the database.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @return Page.
+     */
+    private MusicSheets query(final Cursor after, final int limit) {
+        final List<MusicSheet> rows;
+        if (after == null) {
+            rows = this.repo.loadFirst(Cursor.window(limit));
+        } else {
+            rows = this.repo.loadAfter(
+                after.getCreatedOn(), after.getId(), Cursor.window(limit)
+            );
+        }
         return new MusicSheets(
-            this.repo.findAll().stream().map(MusicSheetDto::new).toList()
+            rows.stream().limit(limit).map(MusicSheetDto::new).toList(),
+            Cursor.next(
+                rows, limit,
+                sheet -> new Cursor(sheet.getCreatedOn(), sheet.getId())
+            )
         );
     }
 
     @Override
     public MusicSheetDto save(final MusicSheetDto sheet) {
-        return new MusicSheetDto(this.repo.save(new MusicSheet(sheet)));
+        final var saved = new MusicSheetDto(
+            this.repo.save(new MusicSheet(sheet))
+        );
+        this.events.publishEvent(new CatalogueChanged(MusicSheet.class));
+        return saved;
     }
 
     @Override
     public void delete(final Long id) {
         this.repo.delete(this.findById(id));
+        this.events.publishEvent(new CatalogueChanged(MusicSheet.class));
     }
 
     /**
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.security.BoundedMap;
+import java.time.Duration;
+
+/**
+ * Keys that were seen within a time window.
+ * <p>
+ * A node remembers what it has recently stored, so it can answer the repeated
+ * requests without asking the database. It is only a shortcut: a key that is
+ * not here may still be in the database. The set is bounded; when it is full
+ * it forgets the least recently used key, so a flood of new keys never makes
+ * it forget the fresh ones all at once.
+ *
+ * @since 0.3
+ */
+public final class RecentKeys {
+
+    /**
+     * Number of the lock stripes.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Expiration times in ms by key.
+     */
+    private final BoundedMap<Long> keys;
+
+    /**
+     * Time window in ms.
+     */
+    private final long window;
+
+    /**
+     * Ctor.
+     *
+     * @param period How long a key is remembered.
+     * @param size   Maximal number of the keys.
+     */
+    public RecentKeys(final Duration period, final int size) {
+        this.window = period.toMillis();
+        this.keys = new BoundedMap<>(
+            Math.max(1, Math.min(STRIPES, size)), size
+        );
+    }
+
+    /**
+     * Check whether the key was seen within the window.
+     *
+     * @param key Key.
+     * @param now Current time in ms.
+     * @return True if it was.
+     */
+    public boolean contains(final String key, final long now) {
+        return this.keys.apply(
+            key,
+            stripe -> {
+                final var expires = stripe.get(key);
+                if (expires != null && expires <= now) {
+                    stripe.remove(key);
+                }
+                return expires != null && expires > now;
+            }
+        );
+    }
+
+    /**
+     * Remember the key.
+     *
+     * @param key Key.
+     * @param now Current time in ms.
+     */
+    public void add(final String key, final long now) {
+        this.keys.apply(key, stripe -> stripe.put(key, now + this.window));
+    }
+}
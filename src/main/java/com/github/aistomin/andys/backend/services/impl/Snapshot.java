@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Immutable in-memory snapshot of a catalogue.
+ * <p>
+ * The snapshot is built on the executor and published through an atomic
+ * reference, so a read of a built snapshot is a plain pointer dereference.
+ * Every change of the catalogue starts a new build and publishes it before
+ * the writer returns: the next read on the same node waits for that build
+ * and therefore always sees the write. A build never replaces a newer one.
+ *
+ * @param <T> Item type.
+ * @since 0.3
+ */
+public final class Snapshot<T> {
+
+    /**
+     * Build versions.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * The latest build.
+     */
+    private final AtomicReference<Build<T>> current = new AtomicReference<>();
+
+    /**
+     * Executor that builds the snapshots.
+     */
+    private final Executor executor;
+
+    /**
+     * Loader of the whole catalogue, ordered by {@link Cursor#ORDER}.
+     */
+    private final Supplier<List<T>> loader;
+
+    /**
+     * Function that builds the cursor from the item.
+     */
+    private final Function<T, Cursor> key;
+
+    /**
+     * Entities that the snapshot depends on.
+     */
+    private final Set<Class<?>> sources;
+
+    /**
+     * Ctor.
+     *
+     * @param exec     Executor that builds the snapshots.
+     * @param load     Loader of the whole catalogue, ordered by
+     *                 {@link Cursor#ORDER}.
+     * @param cursor   Function that builds the cursor from the item.
+     * @param entities Entities that the snapshot depends on.
+     */
+    public Snapshot(
+        final Executor exec,
+        final Supplier<List<T>> load,
+        final Function<T, Cursor> cursor,
+        final Class<?>... entities
+    ) {
+        this.executor = exec;
+        this.loader = load;
+        this.key = cursor;
+        this.sources = Set.of(entities);
+    }
+
+    /**
+     * Load the whole catalogue page by page.
+     *
+     * @param query Query that loads a page.
+     * @param <T>   Item type.
+     * @return All the items.
+     */
+    public static <T> List<T> all(
+        final BiFunction<Cursor, Integer, ? extends Paged<T>> query
+    ) {
+        final var items = new ArrayList<T>();
+        Cursor after = null;
+        do {
+            final Paged<T> page = query.apply(after, Cursor.MAX_LIMIT);
+            items.addAll(page.getContent());
+            after = Cursor.parse(page.getNext());
+        } while (after != null);
+        return List.copyOf(items);
+    }
+
+    /**
+     * Current snapshot. Waits for the build if it is still running.
+     *
+     * @return Items.
+     */
+    public List<T> get() {
+        var build = this.current.get();
+        if (build == null || build.getItems().isCompletedExceptionally()) {
+            build = this.refresh();
+        }
+        try {
+            return build.getItems().join();
+        } catch (final CompletionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * A page of the current snapshot.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @param wrap  Function that wraps the items and the next cursor.
+     * @param <R>   Page type.
+     * @return Page.
+     */
+    public <R> R page(
+        final Cursor after,
+        final int limit,
+        final BiFunction<List<T>, String, R> wrap
+    ) {
+        final var items = this.get();
+        final int from = this.start(items, after);
+        final int to = Math.min(items.size(), from + limit);
+        String next = null;
+        if (to < items.size()) {
+            next = this.key.apply(items.get(to - 1)).encode();
+        }
+        return wrap.apply(items.subList(from, to), next);
+    }
+
+    /**
+     * Start building a new snapshot.
+     *
+     * @return The latest build.
+     */
+    public Build<T> refresh() {
+        final var build = new Build<>(
+            this.versions.incrementAndGet(),
+            CompletableFuture.supplyAsync(this.loader, this.executor)
+        );
+        return this.current.accumulateAndGet(
+            build,
+            (old, fresh) -> {
+                if (old == null || fresh.getVersion() > old.getVersion()) {
+                    return fresh;
+                }
+                return old;
+            }
+        );
+    }
+
+    /**
+     * Rebuild the snapshot if the changed entity is one of its sources.
+     *
+     * @param event Catalogue change.
+     */
+    public void onChange(final CatalogueChanged event) {
+        if (this.sources.contains(event.getEntity())) {
+            this.refresh();
+        }
+    }
+
+    /**
+     * Index of the first item after the cursor.
+     *
+     * @param items Items.
+     * @param after Cursor or null.
+     * @return Index.
+     */
+    private int start(final List<T> items, final Cursor after) {
+        int low = 0;
+        if (after != null) {
+            int high = items.size();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                final var item = this.key.apply(items.get(mid));
+                if (Cursor.ORDER.compare(item, after) > 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A build of the snapshot.
+     *
+     * @param <T> Item type.
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Build<T> {
+
+        /**
+         * Build version.
+         */
+        private final long version;
+
+        /**
+         * Items that are being loaded.
+         */
+        private final CompletableFuture<List<T>> items;
+    }
+}
@@ -16,14 +16,17 @@
 package com.github.aistomin.andys.backend.services.impl;
 
 import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.controllers.user.RegistrationDto;
 import com.github.aistomin.andys.backend.controllers.user.UserDto;
 import com.github.aistomin.andys.backend.controllers.user.Users;
 import com.github.aistomin.andys.backend.model.User;
 import com.github.aistomin.andys.backend.model.UserRepository;
+import com.github.aistomin.andys.backend.security.UserEpochs;
 import com.github.aistomin.andys.backend.services.UserService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.util.List;
 
 /**
  * User's service's implementation.
@@ -43,17 +46,26 @@ public final class UserServiceImpl implements UserService {
      */
     private final PasswordEncoder enc;
 
+    /**
+     * User epochs.
+     */
+    private final UserEpochs epochs;
+
     /**
      * Ctor.
      *
      * @param repository User repository.
      * @param encoder Password encoder.
+     * @param table User epochs.
      */
     public UserServiceImpl(
-        final UserRepository repository, final PasswordEncoder encoder
+        final UserRepository repository,
+        final PasswordEncoder encoder,
+        final UserEpochs table
     ) {
         this.repo = repository;
         this.enc = encoder;
+        this.epochs = table;
     }
 
     /**
@@ -65,7 +77,9 @@ public final class UserServiceImpl implements UserService {
     @Override
     public UserDto register(final RegistrationDto user) {
         user.setPassword(this.enc.encode(user.getPassword()));
-        return new UserDto(this.repo.save(new User(user)));
+        final var saved = this.repo.save(new User(user));
+        this.epochs.update(saved);
+        return new UserDto(saved);
     }
 
     @Override
@@ -77,19 +91,41 @@ public final class UserServiceImpl implements UserService {
             );
         }
         this.repo.delete(found.get());
+        this.epochs.remove(found.get());
     }
 
     /**
-     * Load all users.
+     * Load users page by page, newest first.
      *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
      * @return Users
      */
     @Override
-    public Users loadAll() {
+    public Users loadAll(final Cursor after, final int limit) {
+        final List<User> rows;
+        if (after == null) {
+            rows = this.repo.loadFirst(Cursor.window(limit));
+        } else {
+            rows = this.repo.loadAfter(
+                after.getCreatedOn(), after.getId(), Cursor.window(limit)
+            );
+        }
         final Users users = new Users();
         users.setContent(
-            this.repo.findAll().stream().map(UserDto::new).toList()
+            rows.stream().limit(limit).map(UserDto::new).toList()
+        );
+        users.setNext(
+            Cursor.next(
+                rows, limit,
+                user -> new Cursor(user.getCreatedOn(), user.getId())
+            )
         );
         return users;
     }
+
+    @Override
+    public boolean exists(final String username) {
+        return this.repo.findByUsername(username) != null;
+    }
 }
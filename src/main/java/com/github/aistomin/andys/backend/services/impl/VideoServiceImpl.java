@@ -16,13 +16,33 @@
 package com.github.aistomin.andys.backend.services.impl;
 
 import com.github.aistomin.andys.backend.controllers.exceptions.NotFound;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.controllers.video.VideoDto;
 import com.github.aistomin.andys.backend.controllers.video.Videos;
+import com.github.aistomin.andys.backend.model.Fetch;
+import com.github.aistomin.andys.backend.model.Lyrics;
+import com.github.aistomin.andys.backend.model.MusicSheet;
 import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.model.VideoItem;
 import com.github.aistomin.andys.backend.model.VideoRepository;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
 import com.github.aistomin.andys.backend.services.VideoService;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Video's service's implementation.
@@ -37,33 +57,263 @@ public final class VideoServiceImpl implements VideoService {
      */
     private final VideoRepository repo;
 
+    /**
+     * Catalogue snapshot.
+     */
+    private final Snapshot<VideoDto> cache;
+
+    /**
+     * Event publisher.
+     */
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Entity manager.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Read-only transactions.
+     */
+    private final TransactionTemplate reads;
+
     /**
      * Ctor.
      *
-     * @param repository Video repository.
+     * @param repository   Video repository.
+     * @param publisher    Event publisher.
+     * @param executor     Executor that builds the catalogue snapshots.
+     * @param manager      Entity manager.
+     * @param transactions Transaction manager.
      */
-    public VideoServiceImpl(final VideoRepository repository) {
+    public VideoServiceImpl(
+        final VideoRepository repository,
+        final ApplicationEventPublisher publisher,
+        final TaskExecutor executor,
+        final EntityManager manager,
+        final PlatformTransactionManager transactions
+    ) {
         this.repo = repository;
+        this.events = publisher;
+        this.entities = manager;
+        this.reads = new TransactionTemplate(transactions);
+        this.reads.setReadOnly(true);
+        this.cache = new Snapshot<>(
+            executor,
+            () -> Snapshot.all(this::query),
+            item -> new Cursor(item.getCreatedOn(), item.getId()),
+            Video.class, MusicSheet.class, Lyrics.class
+        );
+    }
+
+    @Override
+    public Videos load(final Cursor after, final int limit) {
+        return this.cache.page(after, limit, Videos::new);
+    }
+
+    @Override
+    public Videos summaries(
+        final Cursor after,
+        final int limit,
+        final boolean sheets,
+        final boolean lyrics
+    ) {
+        return this.page(
+            after, limit,
+            found -> {
+                final Map<Long, List<MusicSheet>> notes;
+                if (sheets) {
+                    notes = VideoItem.group(this.repo.loadSheets(found));
+                } else {
+                    notes = Map.of();
+                }
+                final Map<Long, List<Lyrics>> texts;
+                if (lyrics) {
+                    texts = VideoItem.group(this.repo.loadLyrics(found));
+                } else {
+                    texts = Map.of();
+                }
+                return this.repo.loadSummaries(found).stream()
+                    .map(
+                        video -> new VideoDto(
+                            video,
+                            notes.getOrDefault(video.getId(), List.of()),
+                            texts.getOrDefault(video.getId(), List.of())
+                        )
+                    )
+                    .toList();
+            }
+        );
     }
 
     @Override
-    public Videos load() {
-        return new Videos(
-            this.repo.loadAll()
-                .stream()
-                .map(VideoDto::new)
-                .toList()
+    public VideoDto load(final Long id) {
+        final var video = this.findById(id);
+        final var ids = List.of(id);
+        return new VideoDto(
+            video,
+            VideoItem.group(this.repo.loadSheets(ids))
+                .getOrDefault(id, List.of()),
+            VideoItem.group(this.repo.loadLyrics(ids))
+                .getOrDefault(id, List.of())
+        );
+    }
+
+    @Override
+    public void stream(final Consumer<VideoDto> consumer) {
+        final int size = Integer.parseInt(Fetch.SIZE);
+        this.reads.executeWithoutResult(
+            status -> {
+                try (var rows = this.repo.streamAll()) {
+                    final var chunk = new ArrayList<Video>(size);
+                    rows.forEach(
+                        video -> {
+                            chunk.add(video);
+                            if (chunk.size() == size) {
+                                this.flush(chunk, consumer);
+                            }
+                        }
+                    );
+                    this.flush(chunk, consumer);
+                }
+            }
+        );
+    }
+
+    /**
+     * Rebuild the catalogue snapshot if the catalogue was changed.
+     * Runs before the other listeners, so they already see the new build.
+     *
+     * @param event Catalogue change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogueChanged(final CatalogueChanged event) {
+        this.cache.onChange(event);
+    }
+
+    /**
+     * Load a page from the database.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @return Page.
+     */
+    private Videos query(final Cursor after, final int limit) {
+        return this.page(
+            after, limit,
+            found -> {
+                final var sheets = VideoItem.group(this.repo.loadSheets(found));
+                final var lyrics = VideoItem.group(this.repo.loadLyrics(found));
+                return this.repo.loadAll(found).stream()
+                    .map(
+                        video -> new VideoDto(
+                            video,
+                            sheets.getOrDefault(video.getId(), List.of()),
+                            lyrics.getOrDefault(video.getId(), List.of())
+                        )
+                    )
+                    .toList();
+            }
         );
     }
 
+    /**
+     * Load a keyset page: one ID more than the page size is selected, so we
+     * know whether there is a next page, and the videos of the page are
+     * loaded by their IDs.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @param load  Loader of the videos by their IDs, newest first.
+     * @return Page.
+     */
+    private Videos page(
+        final Cursor after,
+        final int limit,
+        final Function<List<Long>, List<VideoDto>> load
+    ) {
+        final var ids = this.ids(after, limit);
+        if (ids.isEmpty()) {
+            return new Videos(List.of(), null);
+        }
+        final var page = load.apply(ids.stream().limit(limit).toList());
+        String next = null;
+        if (ids.size() > limit && !page.isEmpty()) {
+            final var last = page.get(page.size() - 1);
+            next = new Cursor(last.getCreatedOn(), last.getId()).encode();
+        }
+        return new Videos(page, next);
+    }
+
+    /**
+     * Load the IDs of the page from the database.
+     *
+     * @param after Cursor of the previous page or null for the first page.
+     * @param limit Page size.
+     * @return IDs of the page and of the first video of the next page.
+     */
+    private List<Long> ids(final Cursor after, final int limit) {
+        final List<Long> ids;
+        if (after == null) {
+            ids = this.repo.loadFirst(Cursor.window(limit));
+        } else {
+            ids = this.repo.loadAfter(
+                after.getCreatedOn(), after.getId(), Cursor.window(limit)
+            );
+        }
+        return ids;
+    }
+
+    /**
+     * Load the nested collections of the chunk of streamed videos, pass the
+     * videos to the consumer and detach them together with their
+     * collections.
+     *
+     * @param chunk    Streamed videos. The list is emptied.
+     * @param consumer Consumer of the videos.
+     */
+    private void flush(
+        final List<Video> chunk, final Consumer<VideoDto> consumer
+    ) {
+        if (!chunk.isEmpty()) {
+            final var ids = chunk.stream().map(Video::getId).toList();
+            final var sheets = VideoItem.group(this.repo.loadSheets(ids));
+            final var lyrics = VideoItem.group(this.repo.loadLyrics(ids));
+            chunk.forEach(
+                video -> consumer.accept(
+                    new VideoDto(
+                        video,
+                        sheets.getOrDefault(video.getId(), List.of()),
+                        lyrics.getOrDefault(video.getId(), List.of())
+                    )
+                )
+            );
+            chunk.clear();
+            this.entities.clear();
+        }
+    }
+
     @Override
     public VideoDto save(final VideoDto video) {
-        return new VideoDto(this.repo.save(new Video(video)));
+        final var saved = new VideoDto(this.repo.save(new Video(video)));
+        this.events.publishEvent(new CatalogueChanged(Video.class));
+        return saved;
+    }
+
+    @Override
+    public List<VideoDto> saveAll(final Collection<VideoDto> batch) {
+        final var saved = this.repo.saveAll(
+            batch.stream().map(Video::new).toList()
+        ).stream().map(VideoDto::new).toList();
+        this.events.publishEvent(new CatalogueChanged(Video.class));
+        return saved;
     }
 
     @Override
     public void delete(final Long id) {
         this.repo.delete(this.findById(id));
+        this.events.publishEvent(new CatalogueChanged(Video.class));
     }
 
     /**
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Email addresses that are safe to put into an SMTP command or a message
+ * header: a plain "local@domain" without any whitespace, angle brackets or
+ * other characters that could end the command or the header.
+ *
+ * @since 0.3
+ */
+public final class EmailAddress {
+
+    /**
+     * Maximal length of an address (RFC 5321).
+     */
+    private static final int MAX_LENGTH = 254;
+
+    /**
+     * Address format.
+     */
+    private static final Pattern FORMAT = Pattern.compile(
+        "[^\\s<>@\"(),;:\\\\\\[\\]]+@[A-Za-z0-9](?:[A-Za-z0-9-]*[A-Za-z0-9])?"
+            + "(?:\\.[A-Za-z0-9](?:[A-Za-z0-9-]*[A-Za-z0-9])?)+"
+    );
+
+    /**
+     * Hidden ctor.
+     */
+    private EmailAddress() {
+    }
+
+    /**
+     * Whether the address is valid.
+     *
+     * @param address Address.
+     * @return True if it is.
+     */
+    public static boolean valid(final String address) {
+        return address != null && address.length() <= MAX_LENGTH
+            && FORMAT.matcher(address).matches();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 digests of the secrets that we must not keep as they are and of
+ * the content that we look up by a short key.
+ *
+ * @since 0.3
+ */
+public final class Sha256 {
+
+    /**
+     * Hidden ctor.
+     */
+    private Sha256() {
+    }
+
+    /**
+     * Digest of the text.
+     *
+     * @param text Text.
+     * @return Digest.
+     */
+    public static byte[] digest(final String text) {
+        return Sha256.sha().digest(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Base64-encoded digest of the text.
+     *
+     * @param text Text.
+     * @return Digest.
+     */
+    public static String base64(final String text) {
+        return Base64.getEncoder().encodeToString(Sha256.digest(text));
+    }
+
+    /**
+     * Base64-encoded digest of the fields. Every field is prefixed with its
+     * length in bytes, so moving the text from one field to its neighbour
+     * changes the digest.
+     *
+     * @param fields Fields.
+     * @return Digest.
+     */
+    public static String fields(final String... fields) {
+        final var digest = Sha256.sha();
+        for (final var field : fields) {
+            final var bytes = field.getBytes(StandardCharsets.UTF_8);
+            digest.update(
+                String.format("%d:", bytes.length)
+                    .getBytes(StandardCharsets.US_ASCII)
+            );
+            digest.update(bytes);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    /**
+     * New SHA-256 digest.
+     *
+     * @return Digest.
+     */
+    private static MessageDigest sha() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException error) {
+            throw new IllegalStateException(error);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Test for {@link BatchConsumers}.
+ *
+ * @since 0.3
+ */
+final class BatchConsumersTest extends AndysIntegrationTest {
+
+    /**
+     * Batch consumers.
+     */
+    @Autowired
+    private BatchConsumers consumers;
+
+    /**
+     * Metrics.
+     */
+    @Autowired
+    private Metrics metrics;
+
+    /**
+     * Check that we read the queue depth from the embedded broker and
+     * report the consumers of the queues.
+     */
+    @Test
+    void testQueues() {
+        Assertions.assertEquals(0L, this.consumers.depth("nobody.listens"));
+        final var report = this.metrics.report();
+        final var workers = (Long) report.get(
+            String.format("jms.%s.consumers", EmailProcessor.EMAIL_QUEUE)
+        );
+        Assertions.assertTrue(workers >= this.consumers.getMinConsumers());
+        Assertions.assertTrue(workers <= this.consumers.getMaxConsumers());
+        Assertions.assertTrue(
+            report.containsKey(
+                String.format("jms.%s.depth", ContactIngest.CONTACT_QUEUE)
+            )
+        );
+    }
+}
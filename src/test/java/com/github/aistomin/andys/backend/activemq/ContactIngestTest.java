@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.controllers.contact.ContactRequest;
+import com.github.aistomin.andys.backend.model.EmailMessageRepository;
+import com.github.aistomin.andys.backend.model.PersonRepository;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Test for {@link ContactIngest}.
+ *
+ * @since 0.3
+ */
+final class ContactIngestTest extends AndysIntegrationTest {
+
+    /**
+     * Sleep timeout.
+     */
+    private static final Long TIMEOUT = 3_000L;
+
+    /**
+     * Person repository.
+     */
+    @Autowired
+    private PersonRepository persons;
+
+    /**
+     * Email message repository.
+     */
+    @Autowired
+    private EmailMessageRepository emails;
+
+    /**
+     * Asynchronous ingestion of the requests.
+     */
+    @Autowired
+    private ContactIngest ingest;
+
+    /**
+     * Check that we store the queued requests and skip the duplicates.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testIngest() throws InterruptedException {
+        final var first = new ContactRequest(
+            "queued@mailinator.com", "Hello!", "Is anybody there?", true
+        );
+        final var second = new ContactRequest(
+            "queued@mailinator.com", "Hello again!", "Anybody?", false
+        );
+        this.ingest.submit(first);
+        this.ingest.submit(first);
+        this.ingest.submit(second);
+        Thread.sleep(TIMEOUT);
+        final var person = this.persons.findByEmail(first.getEmail());
+        Assertions.assertNotNull(person);
+        Assertions.assertFalse(person.getAllowToSendNewsLetters());
+        Assertions.assertEquals(
+            2, this.emails.findAllByDispatcher(person).size()
+        );
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.metrics.Metrics;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for {@link DomainThrottle}.
+ *
+ * @since 0.3
+ */
+final class DomainThrottleTest {
+
+    /**
+     * Check that a domain gets no more emails than its rate and
+     * concurrency allow and that the other domains are not affected.
+     */
+    @Test
+    void testLimits() {
+        final var metrics = new Metrics();
+        final var throttle = new DomainThrottle(
+            2, Duration.ofSeconds(MagicNumber.THOUSAND), 1,
+            MagicNumber.TEN, Duration.ofMillis(MagicNumber.TEN),
+            MagicNumber.TEN, MagicNumber.TEN, metrics, ids -> { }
+        );
+        try {
+            Assertions.assertTrue(throttle.admit("a.com", 0L).isZero());
+            Assertions.assertFalse(throttle.admit("a.com", 0L).isZero());
+            Assertions.assertTrue(throttle.admit("b.com", 0L).isZero());
+            throttle.done("a.com");
+            Assertions.assertTrue(throttle.enter("a.com").isZero());
+            throttle.done("a.com");
+            Assertions.assertFalse(throttle.admit("a.com", 0L).isZero());
+            Assertions.assertEquals(
+                2L, metrics.report().get("email.domains.a.com.sent")
+            );
+        } finally {
+            throttle.stop();
+        }
+    }
+
+    /**
+     * Check that the emails over the rate of a domain are due one by one
+     * at the rate of the domain.
+     */
+    @Test
+    void testReservations() {
+        final var throttle = new DomainThrottle(
+            1, Duration.ofSeconds(1L), MagicNumber.TEN,
+            MagicNumber.TEN, Duration.ofMillis(MagicNumber.TEN),
+            MagicNumber.TEN, MagicNumber.TEN, new Metrics(), ids -> { }
+        );
+        try {
+            Assertions.assertTrue(throttle.admit("a.com", 0L).isZero());
+            for (int idx = 1; idx <= MagicNumber.THREE; ++idx) {
+                Assertions.assertEquals(
+                    Duration.ofSeconds(idx), throttle.admit("a.com", 0L)
+                );
+            }
+        } finally {
+            throttle.stop();
+        }
+    }
+
+    /**
+     * Check that a parked email is released after its wait.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testPark() throws Exception {
+        final var released = new CompletableFuture<List<Long>>();
+        final var throttle = new DomainThrottle(
+            1, Duration.ofSeconds(1L), 1, MagicNumber.TEN,
+            Duration.ofMillis(MagicNumber.TEN), MagicNumber.TEN,
+            MagicNumber.TEN, new Metrics(), released::complete
+        );
+        try {
+            Assertions.assertTrue(
+                throttle.park(MagicNumber.THOUSAND * 1L, Duration.ofMillis(1L))
+            );
+            Assertions.assertEquals(
+                List.of(MagicNumber.THOUSAND * 1L),
+                released.get(MagicNumber.THREE, TimeUnit.SECONDS)
+            );
+        } finally {
+            throttle.stop();
+        }
+    }
+
+    /**
+     * Check that the wheel takes a bounded number of the emails for at most
+     * one turn and releases them in chunks.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testCapacity() throws Exception {
+        final var released = new LinkedBlockingQueue<List<Long>>();
+        final var throttle = new DomainThrottle(
+            1, Duration.ofSeconds(1L), 1, MagicNumber.TEN,
+            Duration.ofMillis(MagicNumber.TEN), MagicNumber.THREE, 2,
+            new Metrics(), released::add
+        );
+        try {
+            Assertions.assertFalse(throttle.park(0L, Duration.ofHours(1L)));
+            final var second = Duration.ofSeconds(1L);
+            for (long id = 0L; id < MagicNumber.THREE; ++id) {
+                Assertions.assertTrue(throttle.park(id, second));
+            }
+            Assertions.assertFalse(throttle.park(-1L, second));
+            final var first = released.poll(
+                MagicNumber.THREE, TimeUnit.SECONDS
+            );
+            Assertions.assertNotNull(first);
+            int count = first.size();
+            while (count < MagicNumber.THREE) {
+                final var next = released.poll(
+                    MagicNumber.THREE, TimeUnit.SECONDS
+                );
+                Assertions.assertNotNull(next);
+                Assertions.assertTrue(next.size() <= 2);
+                count += next.size();
+            }
+            Assertions.assertTrue(first.size() <= 2);
+        } finally {
+            throttle.stop();
+        }
+    }
+
+    /**
+     * Check that the concurrent senders of one domain never take more
+     * places than allowed and give back all of them.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testConcurrency() throws Exception {
+        final var throttle = new DomainThrottle(
+            MagicNumber.THOUSAND, Duration.ofSeconds(1L), 1, MagicNumber.TEN,
+            Duration.ofMillis(MagicNumber.TEN), MagicNumber.TEN,
+            MagicNumber.TEN, new Metrics(), ids -> { }
+        );
+        final var inside = new AtomicInteger();
+        final var crowded = new AtomicInteger();
+        final var threads = Executors.newFixedThreadPool(MagicNumber.FIVE);
+        try {
+            final var workers = new ArrayList<Future<?>>(MagicNumber.FIVE);
+            for (int idx = 0; idx < MagicNumber.FIVE; ++idx) {
+                workers.add(
+                    threads.submit(
+                        () -> {
+                            for (int run = 0; run < MagicNumber.THOUSAND
+                                * MagicNumber.TEN; ++run) {
+                                if (throttle.enter("a.com").isZero()) {
+                                    if (inside.incrementAndGet() > 1) {
+                                        crowded.incrementAndGet();
+                                    }
+                                    inside.decrementAndGet();
+                                    throttle.done("a.com");
+                                }
+                            }
+                        }
+                    )
+                );
+            }
+            for (final var worker : workers) {
+                worker.get();
+            }
+            Assertions.assertEquals(0, crowded.get());
+            Assertions.assertTrue(throttle.enter("a.com").isZero());
+        } finally {
+            threads.shutdownNow();
+            throttle.stop();
+        }
+    }
+
+    /**
+     * Check that the domain is taken from the email address.
+     */
+    @Test
+    void testDomain() {
+        Assertions.assertEquals(
+            "mailinator.com", DomainThrottle.domain("Who@Mailinator.COM")
+        );
+    }
+}
@@ -22,9 +22,12 @@ import com.github.aistomin.andys.backend.model.EmailMessageType;
 import com.github.aistomin.andys.backend.model.Person;
 import com.github.aistomin.andys.backend.model.PersonRepository;
 import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.core.JmsTemplate;
+import java.util.ArrayList;
 import java.util.Date;
 
 /**
@@ -57,6 +60,12 @@ final class EmailProcessorTest extends AndysIntegrationTest {
     @Autowired
     private EmailSender sender;
 
+    /**
+     * JMS template.
+     */
+    @Autowired
+    private JmsTemplate jms;
+
     /**
      * Check that we are correctly sending emails.
      *
@@ -104,4 +113,165 @@ final class EmailProcessorTest extends AndysIntegrationTest {
             emails.findById(successful.getId()).get().getStatus()
         );
     }
+
+    /**
+     * Check that we process a batch of emails with mixed outcomes.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testProcessBatch() throws InterruptedException {
+        final Person anna = this.persons.save(
+            new Person(
+                null, "Anna", "Doe", "anna@successful.email", true, new Date()
+            )
+        );
+        final Person ben = this.persons.save(
+            new Person(
+                null, "Ben", "Doe", "ben@failed.email", true, new Date()
+            )
+        );
+        final var drafts = new ArrayList<EmailMessage>();
+        for (int idx = 0; idx < MagicNumber.TEN; ++idx) {
+            final Person receptor;
+            final EmailMessageStatus expected;
+            if (idx % 2 == 0) {
+                receptor = anna;
+                expected = EmailMessageStatus.SENT;
+            } else {
+                receptor = ben;
+                expected = EmailMessageStatus.FAILED;
+            }
+            final var body = String.format("Batch email #%d", idx);
+            drafts.add(
+                new EmailMessage(
+                    null, ben, receptor, expected.name(), body,
+                    EmailMessageStatus.CREATED, EmailMessageType.NEWS_LETTER,
+                    null, new Date(),
+                    EmailMessage.fingerprint(
+                        ben.getEmail(), receptor.getEmail(),
+                        expected.name(), body
+                    ),
+                    null
+                )
+            );
+        }
+        final var sent = this.sender.sendEmails(drafts);
+        Thread.sleep(TIMEOUT);
+        final var stored = this.emails.findAllById(
+            sent.stream().map(EmailMessage::getId).toList()
+        );
+        Assertions.assertEquals(MagicNumber.TEN, stored.size());
+        for (final var email : stored) {
+            Assertions.assertEquals(
+                EmailMessageStatus.valueOf(email.getSubject()),
+                email.getStatus()
+            );
+        }
+    }
+
+    /**
+     * Check that a message about an email that is not created any more does
+     * not send the email again.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testRedelivery() throws InterruptedException {
+        final Person carl = this.persons.save(
+            new Person(
+                null, "Carl", "Doe", "carl@successful.email", true, new Date()
+            )
+        );
+        final var body = "Already failed";
+        final var failed = this.emails.save(
+            new EmailMessage(
+                null, carl, carl, body, body,
+                EmailMessageStatus.FAILED, EmailMessageType.NEWS_LETTER,
+                null, new Date(),
+                EmailMessage.fingerprint(
+                    carl.getEmail(), carl.getEmail(), body, body
+                ),
+                null
+            )
+        );
+        this.jms.convertAndSend(
+            EmailProcessor.lane(EmailMessageType.NEWS_LETTER),
+            String.format("{\"email_id\":%d}", failed.getId())
+        );
+        Thread.sleep(TIMEOUT);
+        Assertions.assertEquals(
+            EmailMessageStatus.FAILED,
+            this.emails.findById(failed.getId()).get().getStatus()
+        );
+    }
+
+    /**
+     * Check that a stale created email without a queue message is sent
+     * after the recovery.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testRecover() throws InterruptedException {
+        final Person dora = this.persons.save(
+            new Person(
+                null, "Dora", "Doe", "dora@successful.email", true, new Date()
+            )
+        );
+        final var body = "Lost on restart";
+        final var lost = this.emails.save(
+            new EmailMessage(
+                null, dora, dora, body, body,
+                EmailMessageStatus.CREATED, EmailMessageType.NEWS_LETTER,
+                null, new Date(System.currentTimeMillis() - TIMEOUT * TIMEOUT),
+                EmailMessage.fingerprint(
+                    dora.getEmail(), dora.getEmail(), body, body
+                ),
+                null
+            )
+        );
+        Assertions.assertTrue(this.sender.recover() > 0);
+        Thread.sleep(TIMEOUT);
+        Assertions.assertEquals(
+            EmailMessageStatus.SENT,
+            this.emails.findById(lost.getId()).get().getStatus()
+        );
+    }
+
+    /**
+     * Check that an email that stays claimed after its node stopped is
+     * sent after the sweep.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testSweep() throws InterruptedException {
+        final Person emil = this.persons.save(
+            new Person(
+                null, "Emil", "Doe", "emil@successful.email", true, new Date()
+            )
+        );
+        final var body = "Stuck while sending";
+        final var ago = new Date(
+            System.currentTimeMillis() - TIMEOUT * TIMEOUT
+        );
+        final var stuck = this.emails.save(
+            new EmailMessage(
+                null, emil, emil, body, body,
+                EmailMessageStatus.SENDING, EmailMessageType.NEWS_LETTER,
+                null, ago,
+                EmailMessage.fingerprint(
+                    emil.getEmail(), emil.getEmail(), body, body
+                ),
+                ago
+            )
+        );
+        Assertions.assertTrue(this.sender.sweep() > 0);
+        Thread.sleep(TIMEOUT);
+        Assertions.assertEquals(
+            EmailMessageStatus.SENT,
+            this.emails.findById(stuck.getId()).get().getStatus()
+        );
+    }
 }
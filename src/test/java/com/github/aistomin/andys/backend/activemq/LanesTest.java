@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Lanes}.
+ *
+ * @since 0.3
+ */
+final class LanesTest {
+
+    /**
+     * Check that the busy lanes are served in proportion to their weights
+     * and without bursts.
+     */
+    @Test
+    void testWeights() {
+        final var lanes = new Lanes(MagicNumber.THREE, 1);
+        final var served = new StringBuilder();
+        for (int turn = 0; turn < MagicNumber.TEN - 2; ++turn) {
+            final int lane = lanes.order()[0];
+            lanes.served(lane);
+            served.append(lane);
+        }
+        Assertions.assertEquals("00100010", served.toString());
+    }
+
+    /**
+     * Check that an empty lane is skipped and does not save up its turns.
+     */
+    @Test
+    void testEmptyLane() {
+        final var lanes = new Lanes(MagicNumber.THREE, 1);
+        for (int turn = 0; turn < MagicNumber.TEN; ++turn) {
+            final var order = lanes.order();
+            Assertions.assertEquals(2, order.length);
+            lanes.empty(1);
+            lanes.served(0);
+        }
+        lanes.order();
+        lanes.empty(0);
+        lanes.served(1);
+        Assertions.assertEquals(0, lanes.order()[0]);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.model.OutboxMessage;
+import com.github.aistomin.andys.backend.model.OutboxMessageRepository;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link OutboxRelay}.
+ *
+ * @since 0.3
+ */
+final class OutboxRelayTest extends AndysIntegrationTest {
+
+    /**
+     * Outbox repository.
+     */
+    @Autowired
+    private OutboxMessageRepository outbox;
+
+    /**
+     * Outbox relay.
+     */
+    @Autowired
+    private OutboxRelay relay;
+
+    /**
+     * Batch consumers.
+     */
+    @Autowired
+    private BatchConsumers consumers;
+
+    /**
+     * Check that the relay publishes the outbox messages and deletes them.
+     */
+    @Test
+    void testRelay() {
+        final var queue = "outbox.test";
+        final var now = new Date();
+        this.outbox.save(new OutboxMessage(null, queue, "first", now, now));
+        this.outbox.save(new OutboxMessage(null, queue, "second", now, now));
+        while (this.relay.relay() > 0) {
+            Assertions.assertTrue(this.consumers.depth(queue) > 0L);
+        }
+        Assertions.assertEquals(2L, this.consumers.depth(queue));
+        Assertions.assertEquals(0L, this.outbox.count());
+    }
+
+    /**
+     * Check that the relay keeps a delayed message until its time.
+     */
+    @Test
+    void testDelay() {
+        final var queue = "outbox.delayed";
+        final var now = new Date();
+        final var delayed = this.outbox.save(
+            new OutboxMessage(
+                null, queue, "later", now,
+                new Date(now.getTime() + TimeUnit.HOURS.toMillis(1L))
+            )
+        );
+        while (this.relay.relay() > 0) {
+            Assertions.assertTrue(this.outbox.existsById(delayed.getId()));
+        }
+        Assertions.assertTrue(this.outbox.existsById(delayed.getId()));
+        Assertions.assertEquals(0L, this.consumers.depth(queue));
+        this.outbox.deleteById(delayed.getId());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.activemq;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Test for {@link TimingWheel}.
+ *
+ * @since 0.3
+ */
+final class TimingWheelTest {
+
+    /**
+     * Check that the items are released on their ticks, also after more
+     * than one turn of the wheel.
+     */
+    @Test
+    void testAdvance() {
+        final var wheel = new TimingWheel<String>(
+            Duration.ofNanos(MagicNumber.TEN), MagicNumber.FIVE, 0L
+        );
+        wheel.schedule("soon", MagicNumber.TEN);
+        wheel.schedule("later", MagicNumber.THOUSAND / 2);
+        wheel.schedule("past", -MagicNumber.THOUSAND);
+        Assertions.assertEquals(MagicNumber.THREE, wheel.size());
+        Assertions.assertEquals(List.of(), wheel.advance(MagicNumber.FIVE));
+        Assertions.assertEquals(
+            List.of("soon", "past"), wheel.advance(MagicNumber.TEN)
+        );
+        Assertions.assertEquals(
+            List.of(), wheel.advance(MagicNumber.THOUSAND / 2 - 1)
+        );
+        Assertions.assertEquals(
+            List.of("later"), wheel.advance(MagicNumber.THOUSAND / 2)
+        );
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Check that a long pause releases everything that is due at once.
+     */
+    @Test
+    void testJump() {
+        final var wheel = new TimingWheel<String>(
+            Duration.ofNanos(1L), 2, 0L
+        );
+        wheel.schedule("first", 1L);
+        wheel.schedule("second", MagicNumber.THREE);
+        wheel.schedule("third", MagicNumber.THOUSAND);
+        Assertions.assertEquals(
+            2, wheel.advance(MagicNumber.TEN).size()
+        );
+        Assertions.assertEquals(
+            List.of("third"), wheel.advance(MagicNumber.THOUSAND)
+        );
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.model.MusicSheet;
+import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test for {@link PreparedBodies}.
+ *
+ * @since 0.3
+ */
+final class PreparedBodiesTest {
+
+    /**
+     * Key of the page.
+     */
+    private static final String KEY = "null:50";
+
+    /**
+     * Check that we serialize the body once per catalogue version.
+     */
+    @Test
+    void testSerializeOnce() {
+        final var bodies = new PreparedBodies(new ObjectMapper(), Video.class);
+        final var loads = new AtomicInteger();
+        final var first = bodies.respond(KEY, null, null, () -> load(loads));
+        final var second = bodies.respond(KEY, null, null, () -> load(loads));
+        Assertions.assertEquals(HttpStatus.OK, first.getStatusCode());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertArrayEquals(first.getBody(), second.getBody());
+        Assertions.assertEquals(
+            first.getHeaders().getETag(), second.getHeaders().getETag()
+        );
+        Assertions.assertEquals(
+            "[\"video\"]", new String(first.getBody())
+        );
+    }
+
+    /**
+     * Check that we answer with 304 without loading the catalogue if the
+     * client has the current body.
+     */
+    @Test
+    void testNotModified() {
+        final var bodies = new PreparedBodies(new ObjectMapper(), Video.class);
+        final var loads = new AtomicInteger();
+        final var tag = bodies.respond(KEY, null, null, () -> load(loads))
+            .getHeaders()
+            .getETag();
+        final var response = bodies.respond(
+            KEY, tag, null, () -> load(loads)
+        );
+        Assertions.assertEquals(
+            HttpStatus.NOT_MODIFIED, response.getStatusCode()
+        );
+        Assertions.assertEquals(tag, response.getHeaders().getETag());
+        Assertions.assertNull(response.getBody());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(
+            HttpStatus.OK,
+            bodies.respond(KEY, "\"other\"", null, () -> load(loads))
+                .getStatusCode()
+        );
+    }
+
+    /**
+     * Check that we serve the compressed body to the clients that accept it.
+     *
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    void testGzip() throws IOException {
+        final var bodies = new PreparedBodies(new ObjectMapper(), Video.class);
+        final var loads = new AtomicInteger();
+        final var plain = bodies.respond(KEY, null, null, () -> load(loads));
+        final var zipped = bodies.respond(
+            KEY, null, "deflate, gzip", () -> load(loads)
+        );
+        Assertions.assertEquals(
+            "gzip", zipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)
+        );
+        Assertions.assertNotEquals(
+            plain.getHeaders().getETag(), zipped.getHeaders().getETag()
+        );
+        try (var unzip = new GZIPInputStream(
+            new ByteArrayInputStream(zipped.getBody())
+        )) {
+            Assertions.assertArrayEquals(plain.getBody(), unzip.readAllBytes());
+        }
+        Assertions.assertEquals(
+            HttpStatus.NOT_MODIFIED,
+            bodies.respond(
+                KEY, zipped.getHeaders().getETag(), "gzip", () -> load(loads)
+            ).getStatusCode()
+        );
+        Assertions.assertNull(
+            bodies.respond(KEY, null, "gzip;q=0", () -> load(loads))
+                .getHeaders()
+                .getFirst(HttpHeaders.CONTENT_ENCODING)
+        );
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    /**
+     * Check that a change of a source starts a new version and a change of
+     * another entity does not.
+     */
+    @Test
+    void testChange() {
+        final var bodies = new PreparedBodies(new ObjectMapper(), Video.class);
+        final var loads = new AtomicInteger();
+        final var tag = bodies.respond(KEY, null, null, () -> load(loads))
+            .getHeaders()
+            .getETag();
+        bodies.onChange(new CatalogueChanged(MusicSheet.class));
+        Assertions.assertEquals(
+            HttpStatus.NOT_MODIFIED,
+            bodies.respond(KEY, tag, null, () -> load(loads)).getStatusCode()
+        );
+        bodies.onChange(new CatalogueChanged(Video.class));
+        final var fresh = bodies.respond(KEY, tag, null, () -> load(loads));
+        Assertions.assertEquals(HttpStatus.OK, fresh.getStatusCode());
+        Assertions.assertNotEquals(tag, fresh.getHeaders().getETag());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * Load the catalogue.
+     *
+     * @param loads Counter of the loads.
+     * @return Catalogue.
+     */
+    private static List<String> load(final AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of("video");
+    }
+}
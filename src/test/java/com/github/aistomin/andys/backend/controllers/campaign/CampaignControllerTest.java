@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.campaign;
+
+import com.github.aistomin.andys.backend.controllers.Authenticator;
+import com.github.aistomin.andys.backend.model.EmailMessageRepository;
+import com.github.aistomin.andys.backend.model.EmailMessageType;
+import com.github.aistomin.andys.backend.model.Person;
+import com.github.aistomin.andys.backend.model.PersonRepository;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test for {@link CampaignController}.
+ *
+ * @since 0.3
+ */
+final class CampaignControllerTest extends AndysIntegrationTest {
+
+    /**
+     * Test authenticator.
+     */
+    @Autowired
+    private Authenticator authenticator;
+
+    /**
+     * Test REST template.
+     */
+    @Autowired
+    private TestRestTemplate template;
+
+    /**
+     * Person repository.
+     */
+    @Autowired
+    private PersonRepository persons;
+
+    /**
+     * Email message repository.
+     */
+    @Autowired
+    private EmailMessageRepository emails;
+
+    /**
+     * Check that a campaign enqueues the newsletter for the subscribers
+     * only and finishes.
+     *
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    void testCampaign() throws InterruptedException {
+        final var subscribers = Set.of(
+            "first@campaign.email", "second@campaign.email"
+        );
+        for (final var email : subscribers) {
+            this.persons.save(
+                new Person(null, "Sub", "Scriber", email, true, new Date())
+            );
+        }
+        this.persons.save(
+            new Person(
+                null, "Not", "Interested", "third@campaign.email", false,
+                new Date()
+            )
+        );
+        final var request = new CampaignRequest(
+            "Campaign newsletter", "Our new videos are out!"
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.postForEntity(
+                "/campaigns", new HttpEntity<>(request), CampaignDto.class
+            ).getStatusCode()
+        );
+        final var auth = this.authenticator.authenticateAsAdmin();
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.template.postForEntity(
+                "/campaigns",
+                new HttpEntity<>(new CampaignRequest("Subject", " "), auth),
+                CampaignDto.class
+            ).getStatusCode()
+        );
+        final var started = this.template.postForEntity(
+            "/campaigns", new HttpEntity<>(request, auth), CampaignDto.class
+        );
+        Assertions.assertEquals(HttpStatus.ACCEPTED, started.getStatusCode());
+        final var url = String.format(
+            "/campaigns/%d", started.getBody().getId()
+        );
+        CampaignDto campaign = started.getBody();
+        for (int attempt = 0; attempt < MagicNumber.TEN
+            && campaign.getFinishedOn() == null; ++attempt) {
+            Thread.sleep(MagicNumber.THOUSAND);
+            campaign = this.template.exchange(
+                url, HttpMethod.GET, new HttpEntity<>(auth), CampaignDto.class
+            ).getBody();
+        }
+        Assertions.assertNotNull(campaign.getFinishedOn());
+        final var receptors = new HashSet<Long>();
+        for (final var email : this.emails.findAll()) {
+            if (email.getSubject().equals(request.getSubject())) {
+                Assertions.assertEquals(
+                    EmailMessageType.NEWS_LETTER, email.getType()
+                );
+                receptors.add(email.getReceptor().getId());
+            }
+        }
+        Assertions.assertEquals(
+            campaign.getEnqueued().intValue(), receptors.size()
+        );
+        for (final var email : subscribers) {
+            Assertions.assertTrue(
+                receptors.contains(this.persons.findByEmail(email).getId())
+            );
+        }
+        Assertions.assertFalse(
+            receptors.contains(
+                this.persons.findByEmail("third@campaign.email").getId()
+            )
+        );
+    }
+}
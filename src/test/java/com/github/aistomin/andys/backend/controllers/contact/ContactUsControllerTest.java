@@ -18,11 +18,13 @@ package com.github.aistomin.andys.backend.controllers.contact;
 import com.github.aistomin.andys.backend.model.EmailMessageRepository;
 import com.github.aistomin.andys.backend.model.PersonRepository;
 import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 /**
@@ -140,4 +142,70 @@ class ContactUsControllerTest extends AndysIntegrationTest {
         );
         Assertions.assertEquals(1, mails.size());
     }
+
+    /**
+     * Check that we reject the requests from the same email over the limit
+     * before we touch the database.
+     */
+    @Test
+    void testRateLimit() {
+        final var api = "/contact/us";
+        final var request = new ContactRequest(
+            "flooder@mailinator.com",
+            "Hey you!",
+            "I will be flooding you!",
+            false
+        );
+        for (int idx = 0; idx < MagicNumber.FIVE; ++idx) {
+            Assertions.assertEquals(
+                HttpStatus.CREATED,
+                this.template.postForEntity(
+                    api, new HttpEntity<>(request), String.class
+                ).getStatusCode()
+            );
+        }
+        final var response = this.template.postForEntity(
+            api, new HttpEntity<>(request), String.class
+        );
+        Assertions.assertEquals(
+            HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode()
+        );
+        Assertions.assertNotNull(
+            response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+        );
+    }
+
+    /**
+     * Check that we reject the requests without the required fields.
+     */
+    @Test
+    void testInvalidRequest() {
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.template.postForEntity(
+                "/contact/us",
+                new HttpEntity<>(
+                    new ContactRequest(
+                        "silent@mailinator.com", "Hey you!", " ", false
+                    )
+                ),
+                String.class
+            ).getStatusCode()
+        );
+        Assertions.assertNull(
+            this.persons.findByEmail("silent@mailinator.com")
+        );
+        final var injected = "evil@mailinator.com>\r\nRCPT TO:<all@x.com";
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.template.postForEntity(
+                "/contact/us",
+                new HttpEntity<>(
+                    new ContactRequest(injected, "Hey you!", "Body", false)
+                ),
+                String.class
+            ).getStatusCode()
+        );
+        Assertions.assertNull(this.persons.findByEmail(injected));
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.Authenticator;
+import com.github.aistomin.andys.backend.model.VideoRepository;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test for {@link ExportController}.
+ *
+ * @since 0.3
+ */
+class ExportControllerTest extends AndysIntegrationTest {
+
+    /**
+     * Test REST template.
+     */
+    @Autowired
+    private TestRestTemplate template;
+
+    /**
+     * Authenticator.
+     */
+    @Autowired
+    private Authenticator authenticator;
+
+    /**
+     * Video repository.
+     */
+    @Autowired
+    private VideoRepository videos;
+
+    /**
+     * JSON mapper.
+     */
+    @Autowired
+    private ObjectMapper mapper;
+
+    /**
+     * Check that we export every video as a JSON line, both plain and
+     * compressed.
+     *
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    void testNdjson() throws IOException {
+        final var plain = this.export("/export/videos");
+        Assertions.assertEquals(HttpStatus.OK, plain.getStatusCode());
+        Assertions.assertEquals(
+            "attachment; filename=\"videos.ndjson\"",
+            plain.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)
+        );
+        final var text = new String(plain.getBody(), StandardCharsets.UTF_8);
+        final var lines = text.lines().toList();
+        Assertions.assertEquals(this.videos.count(), lines.size());
+        Assertions.assertTrue(
+            this.mapper.readTree(lines.get(0)).has("youtubeId")
+        );
+        final var zipped = this.export("/export/videos?gzip=true");
+        Assertions.assertEquals(HttpStatus.OK, zipped.getStatusCode());
+        try (var unzip = new GZIPInputStream(
+            new ByteArrayInputStream(zipped.getBody())
+        )) {
+            Assertions.assertEquals(
+                text, new String(unzip.readAllBytes(), StandardCharsets.UTF_8)
+            );
+        }
+    }
+
+    /**
+     * Check that we export the CSV file with the header line.
+     */
+    @Test
+    void testCsv() {
+        final var response = this.export("/export/videos?format=csv");
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        final var lines = new String(
+            response.getBody(), StandardCharsets.UTF_8
+        ).lines().toList();
+        Assertions.assertEquals(
+            "id,title,description,url,youtubeId,createdOn,publishedOn",
+            lines.get(0)
+        );
+        Assertions.assertEquals(this.videos.count() + 1, lines.size());
+    }
+
+    /**
+     * Check that we reject the unknown entities and formats before we start
+     * streaming.
+     */
+    @Test
+    void testInvalid() {
+        Assertions.assertEquals(
+            HttpStatus.NOT_FOUND,
+            this.export("/export/users").getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.export("/export/videos?format=xml").getStatusCode()
+        );
+    }
+
+    /**
+     * Check that anonymous users can not export anything.
+     */
+    @Test
+    void testUnauthorised() {
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.getForEntity("/export/persons", byte[].class)
+                .getStatusCode()
+        );
+    }
+
+    /**
+     * Export as admin.
+     *
+     * @param url Export URL.
+     * @return Response.
+     */
+    private ResponseEntity<byte[]> export(final String url) {
+        return this.template.exchange(
+            url,
+            HttpMethod.GET,
+            new HttpEntity<>(this.authenticator.authenticateAsAdmin()),
+            byte[].class
+        );
+    }
+}
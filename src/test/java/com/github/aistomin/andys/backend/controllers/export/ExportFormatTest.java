@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Test for {@link ExportFormat}.
+ *
+ * @since 0.3
+ */
+final class ExportFormatTest {
+
+    /**
+     * Exported columns.
+     */
+    private static final List<String> COLUMNS = List.of("id", "title", "on");
+
+    /**
+     * Check that we write one JSON object per line.
+     *
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    void testNdjson() throws IOException {
+        Assertions.assertEquals(
+            String.join(
+                "\n",
+                "{\"id\":1,\"title\":\"First\",\"on\":0}",
+                "{\"id\":2,\"title\":null,\"on\":null}",
+                ""
+            ),
+            ExportFormatTest.write(ExportFormat.NDJSON)
+        );
+    }
+
+    /**
+     * Check that we write the CSV header and escape the values.
+     *
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    void testCsv() throws IOException {
+        Assertions.assertEquals(
+            String.join(
+                "\r\n",
+                "id,title,on",
+                "1,First,1970-01-01T00:00:00Z",
+                "2,,",
+                "3,\"Say \"\"hi\"\", world\",",
+                ""
+            ),
+            ExportFormatTest.write(
+                ExportFormat.CSV,
+                new Object[] {2L + 1, "Say \"hi\", world", null}
+            )
+        );
+    }
+
+    /**
+     * Check that we reject the unknown formats.
+     */
+    @Test
+    void testParse() {
+        Assertions.assertEquals(ExportFormat.CSV, ExportFormat.parse("CsV"));
+        Assertions.assertThrows(
+            BadRequest.class, () -> ExportFormat.parse("xml")
+        );
+    }
+
+    /**
+     * Write two rows and the extra ones in the format.
+     *
+     * @param format Format.
+     * @param extra  Extra rows.
+     * @return Written text.
+     * @throws IOException If something goes wrong.
+     */
+    private static String write(
+        final ExportFormat format, final Object[]... extra
+    ) throws IOException {
+        final var output = new ByteArrayOutputStream();
+        format.write(
+            new ObjectMapper(),
+            COLUMNS,
+            rows -> {
+                rows.accept(new Object[] {1L, "First", new Date(0)});
+                rows.accept(new Object[] {2L, null, null});
+                List.of(extra).forEach(rows);
+            },
+            output
+        );
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
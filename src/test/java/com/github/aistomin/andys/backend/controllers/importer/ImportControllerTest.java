@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.importer;
+
+import com.github.aistomin.andys.backend.controllers.Authenticator;
+import com.github.aistomin.andys.backend.controllers.video.VideoDto;
+import com.github.aistomin.andys.backend.model.VideoRepository;
+import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import java.util.stream.LongStream;
+
+/**
+ * Test for {@link ImportController}.
+ *
+ * @since 0.3
+ */
+class ImportControllerTest extends AndysIntegrationTest {
+
+    /**
+     * Test REST template.
+     */
+    @Autowired
+    private TestRestTemplate template;
+
+    /**
+     * Authenticator.
+     */
+    @Autowired
+    private Authenticator authenticator;
+
+    /**
+     * Video repository.
+     */
+    @Autowired
+    private VideoRepository videos;
+
+    /**
+     * Check that we import the valid lines, link the videos with their
+     * music sheets and lyrics by title and report the invalid lines.
+     */
+    @Test
+    void testImport() {
+        final var body = String.join(
+            "\n",
+            "{\"sheet\":{\"title\":\"Imported sheet\"}}",
+            "{\"lyrics\":{\"title\":\"Imported lyrics\",\"text\":\"La-la\"}}",
+            "",
+            "{\"video\":{\"title\":\"Imported video\",\"url\":\"https://"
+                + "whatever.com/video/import\",\"youtubeId\":\"import\","
+                + "\"sheets\":[{\"title\":\"Imported sheet\"}],"
+                + "\"lyrics\":[{\"title\":\"Imported lyrics\"}]}}",
+            "{\"post\":{\"title\":\"Imported post\",\"text\":\"Hello\"}}",
+            "{\"video\":{\"title\":\"Bare video\",\"url\":\"https://"
+                + "whatever.com/video/bare\",\"youtubeId\":\"bare\","
+                + "\"sheets\":null,\"lyrics\":null}}",
+            "not json",
+            "{\"video\":{\"title\":\"Orphan\",\"url\":\"https://whatever.com"
+                + "/video/orphan\",\"youtubeId\":\"orphan\","
+                + "\"sheets\":[{\"title\":\"Missing sheet\"}]}}",
+            "{\"sheet\":{\"description\":\"No title\"}}"
+        );
+        final var headers = this.authenticator.authenticateAsAdmin();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        final var response = this.template.postForEntity(
+            "/import", new HttpEntity<>(body, headers), ImportReport.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        final var report = response.getBody();
+        final long total = body.lines().count();
+        Assertions.assertEquals(total - 1, report.getLines());
+        Assertions.assertEquals(
+            MagicNumber.FIVE.longValue(), report.getImported()
+        );
+        Assertions.assertEquals(
+            MagicNumber.THREE.longValue(), report.getFailed()
+        );
+        Assertions.assertEquals(
+            LongStream.rangeClosed(total - 2, total).boxed().toList(),
+            report.getErrors().stream()
+                .map(ImportError::getLine)
+                .sorted()
+                .toList()
+        );
+        final var video = this.videos.findByTitle("Imported video");
+        Assertions.assertNotNull(video);
+        Assertions.assertNull(this.videos.findByTitle("Orphan"));
+        Assertions.assertNotNull(this.videos.findByTitle("Bare video"));
+        final var details = this.template.getForObject(
+            String.format("/videos/%d", video.getId()), VideoDto.class
+        );
+        Assertions.assertEquals(1, details.getSheets().size());
+        Assertions.assertEquals(1, details.getLyrics().size());
+        Assertions.assertEquals(
+            "La-la", details.getLyrics().iterator().next().getText()
+        );
+    }
+
+    /**
+     * Check that anonymous users can not import anything.
+     */
+    @Test
+    void testUnauthorised() {
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.postForEntity(
+                "/import", new HttpEntity<>("{}"), ImportReport.class
+            ).getStatusCode()
+        );
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.paging;
+
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Test for {@link Cursor}.
+ *
+ * @since 0.3
+ */
+final class CursorTest {
+
+    /**
+     * Check that we can decode the cursor that we encoded.
+     */
+    @Test
+    void testEncodeDecode() {
+        final var cursor = new Cursor(new Date(), (long) MagicNumber.THOUSAND);
+        Assertions.assertEquals(cursor, Cursor.parse(cursor.encode()));
+        Assertions.assertNull(Cursor.parse(null));
+        Assertions.assertNull(Cursor.parse(" "));
+    }
+
+    /**
+     * Check that we reject the cursors that we did not issue.
+     */
+    @Test
+    void testInvalidCursor() {
+        Assertions.assertThrows(
+            BadRequest.class, () -> Cursor.parse("not a cursor")
+        );
+        Assertions.assertThrows(
+            BadRequest.class,
+            () -> Cursor.parse(
+                Base64.getUrlEncoder().encodeToString("1:2:3".getBytes())
+            )
+        );
+        Assertions.assertThrows(
+            BadRequest.class,
+            () -> Cursor.parse(
+                Base64.getUrlEncoder().encodeToString("abc:1".getBytes())
+            )
+        );
+    }
+
+    /**
+     * Check that we keep the page size within the bounds.
+     */
+    @Test
+    void testLimit() {
+        final int def = Integer.parseInt(Cursor.DEFAULT_LIMIT);
+        Assertions.assertEquals(def, Cursor.limit(null));
+        Assertions.assertEquals(def, Cursor.limit(0));
+        Assertions.assertEquals(MagicNumber.TEN, Cursor.limit(MagicNumber.TEN));
+        Assertions.assertEquals(
+            Cursor.MAX_LIMIT, Cursor.limit(MagicNumber.THOUSAND)
+        );
+        Assertions.assertEquals(
+            MagicNumber.THREE + 1,
+            Cursor.window(MagicNumber.THREE).getPageSize()
+        );
+    }
+
+    /**
+     * Check that we point the next page to the last row of the current one.
+     */
+    @Test
+    void testNext() {
+        final var rows = List.of(
+            new Cursor(new Date(MagicNumber.THOUSAND), 2L),
+            new Cursor(new Date(MagicNumber.TEN), 1L)
+        );
+        Assertions.assertNull(Cursor.next(rows, 2, row -> row));
+        Assertions.assertEquals(
+            rows.get(0).encode(), Cursor.next(rows, 1, row -> row)
+        );
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.paging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.controllers.exceptions.BadRequest;
+import com.github.aistomin.andys.backend.controllers.lyrics.LyricsCatalogue;
+import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for {@link Fields}.
+ *
+ * @since 0.3
+ */
+final class FieldsTest {
+
+    /**
+     * Properties that the client may request.
+     */
+    private static final Set<String> ALLOWED = Set.of("id", "title", "text");
+
+    /**
+     * Check that we parse the requested fields.
+     */
+    @Test
+    void testParse() {
+        final var defaults = Set.of("id");
+        Assertions.assertEquals(
+            new Fields(defaults), Fields.parse(null, ALLOWED, defaults)
+        );
+        Assertions.assertEquals(
+            new Fields(defaults), Fields.parse(" ", ALLOWED, defaults)
+        );
+        final var fields = Fields.parse(" title ,id,", ALLOWED, defaults);
+        Assertions.assertEquals(Set.of("id", "title"), fields.getNames());
+        Assertions.assertTrue(fields.has("title"));
+        Assertions.assertFalse(fields.has("text"));
+        Assertions.assertTrue(fields.within(ALLOWED));
+        Assertions.assertFalse(fields.within(defaults));
+        Assertions.assertEquals(
+            new Fields(ALLOWED), fields.and(new Fields(Set.of("text")))
+        );
+        Assertions.assertThrows(
+            BadRequest.class, () -> Fields.parse("id,secret", ALLOWED, defaults)
+        );
+    }
+
+    /**
+     * Check that we leave only the requested properties of the items.
+     */
+    @Test
+    void testSelect() {
+        final var lyrics = new LyricsDto(
+            (long) MagicNumber.TEN, "Title", "Text", new Date(), new Date()
+        );
+        final var tree = new Fields(Set.of("id", "title")).select(
+            new ObjectMapper(),
+            new LyricsCatalogue(List.of(lyrics), "next")
+        );
+        Assertions.assertEquals("next", tree.get("next").asText());
+        final var item = tree.get("content").get(0);
+        Assertions.assertEquals(2, item.size());
+        Assertions.assertEquals(MagicNumber.TEN, item.get("id").asInt());
+        Assertions.assertEquals("Title", item.get("title").asText());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.controllers.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.IntStream;
+
+/**
+ * Test for {@link StreamedArray}.
+ *
+ * @since 0.3
+ */
+final class StreamedArrayTest {
+
+    /**
+     * Check that we write all the items as one JSON array.
+     *
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    void testWrite() throws IOException {
+        final var mapper = new ObjectMapper();
+        final var output = new ByteArrayOutputStream();
+        new StreamedArray<Integer>(
+            mapper,
+            consumer -> IntStream.range(0, MagicNumber.THREE)
+                .forEach(consumer::accept)
+        ).writeTo(output);
+        Assertions.assertEquals("[0,1,2]", output.toString());
+        final var empty = new ByteArrayOutputStream();
+        new StreamedArray<Integer>(mapper, consumer -> { }).writeTo(empty);
+        Assertions.assertEquals("[]", empty.toString());
+    }
+
+    /**
+     * Check that we stop the source and rethrow the error if the client went
+     * away.
+     */
+    @Test
+    void testBrokenOutput() {
+        final var output = new OutputStream() {
+            @Override
+            public void write(final int data) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new StreamedArray<String>(
+                new ObjectMapper(),
+                consumer -> IntStream.range(0, MagicNumber.THOUSAND)
+                    .forEach(idx -> consumer.accept("x".repeat(idx)))
+            ).writeTo(output)
+        );
+    }
+}
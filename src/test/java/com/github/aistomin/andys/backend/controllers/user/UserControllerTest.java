@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -219,4 +220,48 @@ public final class UserControllerTest extends AndysIntegrationTest {
         );
         Assertions.assertEquals(HttpStatus.OK, allowed.getStatusCode());
     }
+
+    /**
+     * Check that the tokens of a deleted user are rejected at once.
+     */
+    @Test
+    void testDeletedUserToken() {
+        final var registration = new RegistrationDto();
+        registration.setUsername(UUID.randomUUID().toString());
+        registration.setPassword(UUID.randomUUID().toString());
+        final var created = this.template.postForEntity(
+            "/users/register",
+            new HttpEntity<>(
+                registration, this.authenticator.authenticateAsAdmin()
+            ),
+            UserDto.class
+        );
+        Assertions.assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        final var headers = new HttpHeaders();
+        headers.setBearerAuth(
+            this.authenticator.authenticate(
+                registration.getUsername(), registration.getPassword()
+            ).getBody().getToken()
+        );
+        Assertions.assertEquals(
+            HttpStatus.OK,
+            this.template.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers),
+                Users.class
+            ).getStatusCode()
+        );
+        this.template.exchange(
+            String.format("/users/%d", created.getBody().getId()),
+            HttpMethod.DELETE,
+            new HttpEntity<>(this.authenticator.authenticateAsAdmin()),
+            Void.class
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers),
+                Users.class
+            ).getStatusCode()
+        );
+    }
 }
@@ -15,21 +15,30 @@
  */
 package com.github.aistomin.andys.backend.controllers.video;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.aistomin.andys.backend.controllers.Authenticator;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
 import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMapAdapter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Test for {@link VideoController}.
@@ -226,4 +235,195 @@ public final class VideoControllerTest extends AndysIntegrationTest {
                 .isEmpty()
         );
     }
+
+    /**
+     * Check that we can walk through all the videos page by page.
+     */
+    @Test
+    public void testPagination() {
+        for (int idx = 0; idx < MagicNumber.THREE; idx++) {
+            final var video = new VideoDto();
+            video.setTitle(String.format("Paged video %d", idx));
+            video.setUrl(String.format("https://whatever.com/video/p%d", idx));
+            video.setYoutubeId(String.format("p%d", idx));
+            video.setCreatedOn(new Date());
+            this.template.postForEntity(
+                "/videos",
+                new HttpEntity<>(
+                    video, this.authenticator.authenticateAsAdmin()
+                ),
+                VideoDto.class
+            );
+        }
+        final var all = this.template.getForEntity("/videos", Videos.class)
+            .getBody()
+            .getContent();
+        final var ids = new ArrayList<Long>();
+        String next = null;
+        do {
+            final var page = this.template.getForEntity(
+                String.format(
+                    "/videos?limit=2%s",
+                    next == null ? "" : String.format("&after=%s", next)
+                ),
+                Videos.class
+            ).getBody();
+            Assertions.assertTrue(page.getContent().size() <= 2);
+            page.getContent().forEach(vid -> ids.add(vid.getId()));
+            next = page.getNext();
+        } while (next != null);
+        Assertions.assertEquals(
+            all.stream().map(VideoDto::getId).toList(), ids
+        );
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.template.getForEntity("/videos?after=garbage!", String.class)
+                .getStatusCode()
+        );
+    }
+
+    /**
+     * Check that the client can revalidate the list with its ETag and that
+     * the ETag changes when the catalogue changes.
+     */
+    @Test
+    public void testNotModified() {
+        final var first = this.template.getForEntity("/videos", String.class);
+        final var tag = first.getHeaders().getETag();
+        Assertions.assertNotNull(tag);
+        final var headers = new HttpHeaders();
+        headers.setIfNoneMatch(tag);
+        Assertions.assertEquals(
+            HttpStatus.NOT_MODIFIED,
+            this.template.exchange(
+                "/videos", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class
+            ).getStatusCode()
+        );
+        final var video = new VideoDto();
+        video.setTitle("Revalidated video");
+        video.setUrl("https://whatever.com/video/etag");
+        video.setYoutubeId("etag");
+        video.setCreatedOn(new Date());
+        this.template.postForEntity(
+            "/videos",
+            new HttpEntity<>(video, this.authenticator.authenticateAsAdmin()),
+            VideoDto.class
+        );
+        final var changed = this.template.exchange(
+            "/videos", HttpMethod.GET, new HttpEntity<>(headers), Videos.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, changed.getStatusCode());
+        Assertions.assertNotEquals(tag, changed.getHeaders().getETag());
+        Assertions.assertTrue(
+            changed.getBody().getContent().stream()
+                .anyMatch(vid -> "etag".equals(vid.getYoutubeId()))
+        );
+    }
+
+    /**
+     * Check that the streamed list contains the same videos as the pages.
+     */
+    @Test
+    public void testStream() {
+        final var video = new VideoDto();
+        video.setTitle("Streamed video");
+        video.setUrl("https://whatever.com/video/stream");
+        video.setYoutubeId("stream");
+        video.setCreatedOn(new Date());
+        this.template.postForEntity(
+            "/videos",
+            new HttpEntity<>(video, this.authenticator.authenticateAsAdmin()),
+            VideoDto.class
+        );
+        final var ids = new ArrayList<Long>();
+        String next = null;
+        do {
+            final var page = this.template.getForEntity(
+                String.format(
+                    "/videos?limit=%d%s",
+                    Cursor.MAX_LIMIT,
+                    next == null ? "" : String.format("&after=%s", next)
+                ),
+                Videos.class
+            ).getBody();
+            page.getContent().forEach(vid -> ids.add(vid.getId()));
+            next = page.getNext();
+        } while (next != null);
+        final var streamed = this.template.getForEntity(
+            "/videos/stream", VideoDto[].class
+        );
+        Assertions.assertEquals(HttpStatus.OK, streamed.getStatusCode());
+        Assertions.assertEquals(
+            ids, Arrays.stream(streamed.getBody()).map(VideoDto::getId).toList()
+        );
+    }
+
+    /**
+     * Check that the client gets only the requested properties of the
+     * videos in the list and all of them from the detail endpoint.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void testFieldsAndDetails() throws Exception {
+        final var video = new VideoDto();
+        video.setTitle("Projected video");
+        video.setDescription("The description that lists do not need");
+        video.setUrl("https://whatever.com/video/fields");
+        video.setYoutubeId("fields");
+        video.setCreatedOn(new Date());
+        final var created = this.template.postForEntity(
+            "/videos",
+            new HttpEntity<>(video, this.authenticator.authenticateAsAdmin()),
+            VideoDto.class
+        ).getBody();
+        final var mapper = new ObjectMapper();
+        final var summary = mapper.readTree(
+            this.template.getForObject("/videos?fields=", String.class)
+        ).get("content").get(0);
+        Assertions.assertEquals(
+            Set.of("id", "title", "youtubeId", "publishedOn"),
+            VideoControllerTest.names(summary)
+        );
+        final var expanded = mapper.readTree(
+            this.template.getForObject(
+                "/videos?fields=id,description&expand=sheets", String.class
+            )
+        ).get("content").get(0);
+        Assertions.assertEquals(
+            Set.of("id", "description", "sheets"),
+            VideoControllerTest.names(expanded)
+        );
+        Assertions.assertEquals(
+            HttpStatus.BAD_REQUEST,
+            this.template.getForEntity("/videos?fields=secret", String.class)
+                .getStatusCode()
+        );
+        final var details = this.template.getForEntity(
+            String.format("/videos/%d", created.getId()), VideoDto.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, details.getStatusCode());
+        Assertions.assertEquals(
+            video.getDescription(), details.getBody().getDescription()
+        );
+        Assertions.assertEquals(
+            HttpStatus.NOT_FOUND,
+            this.template.getForEntity(
+                String.format("/videos/%d", Long.MAX_VALUE), String.class
+            ).getStatusCode()
+        );
+    }
+
+    /**
+     * Property names of the JSON object.
+     *
+     * @param node JSON object.
+     * @return Property names.
+     */
+    private static Set<String> names(final JsonNode node) {
+        final var names = new HashSet<String>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
 }
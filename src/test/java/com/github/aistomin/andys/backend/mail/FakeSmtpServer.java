@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process SMTP server that accepts everything except the recipients
+ * whose addresses end with "failed.email". Supports PIPELINING.
+ *
+ * @since 0.3
+ */
+final class FakeSmtpServer implements Closeable {
+
+    /**
+     * Server socket.
+     */
+    private final ServerSocket server;
+
+    /**
+     * Number of the accepted connections.
+     */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /**
+     * Number of the delivered mails, one per accepted recipient.
+     */
+    private final AtomicInteger delivered = new AtomicInteger();
+
+    /**
+     * Number of the transactions with at least one accepted recipient.
+     */
+    private final AtomicInteger messages = new AtomicInteger();
+
+    /**
+     * Open sessions.
+     */
+    private final Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the next message is taken without the reply to it.
+     */
+    private final AtomicBoolean hangup = new AtomicBoolean();
+
+    /**
+     * Ctor. Starts listening on a free port.
+     *
+     * @throws IOException If the port can not be opened.
+     */
+    FakeSmtpServer() throws IOException {
+        this.server = new ServerSocket(0);
+        final var acceptor = new Thread(this::accept, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Port of the server.
+     *
+     * @return Port.
+     */
+    int port() {
+        return this.server.getLocalPort();
+    }
+
+    /**
+     * Number of the accepted connections.
+     *
+     * @return Connections.
+     */
+    int connections() {
+        return this.connections.get();
+    }
+
+    /**
+     * Number of the delivered mails.
+     *
+     * @return Mails.
+     */
+    int delivered() {
+        return this.delivered.get();
+    }
+
+    /**
+     * Number of the delivered messages.
+     *
+     * @return Messages.
+     */
+    int messages() {
+        return this.messages.get();
+    }
+
+    /**
+     * Close all the open sessions, like a relay that drops the idle
+     * connections.
+     *
+     * @throws IOException If a session can not be closed.
+     */
+    void drop() throws IOException {
+        for (final var socket : this.sessions) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Take the next message and hang up instead of replying to it.
+     */
+    void hangUpAfterData() {
+        this.hangup.set(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.server.close();
+    }
+
+    /**
+     * Accept the connections until the server is closed.
+     */
+    private void accept() {
+        while (!this.server.isClosed()) {
+            try {
+                final var socket = this.server.accept();
+                this.connections.incrementAndGet();
+                this.sessions.add(socket);
+                final var session = new Thread(() -> this.serve(socket));
+                session.setDaemon(true);
+                session.start();
+            } catch (final IOException error) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Serve one connection.
+     *
+     * @param socket Connection.
+     */
+    private void serve(final Socket socket) {
+        try (
+            socket;
+            var input = new BufferedReader(
+                new InputStreamReader(
+                    socket.getInputStream(), StandardCharsets.UTF_8
+                )
+            )
+        ) {
+            final var output = socket.getOutputStream();
+            FakeSmtpServer.write(output, "220 fake ESMTP");
+            int recipients = 0;
+            String line = input.readLine();
+            while (line != null) {
+                final var command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO")) {
+                    FakeSmtpServer.write(
+                        output, "250-fake\r\n250-PIPELINING\r\n250 8BITMIME"
+                    );
+                } else if (command.startsWith("MAIL FROM:")) {
+                    recipients = 0;
+                    FakeSmtpServer.write(output, "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    if (command.endsWith("FAILED.EMAIL>")) {
+                        FakeSmtpServer.write(output, "550 No such user");
+                    } else {
+                        ++recipients;
+                        FakeSmtpServer.write(output, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    if (recipients == 0) {
+                        FakeSmtpServer.write(output, "554 No recipients");
+                    } else {
+                        FakeSmtpServer.write(output, "354 Go ahead");
+                        String data = input.readLine();
+                        while (data != null && !data.equals(".")) {
+                            data = input.readLine();
+                        }
+                        this.delivered.addAndGet(recipients);
+                        this.messages.incrementAndGet();
+                        if (this.hangup.compareAndSet(true, false)) {
+                            return;
+                        }
+                        FakeSmtpServer.write(output, "250 Queued");
+                    }
+                } else if (command.equals("QUIT")) {
+                    FakeSmtpServer.write(output, "221 Bye");
+                    return;
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    FakeSmtpServer.write(output, "250 OK");
+                } else {
+                    FakeSmtpServer.write(output, "500 Unknown command");
+                }
+                line = input.readLine();
+            }
+        } catch (final IOException error) {
+            return;
+        } finally {
+            this.sessions.remove(socket);
+        }
+    }
+
+    /**
+     * Write the reply.
+     *
+     * @param output Output.
+     * @param reply  Reply without the line separator.
+     * @throws IOException If the connection is broken.
+     */
+    private static void write(final OutputStream output, final String reply)
+        throws IOException {
+        output.write(
+            String.format("%s\r\n", reply).getBytes(StandardCharsets.UTF_8)
+        );
+        output.flush();
+    }
+}
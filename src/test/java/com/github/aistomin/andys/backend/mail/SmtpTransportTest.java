@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.mail;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for {@link SmtpTransport}.
+ *
+ * @since 0.3
+ */
+final class SmtpTransportTest {
+
+    /**
+     * Sender.
+     */
+    private static final String SENDER = "support@andys.test";
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Check that the mails are delivered and the rejected recipients fail
+     * alone.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testSend() throws Exception {
+        final long rejected = MagicNumber.THREE;
+        try (var server = new FakeSmtpServer()) {
+            final var transport = SmtpTransportTest.transport(server.port());
+            final var failed = transport.send(
+                List.of(
+                    SmtpTransportTest.mail(1),
+                    SmtpTransportTest.mail(2),
+                    new Mail(
+                        rejected, "eve@failed.email", SENDER, "News",
+                        "Newsletter body."
+                    ),
+                    new Mail(
+                        MagicNumber.FIVE.longValue(), "ann@andys.test", null,
+                        "Тема", "Привет"
+                    )
+                )
+            );
+            Assertions.assertEquals(Set.of(rejected), failed.keySet());
+            Assertions.assertTrue(failed.get(rejected).startsWith("550"));
+            Assertions.assertEquals(MagicNumber.THREE, server.delivered());
+            Assertions.assertEquals(2, server.messages());
+            Assertions.assertTrue(
+                transport.send(List.of(SmtpTransportTest.mail(1))).isEmpty()
+            );
+            Assertions.assertTrue(server.connections() <= 2);
+            transport.destroy();
+        }
+    }
+
+    /**
+     * Check that a pooled connection that the relay dropped is replaced,
+     * but a transaction that broke after the relay accepted it is not
+     * repeated.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testRetry() throws Exception {
+        try (var server = new FakeSmtpServer()) {
+            final var transport = SmtpTransportTest.transport(server.port());
+            Assertions.assertTrue(
+                transport.send(List.of(SmtpTransportTest.mail(1))).isEmpty()
+            );
+            server.drop();
+            Assertions.assertTrue(
+                transport.send(List.of(SmtpTransportTest.mail(2))).isEmpty()
+            );
+            Assertions.assertEquals(2, server.delivered());
+            server.hangUpAfterData();
+            final long lost = MagicNumber.THREE;
+            Assertions.assertEquals(
+                Set.of(lost),
+                transport.send(List.of(SmtpTransportTest.mail(lost))).keySet()
+            );
+            Assertions.assertEquals(MagicNumber.THREE, server.delivered());
+            transport.destroy();
+        }
+    }
+
+    /**
+     * Check that an address that could inject a command or a header fails
+     * without reaching the relay.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testInjection() throws Exception {
+        final long header = 2;
+        try (var server = new FakeSmtpServer()) {
+            final var transport = SmtpTransportTest.transport(server.port());
+            final var failed = transport.send(
+                List.of(
+                    SmtpTransportTest.mail(1),
+                    new Mail(
+                        header, "user2@andys.test",
+                        "eve@andys.test>\r\nBcc: <all@andys.test",
+                        "News", "Newsletter body."
+                    ),
+                    new Mail(
+                        MagicNumber.THREE.longValue(),
+                        "eve@andys.test>\r\nRCPT TO:<all@andys.test",
+                        SENDER, "News", "Newsletter body."
+                    )
+                )
+            );
+            Assertions.assertEquals(
+                Set.of(header, MagicNumber.THREE.longValue()), failed.keySet()
+            );
+            Assertions.assertEquals(1, server.delivered());
+            transport.destroy();
+        }
+    }
+
+    /**
+     * Check that a transaction that throws fails its own mails and does not
+     * throw out of the batch.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testError() throws Exception {
+        try (var server = new FakeSmtpServer()) {
+            final var transport = new SmtpTransport(
+                "localhost", server.port(), "bad\r\n@andys.test", 2,
+                MagicNumber.THOUSAND, MagicNumber.TEN, false
+            );
+            final var failed = transport.send(
+                List.of(
+                    SmtpTransportTest.mail(1),
+                    new Mail(2L, "user2@andys.test", null, "Other", "Body.")
+                )
+            );
+            Assertions.assertEquals(Set.of(1L, 2L), failed.keySet());
+            Assertions.assertEquals(0, server.delivered());
+            transport.destroy();
+        }
+    }
+
+    /**
+     * Check that all the mails fail if the relay is not available.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testUnavailable() throws Exception {
+        final int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final var transport = SmtpTransportTest.transport(port);
+        final var failed = transport.send(
+            List.of(SmtpTransportTest.mail(1), SmtpTransportTest.mail(2))
+        );
+        Assertions.assertEquals(Set.of(1L, 2L), failed.keySet());
+        transport.destroy();
+    }
+
+    /**
+     * Measure the throughput over the pooled, pipelined connections.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testThroughput() throws Exception {
+        final int total = MagicNumber.THOUSAND * MagicNumber.FIVE;
+        final var mails = new ArrayList<Mail>(total);
+        for (int idx = 0; idx < total; ++idx) {
+            mails.add(SmtpTransportTest.mail(idx));
+        }
+        try (var server = new FakeSmtpServer()) {
+            final var transport = SmtpTransportTest.transport(server.port());
+            final long start = System.nanoTime();
+            Assertions.assertTrue(transport.send(mails).isEmpty());
+            final long spent = System.nanoTime() - start;
+            this.logger.info(
+                "{} mails in {} ms: {} mails/s over {} connections",
+                total, spent / MagicNumber.THOUSAND / MagicNumber.THOUSAND,
+                total * MagicNumber.THOUSAND * MagicNumber.THOUSAND
+                    * MagicNumber.THOUSAND / spent,
+                server.connections()
+            );
+            Assertions.assertEquals(total, server.delivered());
+            Assertions.assertTrue(server.connections() <= 2);
+            transport.destroy();
+        }
+    }
+
+    /**
+     * Transport with two connections to the local relay.
+     *
+     * @param port Relay port.
+     * @return Transport.
+     */
+    private static SmtpTransport transport(final int port) {
+        return new SmtpTransport(
+            "localhost", port, SENDER, 2,
+            MagicNumber.THOUSAND * MagicNumber.FIVE,
+            MagicNumber.TEN * MagicNumber.FIVE, false
+        );
+    }
+
+    /**
+     * Mail of a newsletter.
+     *
+     * @param idx Index of the recipient.
+     * @return Mail.
+     */
+    private static Mail mail(final long idx) {
+        return new Mail(
+            idx, String.format("user%d@andys.test", idx), SENDER, "News",
+            "Newsletter body."
+        );
+    }
+}
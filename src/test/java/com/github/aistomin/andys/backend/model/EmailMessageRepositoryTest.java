@@ -73,7 +73,11 @@ final class EmailMessageRepositoryTest extends AndysIntegrationTest {
                 EmailMessageStatus.CREATED,
                 EmailMessageType.NEWS_LETTER,
                 null,
-                new Date()
+                new Date(),
+                EmailMessage.fingerprint(
+                    karl.getEmail(), clara.getEmail(), subject, body
+                ),
+                null
             )
         );
         Assertions.assertEquals(karl.getId(), email.getDispatcher().getId());
@@ -84,6 +88,19 @@ final class EmailMessageRepositoryTest extends AndysIntegrationTest {
         Assertions.assertEquals(EmailMessageType.NEWS_LETTER, email.getType());
         Assertions.assertNotNull(email.getCreatedOn());
         Assertions.assertNull(email.getInfo());
+        Assertions.assertTrue(
+            this.emails.existsByFingerprintAndCreatedOnAfter(
+                email.getFingerprint(), new Date(0L)
+            )
+        );
+        Assertions.assertFalse(
+            this.emails.existsByFingerprintAndCreatedOnAfter(
+                EmailMessage.fingerprint(
+                    karl.getEmail(), clara.getEmail(), subject, ""
+                ),
+                new Date(0L)
+            )
+        );
         final var info = "SUCCESS: OK";
         email.setStatus(EmailMessageStatus.SENT);
         email.setInfo(info);
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.model;
+
+import com.github.aistomin.andys.backend.controllers.lyrics.LyricsDto;
+import com.github.aistomin.andys.backend.controllers.video.VideoDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test for {@link Identity} and {@link Mapping}.
+ *
+ * @since 0.3
+ */
+final class IdentityTest {
+
+    /**
+     * Check that the objects with the same ID are equal whatever their
+     * other fields are.
+     */
+    @Test
+    void testSameId() {
+        final var first = IdentityTest.video(1L);
+        final var second = IdentityTest.video(1L);
+        second.setSheets(null);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(first, IdentityTest.video(2L));
+        Assertions.assertNotEquals(first, new VideoDto(first));
+        Assertions.assertEquals(new VideoDto(first), new VideoDto(second));
+    }
+
+    /**
+     * Check that the objects without an ID are equal only to themselves.
+     */
+    @Test
+    void testWithoutId() {
+        final var first = IdentityTest.lyrics(null);
+        final var second = IdentityTest.lyrics(null);
+        Assertions.assertEquals(first, first);
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(
+            2, new HashSet<>(List.of(first, second)).size()
+        );
+    }
+
+    /**
+     * Check that we map every item into a set.
+     */
+    @Test
+    void testToSet() {
+        final var mapped = Mapping.toSet(
+            List.of(
+                IdentityTest.lyrics(1L),
+                IdentityTest.lyrics(2L),
+                IdentityTest.lyrics(null)
+            ),
+            LyricsDto::new
+        );
+        Assertions.assertEquals(
+            new HashSet<>(List.of(1L, 2L)),
+            new HashSet<>(
+                mapped.stream()
+                    .map(LyricsDto::getId)
+                    .filter(id -> id != null)
+                    .toList()
+            )
+        );
+        Assertions.assertEquals(2 + 1, mapped.size());
+        Assertions.assertTrue(
+            Mapping.<Lyrics, LyricsDto>toSet(null, LyricsDto::new).isEmpty()
+        );
+    }
+
+    /**
+     * Create a video with random values.
+     *
+     * @param id Video ID.
+     * @return Video.
+     */
+    private static Video video(final Long id) {
+        return new Video(
+            id,
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            new HashSet<>(),
+            new HashSet<>(),
+            new Date(),
+            new Date()
+        );
+    }
+
+    /**
+     * Create lyrics with random values.
+     *
+     * @param id Lyrics ID or null.
+     * @return Lyrics.
+     */
+    private static Lyrics lyrics(final Long id) {
+        return new Lyrics(
+            id,
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            new Date(),
+            new Date()
+        );
+    }
+}
@@ -16,16 +16,22 @@
 package com.github.aistomin.andys.backend.model;
 
 import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
 import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 /**
  * Test for {@link VideoRepository}.
@@ -52,6 +58,12 @@ class VideoRepositoryTest extends AndysIntegrationTest {
     @Autowired
     private LyricsRepository lyrics;
 
+    /**
+     * Entity manager factory.
+     */
+    @Autowired
+    private EntityManagerFactory factory;
+
     /**
      * Check that we can correctly save the video.
      */
@@ -193,6 +205,152 @@ class VideoRepositoryTest extends AndysIntegrationTest {
         );
     }
 
+    /**
+     * Check that we load a video with N music sheets and M lyrics with
+     * 1 + N + M rows instead of N * M rows, so the video's description is
+     * transferred exactly once.
+     */
+    @Test
+    void testLoadWithoutCartesianProduct() {
+        final var notes = new HashSet<MusicSheet>();
+        for (int idx = 0; idx < MagicNumber.THREE; idx++) {
+            notes.add(createMusicSheet());
+        }
+        final var texts = new HashSet<Lyrics>() {{
+            add(createLyrics());
+            add(createLyrics());
+        }};
+        final var description = "a".repeat(MagicNumber.THOUSAND);
+        final var video = this.videos.save(
+            new Video(
+                null,
+                "The video with many sheets and lyrics",
+                description,
+                "https://videoserver.de/cartesian-product",
+                "cartesian-product",
+                notes,
+                texts,
+                new Date(),
+                new Date()
+            )
+        );
+        final var stats = this.factory
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        stats.clear();
+        stats.setStatisticsEnabled(true);
+        final var ids = List.of(video.getId());
+        final var loaded = this.videos.loadAll(ids);
+        final var scores = this.videos.loadSheets(ids);
+        final var lyr = this.videos.loadLyrics(ids);
+        stats.setStatisticsEnabled(false);
+        Assertions.assertEquals(1, loaded.size());
+        Assertions.assertEquals(notes.size(), scores.size());
+        Assertions.assertEquals(texts.size(), lyr.size());
+        Assertions.assertEquals(
+            MagicNumber.THREE.longValue(), stats.getQueryExecutionCount()
+        );
+        Assertions.assertEquals(
+            1L + notes.size() + texts.size(),
+            Arrays.stream(stats.getQueries())
+                .mapToLong(
+                    query -> stats.getQueryStatistics(query)
+                        .getExecutionRowCount()
+                )
+                .sum()
+        );
+        Assertions.assertEquals(
+            1L,
+            stats.getEntityStatistics(Video.class.getName()).getLoadCount()
+        );
+    }
+
+    /**
+     * Check that the summaries select only the small columns: no video
+     * entity, and therefore no description, is loaded for the whole
+     * fixture.
+     */
+    @Test
+    void testSummariesSkipLargeColumns() {
+        final var description = "b".repeat(MagicNumber.THOUSAND);
+        final var saved = this.videos.saveAll(
+            IntStream.range(0, MagicNumber.TEN)
+                .mapToObj(
+                    idx -> new Video(
+                        null,
+                        String.format("Summary video %d", idx),
+                        description,
+                        String.format("https://videoserver.de/sum/%d", idx),
+                        String.format("sum-%d", idx),
+                        new HashSet<>(),
+                        new HashSet<>(),
+                        new Date(),
+                        new Date()
+                    )
+                )
+                .toList()
+        );
+        final var ids = saved.stream().map(Video::getId).toList();
+        final var stats = this.factory
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        stats.clear();
+        stats.setStatisticsEnabled(true);
+        final var summaries = this.videos.loadSummaries(ids);
+        Assertions.assertEquals(ids.size(), summaries.size());
+        Assertions.assertEquals(0L, stats.getEntityLoadCount());
+        final var full = this.videos.loadAll(ids);
+        stats.setStatisticsEnabled(false);
+        Assertions.assertEquals(
+            (long) full.size(),
+            stats.getEntityStatistics(Video.class.getName()).getLoadCount()
+        );
+        this.videos.deleteAllInBatch(saved);
+    }
+
+    /**
+     * Check that the inserts are sent in JDBC batches: 1,000 new videos
+     * need one sequence call and one batch per {@link Sequences#ALLOCATION}
+     * rows instead of one statement per row.
+     */
+    @Test
+    void testBatchInserts() {
+        final var batch = IntStream.range(0, MagicNumber.THOUSAND)
+            .mapToObj(
+                idx -> new Video(
+                    null,
+                    String.format("Batched video %d", idx),
+                    "The video that is inserted in a batch",
+                    String.format("https://videoserver.de/batch/%d", idx),
+                    String.format("batch-%d", idx),
+                    new HashSet<>(),
+                    new HashSet<>(),
+                    new Date(),
+                    new Date()
+                )
+            )
+            .toList();
+        final var stats = this.factory
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        stats.clear();
+        stats.setStatisticsEnabled(true);
+        final var saved = this.videos.saveAll(batch);
+        stats.setStatisticsEnabled(false);
+        this.videos.deleteAllInBatch(saved);
+        Assertions.assertEquals(
+            MagicNumber.THOUSAND.longValue(), stats.getEntityInsertCount()
+        );
+        final long batches = MagicNumber.THOUSAND / Sequences.ALLOCATION;
+        Assertions.assertTrue(
+            stats.getPrepareStatementCount() < MagicNumber.THREE * batches,
+            String.format(
+                "%d statements per %d inserted rows",
+                stats.getPrepareStatementCount(), MagicNumber.THOUSAND
+            )
+        );
+    }
+
     /**
      * Create a test music sheet with random data.
      *
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Test for {@link BloomFilter}.
+ *
+ * @since 0.3
+ */
+final class BloomFilterTest {
+
+    /**
+     * Check that the filter finds every added item and rarely finds the
+     * other ones.
+     */
+    @Test
+    void testMembership() {
+        final var filter = new BloomFilter(MagicNumber.THOUSAND);
+        final var added = IntStream.range(0, MagicNumber.THOUSAND)
+            .mapToObj(idx -> UUID.randomUUID().toString())
+            .toList();
+        added.forEach(filter::put);
+        Assertions.assertTrue(added.stream().allMatch(filter::mightContain));
+        final long positives = IntStream
+            .range(0, MagicNumber.THOUSAND * MagicNumber.TEN)
+            .mapToObj(idx -> UUID.randomUUID().toString())
+            .filter(filter::mightContain)
+            .count();
+        Assertions.assertTrue(
+            positives < MagicNumber.THOUSAND / 2,
+            String.format("Too many false positives: %d", positives)
+        );
+    }
+}
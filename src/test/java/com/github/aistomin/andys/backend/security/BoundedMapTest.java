@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BoundedMap}.
+ *
+ * @since 0.3
+ */
+final class BoundedMapTest {
+
+    /**
+     * Check that a full stripe evicts the least recently used key only.
+     */
+    @Test
+    void testEviction() {
+        final var map = new BoundedMap<Integer>(1, 2);
+        map.apply("first", keys -> keys.put("first", 1));
+        map.apply("second", keys -> keys.put("second", 2));
+        final Integer first = map.apply("first", keys -> keys.get("first"));
+        Assertions.assertEquals(1, first);
+        map.apply("third", keys -> keys.put("third", MagicNumber.THREE));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertTrue(BoundedMapTest.has(map, "first"));
+        Assertions.assertFalse(BoundedMapTest.has(map, "second"));
+        Assertions.assertTrue(BoundedMapTest.has(map, "third"));
+    }
+
+    /**
+     * Check that the number of the keys stays bounded.
+     */
+    @Test
+    void testCapacity() {
+        final var map = new BoundedMap<Integer>(
+            MagicNumber.TEN, MagicNumber.THOUSAND
+        );
+        final int total = MagicNumber.THOUSAND * MagicNumber.TEN;
+        for (int idx = 0; idx < total; ++idx) {
+            final var key = String.valueOf(idx);
+            final int value = idx;
+            map.apply(key, keys -> keys.put(key, value));
+        }
+        Assertions.assertTrue(map.size() <= MagicNumber.THOUSAND);
+    }
+
+    /**
+     * Whether the map has the key.
+     *
+     * @param map Map.
+     * @param key Key.
+     * @return Whether the key is there.
+     */
+    private static boolean has(
+        final BoundedMap<Integer> map, final String key
+    ) {
+        return map.apply(key, keys -> keys.containsKey(key));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for {@link FailureCounters}.
+ *
+ * @since 0.3
+ */
+final class FailureCountersTest {
+
+    /**
+     * Check that a key is blocked while it has too many failures within
+     * the window.
+     */
+    @Test
+    void testWindow() {
+        final var counters = new FailureCounters(
+            MagicNumber.THREE, Duration.ofMillis(MagicNumber.THOUSAND),
+            MagicNumber.THOUSAND
+        );
+        Assertions.assertTrue(counters.acquire("key", 0L).isZero());
+        Assertions.assertTrue(counters.acquire("key", 1L).isZero());
+        Assertions.assertTrue(counters.acquire("key", 2L).isZero());
+        Assertions.assertEquals(
+            Duration.ofMillis(MagicNumber.THOUSAND - 2),
+            counters.acquire("key", 2L)
+        );
+        Assertions.assertTrue(counters.acquire("other", 2L).isZero());
+        Assertions.assertTrue(
+            counters.acquire("key", MagicNumber.THOUSAND).isZero()
+        );
+        counters.reset("key");
+        for (int idx = 0; idx < MagicNumber.THREE; ++idx) {
+            Assertions.assertTrue(
+                counters.acquire("key", MagicNumber.THOUSAND).isZero()
+            );
+        }
+        Assertions.assertFalse(
+            counters.acquire("key", MagicNumber.THOUSAND).isZero()
+        );
+    }
+
+    /**
+     * Check that the attempts that did not fail are forgiven.
+     */
+    @Test
+    void testRelease() {
+        final var counters = new FailureCounters(
+            2, Duration.ofMillis(MagicNumber.THOUSAND), MagicNumber.THOUSAND
+        );
+        for (int idx = 0; idx < MagicNumber.TEN; ++idx) {
+            Assertions.assertTrue(counters.acquire("key", idx).isZero());
+            counters.release("key", idx);
+        }
+        Assertions.assertTrue(
+            counters.acquire("key", MagicNumber.TEN).isZero()
+        );
+    }
+
+    /**
+     * Check that the parallel attempts do not pass the limit together.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    void testParallel() throws Exception {
+        final var counters = new FailureCounters(
+            MagicNumber.FIVE, Duration.ofMillis(MagicNumber.THOUSAND),
+            MagicNumber.THOUSAND
+        );
+        final var allowed = new AtomicInteger();
+        final var threads = new ArrayList<Thread>(MagicNumber.TEN);
+        for (int idx = 0; idx < MagicNumber.TEN; ++idx) {
+            final var thread = new Thread(
+                () -> {
+                    for (int att = 0; att < MagicNumber.TEN; ++att) {
+                        if (counters.acquire("key", 0L).isZero()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                }
+            );
+            thread.start();
+            threads.add(thread);
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(MagicNumber.FIVE, allowed.get());
+    }
+
+    /**
+     * Check that a flood of new keys does not grow the counters without
+     * a bound.
+     */
+    @Test
+    void testCapacity() {
+        final var counters = new FailureCounters(
+            1, Duration.ofMillis(MagicNumber.THOUSAND), 1
+        );
+        for (int idx = 0; idx < MagicNumber.THOUSAND; ++idx) {
+            counters.acquire(String.valueOf(idx), 0L);
+        }
+        counters.acquire("key", 0L);
+        Assertions.assertFalse(counters.acquire("key", 0L).isZero());
+    }
+}
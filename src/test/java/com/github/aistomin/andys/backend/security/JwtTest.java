@@ -17,10 +17,16 @@ package com.github.aistomin.andys.backend.security;
 
 import com.github.aistomin.andys.backend.controllers.Authenticator;
 import com.github.aistomin.andys.backend.utils.AndysIntegrationTest;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,6 +42,24 @@ final class JwtTest extends AndysIntegrationTest {
     @Autowired
     private Authenticator authenticator;
 
+    /**
+     * Test REST template.
+     */
+    @Autowired
+    private TestRestTemplate template;
+
+    /**
+     * JWT utils.
+     */
+    @Autowired
+    private Jwt jwt;
+
+    /**
+     * Revoked tokens.
+     */
+    @Autowired
+    private Revocations revocations;
+
     /**
      * Check that we can correctly login.
      */
@@ -52,4 +76,165 @@ final class JwtTest extends AndysIntegrationTest {
         final var authorised = this.authenticator.authenticate(admin, admin);
         Assertions.assertEquals(HttpStatus.OK, authorised.getStatusCode());
     }
+
+    /**
+     * Check that an invalid token leaves the request anonymous.
+     */
+    @Test
+    public void testInvalidToken() {
+        final var headers = new HttpHeaders();
+        headers.setBearerAuth("not.a.token");
+        Assertions.assertEquals(
+            HttpStatus.OK,
+            this.template.exchange(
+                "/videos", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class
+            ).getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class
+            ).getStatusCode()
+        );
+    }
+
+    /**
+     * Check that we reject the logins of a username with too many recent
+     * failures and report the password check metrics.
+     */
+    @Test
+    public void testThrottling() {
+        final var username = UUID.randomUUID().toString();
+        for (int idx = 0; idx < MagicNumber.FIVE; ++idx) {
+            Assertions.assertEquals(
+                HttpStatus.UNAUTHORIZED,
+                this.authenticator.authenticate(username, "wrong")
+                    .getStatusCode()
+            );
+        }
+        final var throttled = this.authenticator.authenticate(
+            username, "wrong"
+        );
+        Assertions.assertEquals(
+            HttpStatus.TOO_MANY_REQUESTS, throttled.getStatusCode()
+        );
+        Assertions.assertNotNull(
+            throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+        );
+        final var metrics = this.template.exchange(
+            "/metrics", HttpMethod.GET,
+            new HttpEntity<>(this.authenticator.authenticateAsAdmin()),
+            String.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, metrics.getStatusCode());
+        Assertions.assertTrue(
+            metrics.getBody().contains("authentication.queue-wait")
+        );
+    }
+
+    /**
+     * Check that a refresh token gets the next pair of tokens exactly once.
+     */
+    @Test
+    public void testRefresh() {
+        final var admin = "admin";
+        final var login = this.authenticator.authenticate(admin, admin)
+            .getBody();
+        Assertions.assertNotNull(login.getRefreshToken());
+        final var refreshed = this.template.postForEntity(
+            "/authenticate/refresh",
+            new RefreshRequest(login.getRefreshToken()),
+            JwtResponse.class
+        );
+        Assertions.assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        Assertions.assertNotEquals(
+            login.getRefreshToken(), refreshed.getBody().getRefreshToken()
+        );
+        final var headers = new HttpHeaders();
+        headers.setBearerAuth(refreshed.getBody().getToken());
+        Assertions.assertEquals(
+            HttpStatus.OK,
+            this.template.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class
+            ).getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.postForEntity(
+                "/authenticate/refresh",
+                new RefreshRequest(login.getRefreshToken()),
+                JwtResponse.class
+            ).getStatusCode()
+        );
+    }
+
+    /**
+     * Check that a revoked token is rejected together with its refresh
+     * token.
+     */
+    @Test
+    public void testRevoke() {
+        final var admin = "admin";
+        final var login = this.authenticator.authenticate(admin, admin)
+            .getBody();
+        final var headers = new HttpHeaders();
+        headers.setBearerAuth(login.getToken());
+        Assertions.assertEquals(
+            HttpStatus.NO_CONTENT,
+            this.template.exchange(
+                "/authenticate/revoke", HttpMethod.POST,
+                new HttpEntity<>(headers), Void.class
+            ).getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class
+            ).getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.UNAUTHORIZED,
+            this.template.postForEntity(
+                "/authenticate/refresh",
+                new RefreshRequest(login.getRefreshToken()),
+                JwtResponse.class
+            ).getStatusCode()
+        );
+        Assertions.assertEquals(
+            HttpStatus.OK,
+            this.template.exchange(
+                "/users", HttpMethod.GET,
+                new HttpEntity<>(this.authenticator.authenticateAsAdmin()),
+                String.class
+            ).getStatusCode()
+        );
+    }
+
+    /**
+     * Check that a user can not revoke the token of another user.
+     */
+    @Test
+    public void testRevokeForeignToken() {
+        final var foreign = this.jwt.generateToken(
+            UUID.randomUUID().toString(), List.of(), null
+        );
+        Assertions.assertEquals(
+            HttpStatus.FORBIDDEN,
+            this.template.exchange(
+                "/authenticate/revoke", HttpMethod.POST,
+                new HttpEntity<>(
+                    new RevokeRequest(foreign),
+                    this.authenticator.authenticateAsAdmin()
+                ),
+                Void.class
+            ).getStatusCode()
+        );
+        Assertions.assertFalse(
+            this.revocations.revoked(this.jwt.verify(foreign))
+        );
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+/**
+ * Test for {@link TokenBuckets}.
+ *
+ * @since 0.3
+ */
+final class TokenBucketsTest {
+
+    /**
+     * Check that a bucket allows a burst up to the limit and then refills at
+     * the sustained rate.
+     */
+    @Test
+    void testRate() {
+        final var buckets = new TokenBuckets(
+            MagicNumber.THREE, Duration.ofNanos(MagicNumber.THREE * 2),
+            MagicNumber.THOUSAND
+        );
+        for (int idx = 0; idx < MagicNumber.THREE; ++idx) {
+            Assertions.assertTrue(buckets.acquire("key", 0L).isZero());
+        }
+        Assertions.assertEquals(
+            Duration.ofNanos(2), buckets.acquire("key", 0L)
+        );
+        Assertions.assertTrue(buckets.acquire("other", 0L).isZero());
+        Assertions.assertFalse(buckets.acquire("key", 1L).isZero());
+        Assertions.assertTrue(buckets.acquire("key", 2L).isZero());
+        Assertions.assertFalse(buckets.acquire("key", 2L).isZero());
+    }
+
+    /**
+     * Check that a flood of new keys does not grow the buckets without
+     * a bound.
+     */
+    @Test
+    void testCapacity() {
+        final var buckets = new TokenBuckets(
+            1, Duration.ofNanos(MagicNumber.THOUSAND), MagicNumber.THOUSAND
+        );
+        for (int idx = 0; idx < MagicNumber.THOUSAND * 2; ++idx) {
+            buckets.acquire(String.valueOf(idx), 0L);
+        }
+        Assertions.assertTrue(buckets.size() <= MagicNumber.THOUSAND);
+        Assertions.assertTrue(
+            buckets.acquire("key", MagicNumber.THOUSAND).isZero()
+        );
+        Assertions.assertFalse(
+            buckets.acquire("key", MagicNumber.THOUSAND).isZero()
+        );
+    }
+
+    /**
+     * Check that a flood of new keys does not reset a bucket that is in
+     * use.
+     */
+    @Test
+    void testFloodKeepsBusyBucket() {
+        final var buckets = new TokenBuckets(
+            1, Duration.ofNanos(MagicNumber.THOUSAND), MagicNumber.THOUSAND
+        );
+        Assertions.assertTrue(buckets.acquire("victim", 0L).isZero());
+        for (int idx = 0; idx < MagicNumber.THOUSAND * 2; ++idx) {
+            buckets.acquire(String.valueOf(idx), 0L);
+            Assertions.assertFalse(buckets.acquire("victim", 0L).isZero());
+        }
+    }
+
+    /**
+     * Check that a new key is refused while all the buckets are throttled
+     * and takes the place of a refilled one afterwards.
+     */
+    @Test
+    void testFloodRefusesNewKeys() {
+        final var buckets = new TokenBuckets(
+            1, Duration.ofNanos(MagicNumber.THOUSAND), MagicNumber.THOUSAND
+        );
+        for (int idx = 0; idx < MagicNumber.THOUSAND * MagicNumber.TEN;
+            ++idx) {
+            buckets.acquire(String.valueOf(idx), 0L);
+        }
+        Assertions.assertEquals(
+            Duration.ofNanos(MagicNumber.THOUSAND - 1),
+            buckets.acquire("late", 1L)
+        );
+        Assertions.assertTrue(
+            buckets.acquire("late", MagicNumber.THOUSAND).isZero()
+        );
+        Assertions.assertFalse(
+            buckets.acquire("late", MagicNumber.THOUSAND).isZero()
+        );
+        Assertions.assertTrue(buckets.size() <= MagicNumber.THOUSAND);
+    }
+
+    /**
+     * Check that the reserved tokens are spread at the sustained rate.
+     */
+    @Test
+    void testReserve() {
+        final var buckets = new TokenBuckets(
+            2, Duration.ofNanos(MagicNumber.TEN * 2), MagicNumber.THOUSAND
+        );
+        Assertions.assertTrue(buckets.reserve("key", 0L).isZero());
+        Assertions.assertTrue(buckets.reserve("key", 0L).isZero());
+        Assertions.assertEquals(
+            Duration.ofNanos(MagicNumber.TEN), buckets.reserve("key", 0L)
+        );
+        Assertions.assertEquals(
+            Duration.ofNanos(MagicNumber.TEN * 2), buckets.reserve("key", 0L)
+        );
+        Assertions.assertFalse(
+            buckets.acquire("key", MagicNumber.TEN * 2).isZero()
+        );
+    }
+}
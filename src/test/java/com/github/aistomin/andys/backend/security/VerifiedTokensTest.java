@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.security;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for {@link VerifiedTokens}.
+ *
+ * @since 0.3
+ */
+final class VerifiedTokensTest {
+
+    /**
+     * Test JWT secret.
+     */
+    private static final String SECRET =
+        "EWbFtjV/y2algCtEhYwuaZdWSg2BhN2SGv4EP465Pk0=";
+
+    /**
+     * Check that we verify a token only once until it expires.
+     */
+    @Test
+    void testExpiry() {
+        final var now = new AtomicLong();
+        final var calls = new AtomicInteger();
+        final var tokens = new VerifiedTokens(MagicNumber.TEN, now::get);
+        final var claims = new JwtClaims(
+            "jti", "admin", new Date(0), new Date(MagicNumber.THOUSAND),
+            List.of(), 1L
+        );
+        for (int idx = 0; idx < MagicNumber.THREE; ++idx) {
+            Assertions.assertSame(
+                claims,
+                tokens.get(
+                    "token",
+                    token -> {
+                        calls.incrementAndGet();
+                        return claims;
+                    }
+                )
+            );
+        }
+        Assertions.assertEquals(1, calls.get());
+        now.set(MagicNumber.THOUSAND);
+        Assertions.assertThrows(
+            JwtException.class,
+            () -> tokens.get(
+                "token",
+                token -> {
+                    throw new JwtException("expired");
+                }
+            )
+        );
+        Assertions.assertEquals(0, tokens.size());
+    }
+
+    /**
+     * Check that the cache never grows over its capacity and evicts the
+     * old tokens one by one, not the fresh ones.
+     */
+    @Test
+    void testCapacity() {
+        final var tokens = new VerifiedTokens(MagicNumber.THREE, () -> 0L);
+        final var claims = new JwtClaims(
+            "jti", "admin", new Date(0), new Date(MagicNumber.THOUSAND),
+            List.of(), 1L
+        );
+        for (int idx = 0; idx < MagicNumber.TEN; ++idx) {
+            tokens.get(String.valueOf(idx), token -> claims);
+            Assertions.assertTrue(tokens.size() <= MagicNumber.THREE);
+            Assertions.assertSame(
+                claims,
+                tokens.get(
+                    String.valueOf(idx),
+                    token -> {
+                        throw new JwtException("verified again");
+                    }
+                )
+            );
+        }
+    }
+
+    /**
+     * Check that we issue and verify the tokens with the same key and
+     * reject the tampered ones.
+     */
+    @Test
+    void testVerify() {
+        final var jwt = new Jwt(SECRET, MagicNumber.TEN, MagicNumber.THOUSAND);
+        final var token = jwt.generateToken(
+            User.withUsername("admin").password("admin")
+                .authorities("ROLE_ADMIN").build(),
+            MagicNumber.TEN.longValue()
+        );
+        final var claims = jwt.verify(token);
+        Assertions.assertEquals("admin", claims.getUsername());
+        Assertions.assertNotNull(claims.getId());
+        Assertions.assertEquals(List.of("ROLE_ADMIN"), claims.getAuthorities());
+        Assertions.assertEquals(
+            MagicNumber.TEN.longValue(), claims.getEpoch()
+        );
+        Assertions.assertTrue(
+            claims.getExpiration().after(claims.getIssuedAt())
+        );
+        Assertions.assertSame(claims, jwt.verify(token));
+        Assertions.assertThrows(
+            JwtException.class,
+            () -> jwt.verify(String.format("%sx", token))
+        );
+    }
+}
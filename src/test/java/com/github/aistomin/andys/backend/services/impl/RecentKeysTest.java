@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+/**
+ * Test for {@link RecentKeys}.
+ *
+ * @since 0.3
+ */
+final class RecentKeysTest {
+
+    /**
+     * Check that a key is remembered only within the window.
+     */
+    @Test
+    void testWindow() {
+        final var keys = new RecentKeys(
+            Duration.ofMillis(MagicNumber.TEN), MagicNumber.TEN
+        );
+        Assertions.assertFalse(keys.contains("key", 0L));
+        keys.add("key", 0L);
+        Assertions.assertTrue(keys.contains("key", MagicNumber.TEN - 1));
+        Assertions.assertFalse(keys.contains("other", 1L));
+        Assertions.assertFalse(keys.contains("key", MagicNumber.TEN));
+    }
+
+    /**
+     * Check that a flood of new keys does not grow the set without a bound.
+     */
+    @Test
+    void testCapacity() {
+        final var keys = new RecentKeys(
+            Duration.ofMillis(MagicNumber.THOUSAND), MagicNumber.TEN
+        );
+        for (int idx = 0; idx < MagicNumber.THOUSAND; ++idx) {
+            keys.add(String.valueOf(idx), 0L);
+        }
+        Assertions.assertTrue(
+            keys.contains(String.valueOf(MagicNumber.THOUSAND - 1), 0L)
+        );
+        Assertions.assertFalse(keys.contains("0", 0L));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2022-2023, Istomin Andrei
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.aistomin.andys.backend.services.impl;
+
+import com.github.aistomin.andys.backend.controllers.blog.BlogPosts;
+import com.github.aistomin.andys.backend.controllers.paging.Cursor;
+import com.github.aistomin.andys.backend.controllers.paging.Paged;
+import com.github.aistomin.andys.backend.model.BlogPost;
+import com.github.aistomin.andys.backend.model.Video;
+import com.github.aistomin.andys.backend.services.CatalogueChanged;
+import com.github.aistomin.andys.backend.utils.MagicNumber;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/**
+ * Test for {@link Snapshot}.
+ *
+ * @since 0.3
+ */
+final class SnapshotTest {
+
+    /**
+     * Check that we can walk through the snapshot page by page.
+     */
+    @Test
+    void testPage() {
+        final var items = cursors(MagicNumber.TEN);
+        final var snapshot = new Snapshot<>(
+            Runnable::run, () -> items, Function.identity()
+        );
+        final var walked = new ArrayList<Cursor>();
+        Cursor after = null;
+        do {
+            final Paged<Cursor> page = snapshot.page(
+                after, MagicNumber.THREE, TestPage::new
+            );
+            Assertions.assertTrue(
+                page.getContent().size() <= MagicNumber.THREE
+            );
+            walked.addAll(page.getContent());
+            after = Cursor.parse(page.getNext());
+        } while (after != null);
+        Assertions.assertEquals(items, walked);
+        Assertions.assertEquals(
+            items.subList(MagicNumber.THREE, MagicNumber.THREE + 2),
+            snapshot.page(items.get(2), 2, TestPage::new).getContent()
+        );
+    }
+
+    /**
+     * Check that the change of the source entity is visible in the next
+     * read and the change of the other entities does not rebuild the
+     * snapshot.
+     */
+    @Test
+    void testReadYourWrites() {
+        final var source = new AtomicReference<>(cursors(1));
+        final var builds = new AtomicInteger();
+        final var snapshot = new Snapshot<>(
+            Runnable::run,
+            () -> {
+                builds.incrementAndGet();
+                return source.get();
+            },
+            Function.identity(),
+            Video.class
+        );
+        Assertions.assertEquals(1, snapshot.get().size());
+        Assertions.assertEquals(1, snapshot.get().size());
+        Assertions.assertEquals(1, builds.get());
+        source.set(cursors(2));
+        snapshot.onChange(new CatalogueChanged(BlogPost.class));
+        Assertions.assertEquals(1, snapshot.get().size());
+        snapshot.onChange(new CatalogueChanged(Video.class));
+        Assertions.assertEquals(2, snapshot.get().size());
+        Assertions.assertEquals(2, builds.get());
+    }
+
+    /**
+     * Check that the older build never replaces the newer one, even if it
+     * finishes later.
+     */
+    @Test
+    void testNewerBuildWins() {
+        final var tasks = new ArrayList<Runnable>();
+        final var source = new AtomicReference<>(cursors(1));
+        final var snapshot = new Snapshot<>(
+            tasks::add, source::get, Function.identity()
+        );
+        snapshot.refresh();
+        source.set(cursors(2));
+        final var latest = snapshot.refresh();
+        tasks.get(1).run();
+        tasks.get(0).run();
+        Assertions.assertEquals(2, snapshot.get().size());
+        Assertions.assertEquals(2, latest.getItems().join().size());
+    }
+
+    /**
+     * Check that we retry the failed build on the next read.
+     */
+    @Test
+    void testFailedBuild() {
+        final var attempts = new AtomicInteger();
+        final var snapshot = new Snapshot<>(
+            Runnable::run,
+            () -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Database is down");
+                }
+                return cursors(1);
+            },
+            Function.identity()
+        );
+        Assertions.assertThrows(IllegalStateException.class, snapshot::get);
+        Assertions.assertEquals(1, snapshot.get().size());
+    }
+
+    /**
+     * Check that we load the whole catalogue page by page.
+     */
+    @Test
+    void testAll() {
+        final var items = cursors(Cursor.MAX_LIMIT + MagicNumber.TEN);
+        final var snapshot = new Snapshot<>(
+            Runnable::run, () -> items, Function.identity()
+        );
+        Assertions.assertEquals(
+            items,
+            Snapshot.all(
+                (after, limit) -> snapshot.page(after, limit, TestPage::new)
+            )
+        );
+        Assertions.assertTrue(
+            Snapshot.all((after, limit) -> new BlogPosts(List.of(), null))
+                .isEmpty()
+        );
+    }
+
+    /**
+     * Create cursors ordered as the catalogue.
+     *
+     * @param count Count of the cursors.
+     * @return Cursors.
+     */
+    private static List<Cursor> cursors(final int count) {
+        return LongStream.range(0, count)
+            .mapToObj(idx -> new Cursor(new Date(idx), idx))
+            .sorted(Cursor.ORDER)
+            .toList();
+    }
+
+    /**
+     * Test page.
+     *
+     * @since 0.3
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class TestPage implements Paged<Cursor> {
+
+        /**
+         * Items.
+         */
+        private final List<Cursor> content;
+
+        /**
+         * Next cursor.
+         */
+        private final String next;
+    }
+}
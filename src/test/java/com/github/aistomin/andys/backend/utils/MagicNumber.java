@@ -33,6 +33,11 @@ public final class MagicNumber {
      */
     public static final Integer THREE = 3;
 
+    /**
+     * A five.
+     */
+    public static final Integer FIVE = 5;
+
     /**
      * A ten.
      */